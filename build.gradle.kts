@@ -2,6 +2,7 @@ plugins {
 	java
 	alias(libs.plugins.spring.boot)
 	alias(libs.plugins.spring.dependency.management)
+	alias(libs.plugins.jmh)
 }
 
 group = "com.neighbor.eventmosaic"
@@ -52,6 +53,7 @@ dependencies {
 	// Test
 	testImplementation(libs.spring.boot.starter.test)
 	testImplementation(libs.spring.kafka.test)
+	jmh(libs.spring.kafka.test)                   // Встроенный брокер для ProducerProfileBenchmark
 	testImplementation(libs.testcontainers.core)
 	testImplementation(libs.testcontainers.junit)
 	testImplementation(libs.testcontainers.kafka)
@@ -70,3 +72,11 @@ dependencyManagement {
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+// Бенчмарки парсеров: ./gradlew jmh [-Pjmh.includes=CsvParserBenchmark] (исходники в src/jmh/java)
+jmh {
+	jmhVersion = libs.versions.jmh.get()
+	profilers = listOf("gc")                      // gc.alloc.rate.norm - байт, выделенных на одну операцию
+	resultFormat = "JSON"
+	providers.gradleProperty("jmh.includes").orNull?.let { includes = listOf(it) }
+}
@@ -0,0 +1,86 @@
+package com.neighbor.eventmosaic.adapter.parser;
+
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProjectionProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор синтетических файлов событий и упоминаний GDELT парсерами со всеми полями.
+ * Одна операция - одна строка файла, поэтому throughput показывает строки в секунду,
+ * а gc.alloc.rate.norm - байты, выделенные на разбор одной строки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParserBenchmark {
+
+    private static final int ROWS = 20_000;
+
+    @Param({"TSV", "COMMONS_CSV"})
+    private ParserEngine engine;
+
+    private byte[] events;
+    private byte[] mentions;
+    private EventCsvParser eventParser;
+    private MentionCsvParser mentionParser;
+
+    @Setup
+    public void setUp() throws IOException {
+        GdeltDataGenerator generator = new GdeltDataGenerator();
+        events = generator.events(ROWS);
+        mentions = generator.mentions(ROWS);
+
+        ParserProperties properties = new ParserProperties();
+        properties.getEvent().setEngine(engine);
+        properties.getMention().setEngine(engine);
+        eventParser = new EventCsvParser(properties, new ProjectionProperties());
+        mentionParser = new MentionCsvParser(properties, new ProjectionProperties());
+
+        verify(eventParser.parseStream(new ByteArrayInputStream(events), StandardCharsets.UTF_8, event -> {
+        }));
+        verify(mentionParser.parseStream(new ByteArrayInputStream(mentions), StandardCharsets.UTF_8, mention -> {
+        }));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ParseSummary parseEvents(Blackhole blackhole) throws IOException {
+        return eventParser.parseStream(new ByteArrayInputStream(events), StandardCharsets.UTF_8, blackhole::consume);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ParseSummary parseMentions(Blackhole blackhole) throws IOException {
+        return mentionParser.parseStream(new ByteArrayInputStream(mentions), StandardCharsets.UTF_8, blackhole::consume);
+    }
+
+    /**
+     * Проверяет, что сгенерированный файл разбирается целиком и без ошибок:
+     * иначе бенчмарк измерял бы обработку некорректных данных
+     */
+    private static void verify(ParseSummary summary) {
+        if (summary.records() != ROWS || summary.totalMalformedValues() > 0 || summary.totalMissingValues() > 0) {
+            throw new IllegalStateException("Синтетический файл разобран с ошибками: " + summary);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.neighbor.eventmosaic.adapter.parser;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Детерминированный генератор синтетических файлов GDELT 2.0 (TSV) для бенчмарков.
+ * <p>
+ * Данные повторяют форму реальных выгрузок: справочные колонки (страны, типы акторов, коды CAMEO,
+ * источники) имеют небольшое число различных значений, большая часть колонок акторов и групп пустая,
+ * дробные значения записываются с полной точностью, а URL уникальны для каждой строки.
+ * При одинаковом seed генерируются одинаковые байты, поэтому результаты бенчмарков сравнимы между запусками.
+ * <p>
+ * Файл нужного размера можно сохранить на диск:
+ * {@code java ... GdeltDataGenerator <events|mentions> <количество строк> <файл> [seed]}
+ */
+public final class GdeltDataGenerator {
+
+    /**
+     * Seed по умолчанию, на котором построены все бенчмарки
+     */
+    public static final long DEFAULT_SEED = 20250106L;
+
+    private static final long FIRST_EVENT_ID = 1_219_100_000L;
+
+    /**
+     * Страны: код CAMEO, название, код FIPS, широта и долгота центра
+     */
+    private static final String[][] COUNTRIES = {
+            {"USA", "UNITED STATES", "US", "39.828175", "-98.5795"},
+            {"CHN", "CHINA", "CH", "35", "105"},
+            {"RUS", "RUSSIA", "RS", "60", "100"},
+            {"UKR", "UKRAINE", "UP", "49", "32"},
+            {"GBR", "UNITED KINGDOM", "UK", "54", "-2"},
+            {"FRA", "FRANCE", "FR", "46", "2"},
+            {"DEU", "GERMANY", "GM", "51", "9"},
+            {"ISR", "ISRAEL", "IS", "31.5", "34.75"},
+            {"PSE", "PALESTINE", "WE", "32", "35.25"},
+            {"IND", "INDIA", "IN", "20", "77"},
+            {"PAK", "PAKISTAN", "PK", "30", "70"},
+            {"IRN", "IRAN", "IR", "32", "53"},
+            {"TUR", "TURKEY", "TU", "39", "35"},
+            {"BRA", "BRAZIL", "BR", "-10", "-55"},
+            {"MEX", "MEXICO", "MX", "23", "-102"},
+            {"CAN", "CANADA", "CA", "60", "-95"},
+            {"AUS", "AUSTRALIA", "AS", "-27", "133"},
+            {"JPN", "JAPAN", "JA", "36", "138"},
+            {"KOR", "SOUTH KOREA", "KS", "37", "127.5"},
+            {"NGA", "NIGERIA", "NI", "10", "8"},
+            {"ZAF", "SOUTH AFRICA", "SF", "-29", "24"},
+            {"EGY", "EGYPT", "EG", "27", "30"},
+            {"SAU", "SAUDI ARABIA", "SA", "25", "45"},
+            {"SYR", "SYRIA", "SY", "35", "38"},
+            {"IDN", "INDONESIA", "ID", "-5", "120"},
+    };
+
+    private static final String[] CITIES = {
+            "Washington", "New York", "Beijing", "Moscow", "Kyiv", "London", "Paris", "Berlin", "Jerusalem",
+            "Gaza", "New Delhi", "Mumbai", "Islamabad", "Tehran", "Ankara", "Brasilia", "Mexico City",
+            "Ottawa", "Sydney", "Tokyo", "Seoul", "Lagos", "Johannesburg", "Cairo", "Riyadh", "Damascus", "Jakarta"
+    };
+
+    private static final String[] ACTOR_TYPES = {
+            "GOV", "MIL", "COP", "BUS", "MED", "EDU", "CVL", "JUD", "LEG", "OPP", "REB", "REF", "HLH", "LAB"
+    };
+
+    private static final String[] ACTOR_NAMES = {
+            "GOVERNMENT", "MILITARY", "POLICE", "COMPANY", "MEDIA", "SCHOOL", "CITIZEN", "COURT", "PARLIAMENT",
+            "OPPOSITION", "REBEL", "REFUGEE", "HOSPITAL", "UNION"
+    };
+
+    private static final String[] KNOWN_GROUPS = {"UNO", "NAT", "EUR", "IMF", "WTO", "HMS", "HEZ"};
+
+    private static final String[] RELIGIONS = {"CHR", "MOS", "JEW", "HIN", "BUD", "SUN", "SHI", "CTH"};
+
+    private static final String[] ETHNIC_CODES = {"kur", "pas", "bal", "ara", "tam"};
+
+    /**
+     * Наиболее частые коды событий CAMEO. Базовый код - первые три цифры, корневой - первые две.
+     */
+    private static final String[] EVENT_CODES = {
+            "010", "011", "012", "013", "014", "020", "0211", "0231", "030", "0311", "036", "040", "042", "043",
+            "046", "050", "051", "057", "060", "061", "070", "071", "080", "0831", "090", "100", "111", "112",
+            "120", "1211", "130", "138", "141", "145", "160", "172", "173", "180", "181", "190", "193", "195"
+    };
+
+    private static final String[] SOURCES = {
+            "reuters.com", "apnews.com", "bbc.co.uk", "theguardian.com", "nytimes.com", "washingtonpost.com",
+            "aljazeera.com", "timesofindia.indiatimes.com", "dailyhindinews.com", "gate.el-balad.com",
+            "abc.net.au", "cbc.ca", "dw.com", "lemonde.fr", "spiegel.de", "japantimes.co.jp", "koreaherald.com",
+            "premiumtimesng.com", "news24.com", "arabnews.com", "jakartapost.com", "yahoo.com", "msn.com",
+            "foxnews.com", "cnn.com", "nbcnews.com", "france24.com", "euronews.com", "dawn.com", "hurriyet.com.tr"
+    };
+
+    private static final String[] SECTIONS = {"news", "world", "politics", "business", "article", "story", "2025/01/06"};
+
+    private static final String[] WORDS = {
+            "minister", "talks", "border", "election", "protest", "sanctions", "trade", "deal", "attack",
+            "president", "court", "ceasefire", "summit", "economy", "security", "police", "rally", "aid",
+            "report", "says", "after", "over", "new", "government", "calls", "warns", "meets", "rejects"
+    };
+
+    private static final String[] TRANSLATIONS = {
+            "srclc:fra;eng:GT-FRA 1.0", "srclc:deu;eng:GT-DEU 1.0", "srclc:spa;eng:GT-SPA 1.0",
+            "srclc:ara;eng:GT-ARA 1.0", "srclc:rus;eng:GT-RUS 1.0", "srclc:zho;eng:GT-ZHO 1.0"
+    };
+
+    private final long seed;
+
+    /**
+     * @param seed начальное значение генератора случайных чисел
+     */
+    public GdeltDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public GdeltDataGenerator() {
+        this(DEFAULT_SEED);
+    }
+
+    /**
+     * Генерирует файл событий GDELT 2.0 (61 колонка)
+     *
+     * @param rows количество строк
+     * @return содержимое файла в UTF-8
+     */
+    public byte[] events(int rows) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder builder = new StringBuilder(rows * 400);
+        for (int i = 0; i < rows; i++) {
+            appendEvent(builder, random, FIRST_EVENT_ID + i);
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Генерирует файл упоминаний GDELT 2.0 (16 колонок, включая пустую Extras).
+     * На одно событие приходится в среднем около трех упоминаний.
+     *
+     * @param rows количество строк
+     * @return содержимое файла в UTF-8
+     */
+    public byte[] mentions(int rows) {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder builder = new StringBuilder(rows * 200);
+        long eventId = FIRST_EVENT_ID;
+        for (int i = 0; i < rows; i++) {
+            if (random.nextInt(3) == 0) {
+                eventId++;
+            }
+            appendMention(builder, random, eventId);
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendEvent(StringBuilder row, SplittableRandom random, long eventId) {
+        int day = 1 + random.nextInt(28);
+        row.append(eventId).append('\t')
+                .append("202501").append(twoDigits(day)).append('\t')
+                .append("202501").append('\t')
+                .append("2025").append('\t')
+                .append("2025.").append(String.format("%04d", day * 27)).append('\t');
+
+        appendActor(row, random);
+        appendActor(row, random);
+
+        String eventCode = pick(random, EVENT_CODES);
+        int root = Integer.parseInt(eventCode.substring(0, 2));
+        int mentions = 1 + (int) Math.round(Math.abs(random.nextGaussian()) * 8);
+        row.append(random.nextInt(4) == 0 ? 0 : 1).append('\t')
+                .append(eventCode).append('\t')
+                .append(eventCode, 0, 3).append('\t')
+                .append(eventCode, 0, 2).append('\t')
+                .append(root <= 5 ? 1 : root <= 9 ? 2 : root <= 14 ? 3 : 4).append('\t')
+                .append(goldstein(root)).append('\t')
+                .append(mentions).append('\t')
+                .append(1 + random.nextInt(Math.min(mentions, 5))).append('\t')
+                .append(mentions).append('\t')
+                .append(random.nextDouble(-10, 6)).append('\t');
+
+        appendGeo(row, random, 4);
+        appendGeo(row, random, 4);
+        appendGeo(row, random, 10);
+
+        row.append("202501").append(twoDigits(day))
+                .append(twoDigits(random.nextInt(24))).append(twoDigits(random.nextInt(4) * 15)).append("00").append('\t');
+        appendUrl(row, random, pick(random, SOURCES), eventId);
+        row.append('\n');
+    }
+
+    /**
+     * Колонки актора: примерно в трети событий актор не определен и все колонки пустые
+     */
+    private static void appendActor(StringBuilder row, SplittableRandom random) {
+        if (random.nextInt(3) == 0) {
+            row.append("\t".repeat(10));
+            return;
+        }
+        boolean withCountry = random.nextInt(4) != 0;
+        String[] country = pick(random, COUNTRIES);
+        int type = random.nextInt(ACTOR_TYPES.length);
+        String countryCode = withCountry ? country[0] : "";
+
+        row.append(countryCode).append(random.nextBoolean() ? ACTOR_TYPES[type] : "").append('\t')
+                .append(random.nextInt(5) == 0 || !withCountry ? ACTOR_NAMES[type] : country[1]).append('\t')
+                .append(countryCode).append('\t')
+                .append(rare(random, 20, KNOWN_GROUPS)).append('\t')
+                .append(rare(random, 50, ETHNIC_CODES)).append('\t')
+                .append(rare(random, 15, RELIGIONS)).append('\t')
+                .append(rare(random, 100, RELIGIONS)).append('\t')
+                .append(random.nextInt(3) == 0 ? "" : ACTOR_TYPES[type]).append('\t')
+                .append(rare(random, 12, ACTOR_TYPES)).append('\t')
+                .append(rare(random, 200, ACTOR_TYPES)).append('\t');
+    }
+
+    /**
+     * Колонки географии: тип 0 (не определена) встречается в среднем раз в {@code unknownRatio} строк
+     */
+    private static void appendGeo(StringBuilder row, SplittableRandom random, int unknownRatio) {
+        if (random.nextInt(unknownRatio) == 0) {
+            row.append('0').append("\t".repeat(8));
+            return;
+        }
+        String[] country = pick(random, COUNTRIES);
+        int type = 1 + random.nextInt(4);
+        int adm1 = 1 + random.nextInt(30);
+        double lat = Double.parseDouble(country[3]) + (type == 1 ? 0 : random.nextDouble(-3, 3));
+        double lon = Double.parseDouble(country[4]) + (type == 1 ? 0 : random.nextDouble(-3, 3));
+
+        row.append(type).append('\t');
+        if (type == 1) {
+            row.append(country[1]).append('\t')
+                    .append(country[2]).append('\t')
+                    .append(country[2]).append('\t')
+                    .append('\t')
+                    .append(country[3]).append('\t')
+                    .append(country[4]).append('\t')
+                    .append(country[2]).append('\t');
+            return;
+        }
+        row.append(pick(random, CITIES)).append(", ").append(country[1]).append('\t')
+                .append(country[2]).append('\t')
+                .append(country[2]).append(twoDigits(adm1)).append('\t')
+                .append(random.nextInt(3) == 0 ? "" : String.valueOf(10_000 + random.nextInt(90_000))).append('\t')
+                .append(round(lat, 4)).append('\t')
+                .append(round(lon, 4)).append('\t')
+                .append(random.nextInt(5) == 0 ? "-" : "").append(100_000 + random.nextInt(3_000_000)).append('\t');
+    }
+
+    private static void appendMention(StringBuilder row, SplittableRandom random, long eventId) {
+        String source = pick(random, SOURCES);
+        int day = 1 + random.nextInt(28);
+        String time = "202501" + twoDigits(day) + twoDigits(random.nextInt(24)) + twoDigits(random.nextInt(4) * 15) + "00";
+
+        row.append(eventId).append('\t')
+                .append(time).append('\t')
+                .append(time).append('\t')
+                .append(random.nextInt(20) == 0 ? 2 + random.nextInt(5) : 1).append('\t')
+                .append(source).append('\t');
+        appendUrl(row, random, source, eventId);
+        row.append('\t')
+                .append(1 + random.nextInt(30)).append('\t')
+                .append(random.nextInt(4) == 0 ? -1 : random.nextInt(5000)).append('\t')
+                .append(random.nextInt(4) == 0 ? -1 : random.nextInt(5000)).append('\t')
+                .append(random.nextInt(5000)).append('\t')
+                .append(random.nextInt(2)).append('\t')
+                .append(10 * (1 + random.nextInt(10))).append('\t')
+                .append(100 + random.nextInt(20_000)).append('\t')
+                .append(random.nextDouble(-10, 6)).append('\t')
+                .append(rare(random, 8, TRANSLATIONS)).append('\t')
+                .append('\n');
+    }
+
+    private static void appendUrl(StringBuilder row, SplittableRandom random, String source, long id) {
+        row.append("https://").append(random.nextBoolean() ? "www." : "").append(source)
+                .append('/').append(pick(random, SECTIONS)).append('/');
+        int words = 3 + random.nextInt(6);
+        for (int i = 0; i < words; i++) {
+            row.append(pick(random, WORDS)).append('-');
+        }
+        row.append(id % 1_000_000 * 7 + random.nextInt(7));
+    }
+
+    /**
+     * Шкала Гольдштейна: сотрудничество положительно, конфликт отрицателен
+     */
+    private static double goldstein(int root) {
+        return root <= 5 ? root + 0.4 : root <= 9 ? 5.0 : -(root - 9) * 1.0 - 0.2;
+    }
+
+    private static String rare(SplittableRandom random, int ratio, String[] values) {
+        return random.nextInt(ratio) == 0 ? pick(random, values) : "";
+    }
+
+    private static <V> V pick(SplittableRandom random, V[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String twoDigits(int value) {
+        return value < 10 ? "0" + value : String.valueOf(value);
+    }
+
+    private static double round(double value, int digits) {
+        double scale = Math.pow(10, digits);
+        return Math.round(value * scale) / scale;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Использование: GdeltDataGenerator <events|mentions> <количество строк> <файл> [seed]");
+            System.exit(1);
+        }
+        GdeltDataGenerator generator = new GdeltDataGenerator(args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_SEED);
+        int rows = Integer.parseInt(args[1]);
+        byte[] data = switch (args[0]) {
+            case "events" -> generator.events(rows);
+            case "mentions" -> generator.mentions(rows);
+            default -> throw new IllegalArgumentException("Неизвестный тип файла: " + args[0]);
+        };
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(Path.of(args[2])))) {
+            out.write(data);
+        }
+        System.out.printf("Записано %d строк (%d байт) в %s%n", rows, data.length, args[2]);
+    }
+}
@@ -0,0 +1,80 @@
+package com.neighbor.eventmosaic.adapter.parser;
+
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProjectionProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ускорение параллельного разбора одного файла событий относительно последовательного.
+ * Одна операция - одна строка файла, поэтому throughput показывает строки в секунду.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelParsingBenchmark {
+
+    private static final int ROWS = 200_000;
+
+
+    /**
+     * Количество потоков разбора: 0 - последовательный парсер без разбиения на блоки
+     */
+    @Param({"0", "2", "4"})
+    private int parallelism;
+
+    @Param({"true", "false"})
+    private boolean ordered;
+
+    private byte[] data;
+    private ExecutorService pool;
+    private CsvParser<?> parser;
+
+    @Setup
+    public void setUp() {
+        data = new GdeltDataGenerator().events(ROWS);
+
+        EventCsvParser sequential = new EventCsvParser(new ParserProperties(), new ProjectionProperties());
+        if (parallelism == 0) {
+            parser = sequential;
+            return;
+        }
+        pool = new ForkJoinPool(parallelism);
+        parser = new ParallelCsvParser<>(sequential, pool, 4 * 1024 * 1024, parallelism * 2, ordered);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ParseSummary parseEvents(Blackhole blackhole) throws IOException {
+        return parser.parseStream(new ByteArrayInputStream(data), StandardCharsets.UTF_8, blackhole::consume);
+    }
+}
@@ -0,0 +1,69 @@
+package com.neighbor.eventmosaic.adapter.parser;
+
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProjectionProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение движков разбора и проекций колонок на файле событий GDELT.
+ * Одна операция - одна строка файла, поэтому throughput показывает строки в секунду,
+ * а gc.alloc.rate.norm - байты, выделенные на разбор одной строки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserEngineBenchmark {
+
+    private static final int ROWS = 10_000;
+
+
+    @Param({"TSV", "COMMONS_CSV"})
+    private ParserEngine engine;
+
+    /**
+     * Проекция колонок: пустая строка - все поля
+     */
+    @Param({"", "eventCode,eventRootCode,avgTone,actionGeoCountryCode,actionGeoLat,actionGeoLong"})
+    private String fields;
+
+    private byte[] data;
+    private EventCsvParser parser;
+
+    @Setup
+    public void setUp() {
+        data = new GdeltDataGenerator().events(ROWS);
+
+        ParserProperties properties = new ParserProperties();
+        properties.getEvent().setEngine(engine);
+        ProjectionProperties projectionProperties = new ProjectionProperties();
+        projectionProperties.setAdapterEvent(fields.isEmpty() ? List.of() : List.of(fields.split(",")));
+        parser = new EventCsvParser(properties, projectionProperties);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ParseSummary parseEvents(Blackhole blackhole) throws IOException {
+        return parser.parseStream(new ByteArrayInputStream(data), StandardCharsets.UTF_8, blackhole::consume);
+    }
+}
@@ -0,0 +1,119 @@
+package com.neighbor.eventmosaic.adapter.parser;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProjectionProperties;
+import com.neighbor.eventmosaic.adapter.publisher.codec.StreamingJsonRecordSerializer;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Конвейерная обработка файла событий относительно последовательной.
+ * <p>
+ * Источник отдает содержимое со скоростью {@value #SOURCE_BYTES_PER_MS} байт в миллисекунду (загрузка из MinIO),
+ * получатель сериализует каждую запись в JSON и через каждые {@value #WINDOW_RECORDS} записей ожидает
+ * {@value #ACK_WAIT_MILLIS} мс (окно отправки заполнено, ожидание подтверждений брокера).
+ * Последовательно время файла складывается из времени стадий, конвейером - определяется самой медленной стадией.
+ * Одна операция - одна строка файла, поэтому throughput показывает строки в секунду.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class StagedPipelineBenchmark {
+
+    private static final int ROWS = 50_000;
+    private static final int SOURCE_BYTES_PER_MS = 64 * 1024;
+    private static final int WINDOW_RECORDS = 1_000;
+    private static final long ACK_WAIT_MILLIS = 5;
+
+    @Param({"false", "true"})
+    private boolean staged;
+
+    private byte[] data;
+    private ExecutorService executor;
+    private CsvParser<Event> parser;
+    private StreamingJsonRecordSerializer serializer;
+
+    @Setup
+    public void setUp() {
+        data = new GdeltDataGenerator().events(ROWS);
+        serializer = new StreamingJsonRecordSerializer(new JsonSerializer<>(
+                JacksonUtils.enhancedObjectMapper().setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL)));
+
+        EventCsvParser sequential = new EventCsvParser(new ParserProperties(), new ProjectionProperties());
+        if (!staged) {
+            parser = sequential;
+            return;
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        parser = new StagedCsvParser<>(sequential, executor, 256 * 1024, 16, 512, 16);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ParseSummary processFile(Blackhole blackhole) throws IOException {
+        int[] published = {0};
+        return parser.parseStream(new ThrottledInputStream(new ByteArrayInputStream(data)), StandardCharsets.UTF_8,
+                event -> {
+                    blackhole.consume(serializer.serialize("topic", new RecordHeaders(), event));
+                    if (++published[0] % WINDOW_RECORDS == 0) {
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ACK_WAIT_MILLIS));
+                    }
+                });
+    }
+
+    /**
+     * Поток с ограниченной скоростью чтения
+     */
+    private static final class ThrottledInputStream extends FilterInputStream {
+
+        private ThrottledInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, Math.min(length, SOURCE_BYTES_PER_MS / 8));
+            if (read > 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1) * read / SOURCE_BYTES_PER_MS);
+            }
+            return read;
+        }
+    }
+}
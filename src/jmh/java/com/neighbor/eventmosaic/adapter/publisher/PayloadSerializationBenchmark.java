@@ -0,0 +1,83 @@
+package com.neighbor.eventmosaic.adapter.publisher;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProjectionProperties;
+import com.neighbor.eventmosaic.adapter.parser.EventCsvParser;
+import com.neighbor.eventmosaic.adapter.parser.GdeltDataGenerator;
+import com.neighbor.eventmosaic.adapter.publisher.codec.BinaryRecordSerializer;
+import com.neighbor.eventmosaic.adapter.publisher.codec.StreamingJsonRecordSerializer;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение форматов и сериализаторов значений сообщений на событиях GDELT.
+ * Одна операция - сериализация одного события, поэтому throughput показывает события в секунду,
+ * а средний размер значения сообщения выводится при подготовке бенчмарка.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadSerializationBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    /**
+     * JSON - JsonSerializer (Jackson databind), STREAMING_JSON - потоковая запись по схеме, BINARY - двоичный формат
+     */
+    @Param({"JSON", "STREAMING_JSON", "BINARY"})
+    private String format;
+
+    private List<Event> events;
+    private Serializer<Object> serializer;
+
+    @Setup
+    public void setUp() throws IOException {
+        EventCsvParser parser = new EventCsvParser(new ParserProperties(), new ProjectionProperties());
+        events = parser.parseStream(new ByteArrayInputStream(new GdeltDataGenerator().events(ROWS)), StandardCharsets.UTF_8);
+
+        JsonSerializer<Object> json = new JsonSerializer<>(JacksonUtils.enhancedObjectMapper()
+                .setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL));
+        serializer = switch (format) {
+            case "STREAMING_JSON" -> new StreamingJsonRecordSerializer(json);
+            case "BINARY" -> new BinaryRecordSerializer(json);
+            default -> json;
+        };
+
+        System.out.printf("%nФормат %s: средний размер значения %.1f байт%n", format, (double) serializeEvents() / ROWS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long serializeEvents() {
+        long bytes = 0;
+        for (Event event : events) {
+            bytes += serializer.serialize("gdelt-adapter-event-topic", new RecordHeaders(), event).length;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,166 @@
+package com.neighbor.eventmosaic.adapter.publisher;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProjectionProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.PublisherProperties;
+import com.neighbor.eventmosaic.adapter.parser.EventCsvParser;
+import com.neighbor.eventmosaic.adapter.parser.GdeltDataGenerator;
+import com.neighbor.eventmosaic.adapter.publisher.codec.RecordEnvelopeWriter;
+import com.neighbor.eventmosaic.adapter.publisher.codec.StreamingJsonRecordSerializer;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение профилей продюсера (сжатие, linger, размер пакета) на встроенном брокере Kafka.
+ * <p>
+ * burst - отправка пачки событий одного файла с ожиданием подтверждений, throughput показывает события в секунду;
+ * burstEnvelopes - те же события в JSON-конвертах по {@value #ENVELOPE_RECORDS} записей;
+ * single - задержка подтверждения одного события, отправленного без соседей (linger ожидается целиком).
+ * Степень сжатия и средний размер пакета выводятся по метрикам продюсера после каждого запуска.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ProducerProfileBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final String TOPIC = "gdelt-adapter-event-topic";
+    private static final int ENVELOPE_RECORDS = 500;
+
+    @Param({"none", "lz4", "zstd"})
+    private String compression;
+
+    @Param({"0", "20"})
+    private int lingerMs;
+
+    @Param({"16384", "262144"})
+    private int batchSize;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private DefaultKafkaProducerFactory<String, Object> producerFactory;
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private List<Event> events;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, TOPIC);
+        broker.afterPropertiesSet();
+
+        EventCsvParser parser = new EventCsvParser(new ParserProperties(), new ProjectionProperties());
+        events = parser.parseStream(new ByteArrayInputStream(new GdeltDataGenerator().events(ROWS)), StandardCharsets.UTF_8);
+
+        PublisherProperties.ProducerProfile profile = new PublisherProperties.ProducerProfile();
+        profile.setCompressionType(compression);
+        profile.setLinger(Duration.ofMillis(lingerMs));
+        profile.setBatchSize(DataSize.ofBytes(batchSize));
+
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        configs.put(ProducerConfig.ACKS_CONFIG, "all");
+        configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configs.put(ProducerConfig.MAX_REQUEST_SIZE_CONFIG, 2 * 1024 * 1024);
+        configs.putAll(profile.toProducerProperties());
+
+        producerFactory = new DefaultKafkaProducerFactory<>(configs);
+        producerFactory.setValueSerializer(new StreamingJsonRecordSerializer(new JsonSerializer<>(
+                JacksonUtils.enhancedObjectMapper().setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL))));
+        kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        kafkaTemplate.setDefaultTopic(TOPIC);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Map<MetricName, ? extends Metric> metrics = kafkaTemplate.metrics();
+        System.out.printf("%nПрофиль %s/linger %d/batch %d: сжатие %.3f, средний пакет %.0f байт%n",
+                compression, lingerMs, batchSize,
+                metric(metrics, "compression-rate-avg"), metric(metrics, "batch-size-avg"));
+        producerFactory.destroy();
+        broker.destroy();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(ROWS)
+    public int burst() {
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(ROWS);
+        for (Event event : events) {
+            futures.add(kafkaTemplate.sendDefault(event));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        return futures.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(ROWS)
+    public int burstEnvelopes() {
+        List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>();
+        RecordEnvelopeWriter<Event> envelope = RecordEnvelopeWriter.create(Event.class, false);
+        for (Event event : events) {
+            envelope.add(event);
+            if (envelope.count() == ENVELOPE_RECORDS) {
+                futures.add(kafkaTemplate.sendDefault(envelope.finish()));
+                envelope = RecordEnvelopeWriter.create(Event.class, false);
+            }
+        }
+        if (envelope.count() > 0) {
+            futures.add(kafkaTemplate.sendDefault(envelope.finish()));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        return futures.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SendResult<String, Object> single() {
+        return kafkaTemplate.sendDefault(events.get(0)).join();
+    }
+
+    private static double metric(Map<MetricName, ? extends Metric> metrics, String name) {
+        return metrics.entrySet().stream()
+                .filter(entry -> entry.getKey().name().equals(name) && "producer-metrics".equals(entry.getKey().group()))
+                .mapToDouble(entry -> ((Number) entry.getValue().metricValue()).doubleValue())
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+}
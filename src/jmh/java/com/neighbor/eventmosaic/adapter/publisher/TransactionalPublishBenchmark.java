@@ -0,0 +1,144 @@
+package com.neighbor.eventmosaic.adapter.publisher;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProjectionProperties;
+import com.neighbor.eventmosaic.adapter.parser.EventCsvParser;
+import com.neighbor.eventmosaic.adapter.parser.GdeltDataGenerator;
+import com.neighbor.eventmosaic.adapter.publisher.codec.StreamingJsonRecordSerializer;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость транзакционной отправки на встроенном брокере Kafka.
+ * Одна операция - обработка одного файла: отправка его записей и фиксация смещения сообщения с путем.
+ * <p>
+ * AT_LEAST_ONCE - текущий режим: ожидание подтверждений записей и синхронная фиксация смещения потребителем;
+ * EXACTLY_ONCE - записи и смещение в одной транзакции (AddPartitions, TxnOffsetCommit, EndTxn с маркерами).
+ * Throughput показывает файлы в секунду; записи в секунду - произведение на records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class TransactionalPublishBenchmark {
+
+    private static final String TOPIC = "gdelt-adapter-event-topic";
+    private static final String PATHS_TOPIC = "gdelt-collector-event-topic";
+    private static final String GROUP_ID = "em-adapter-group";
+
+    @Param({"AT_LEAST_ONCE", "EXACTLY_ONCE"})
+    private String mode;
+
+    /**
+     * Записей в файле (в транзакции)
+     */
+    @Param({"100", "1000", "10000"})
+    private int records;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private DefaultKafkaProducerFactory<String, Object> producerFactory;
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private KafkaConsumer<String, String> consumer;
+    private List<Event> events;
+    private TopicPartition pathsPartition;
+    private long offset;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, TOPIC, PATHS_TOPIC);
+        broker.brokerProperties(Map.of(
+                "transaction.state.log.replication.factor", "1",
+                "transaction.state.log.min.isr", "1"));
+        broker.afterPropertiesSet();
+
+        EventCsvParser parser = new EventCsvParser(new ParserProperties(), new ProjectionProperties());
+        events = parser.parseStream(new ByteArrayInputStream(new GdeltDataGenerator().events(records)), StandardCharsets.UTF_8);
+
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        configs.put(ProducerConfig.ACKS_CONFIG, "all");
+        configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerFactory = new DefaultKafkaProducerFactory<>(configs);
+        producerFactory.setValueSerializer(new StreamingJsonRecordSerializer(new JsonSerializer<>(
+                JacksonUtils.enhancedObjectMapper().setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL))));
+        if ("EXACTLY_ONCE".equals(mode)) {
+            producerFactory.setTransactionIdPrefix("em-adapter-tx-");
+        }
+        kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        kafkaTemplate.setDefaultTopic(TOPIC);
+
+        Map<String, Object> consumerConfigs = new HashMap<>();
+        consumerConfigs.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        consumerConfigs.put(ConsumerConfig.GROUP_ID_CONFIG, GROUP_ID);
+        consumer = new KafkaConsumer<>(consumerConfigs, new StringDeserializer(), new StringDeserializer());
+        pathsPartition = new TopicPartition(PATHS_TOPIC, 0);
+        consumer.assign(List.of(pathsPartition));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        consumer.close();
+        producerFactory.destroy();
+        broker.destroy();
+    }
+
+    @Benchmark
+    public long processFile() {
+        Map<TopicPartition, OffsetAndMetadata> offsets = Map.of(pathsPartition, new OffsetAndMetadata(++offset));
+        if ("EXACTLY_ONCE".equals(mode)) {
+            kafkaTemplate.executeInTransaction(operations -> {
+                events.forEach(operations::sendDefault);
+                operations.sendOffsetsToTransaction(offsets, new ConsumerGroupMetadata(GROUP_ID));
+                return null;
+            });
+        } else {
+            List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(events.size());
+            for (Event event : events) {
+                futures.add(kafkaTemplate.sendDefault(event));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            consumer.commitSync(offsets);
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,85 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProjectionProperties;
+import com.neighbor.eventmosaic.adapter.parser.EventCsvParser;
+import com.neighbor.eventmosaic.adapter.parser.GdeltDataGenerator;
+import com.neighbor.eventmosaic.adapter.parser.ParseSummary;
+import com.neighbor.eventmosaic.adapter.util.CompressionUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор файла событий, прочитанного с локального диска: через {@link LocalFileSourceProvider}
+ * (отображение в память) и обычным потоком файла. Базовая линия обработки без сети:
+ * разница с {@link RangedDownloadBenchmark} показывает долю времени, которую занимает загрузка.
+ * Одна операция - одна строка файла.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalFileParsingBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    private Path directory;
+    private Path file;
+    private String url;
+    private LocalFileSourceProvider provider;
+    private EventCsvParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("local-file-benchmark");
+        file = Files.write(directory.resolve("20250106223000.export.CSV"), new GdeltDataGenerator().events(ROWS));
+        url = file.toUri().toString();
+        provider = new LocalFileSourceProvider(directory);
+        parser = new EventCsvParser(new ParserProperties(), new ProjectionProperties());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ParseSummary mapped(Blackhole blackhole) throws IOException {
+        return parse(provider.getFileContent(url), blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public ParseSummary stream(Blackhole blackhole) throws IOException {
+        return parse(Files.newInputStream(file), blackhole);
+    }
+
+    private ParseSummary parse(InputStream content, Blackhole blackhole) throws IOException {
+        try (InputStream stream = CompressionUtil.decompress(content, url)) {
+            return parser.parseStream(stream, StandardCharsets.UTF_8, blackhole::consume);
+        }
+    }
+}
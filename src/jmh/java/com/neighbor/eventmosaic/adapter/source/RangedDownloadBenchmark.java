@@ -0,0 +1,108 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import com.neighbor.eventmosaic.adapter.config.properties.MinioProperties;
+import io.minio.MinioClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время загрузки объекта из локальной замены MinIO с ограниченной скоростью одного соединения:
+ * одним запросом (concurrency = 0) и параллельными диапазонами.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RangedDownloadBenchmark {
+
+    private static final String BUCKET = "event-mosaic";
+    private static final String OBJECT = "20250106223000.translation.export.CSV";
+
+    /**
+     * Размер объекта в мегабайтах
+     */
+    @Param({"64"})
+    private int sizeMb;
+
+    /**
+     * Скорость одного соединения в мегабайтах в секунду
+     */
+    @Param({"64"})
+    private int connectionMbPerSecond;
+
+    /**
+     * Количество одновременно загружаемых диапазонов: 0 - загрузка одним запросом
+     */
+    @Param({"0", "2", "4", "8"})
+    private int concurrency;
+
+    private S3StandInServer server;
+    private ExecutorService pool;
+    private MinioFileSourceProvider provider;
+    private String url;
+    private long expectedSize;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] content = new byte[sizeMb * 1024 * 1024];
+        new SplittableRandom(1).nextBytes(content);
+        expectedSize = content.length;
+        server = new S3StandInServer(content, connectionMbPerSecond * 1024L * 1024L, 5);
+        url = server.getEndpoint() + "/" + BUCKET + "/" + OBJECT;
+
+        MinioClient client = MinioClient.builder()
+                .endpoint(server.getEndpoint())
+                .credentials("stand-in", "stand-in")
+                .region("us-east-1")
+                .build();
+        MinioProperties.Ranged ranged = new MinioProperties.Ranged();
+        ranged.setEnabled(concurrency > 0);
+        ranged.setThreshold(DataSize.ofMegabytes(1));
+        ranged.setRangeSize(DataSize.ofMegabytes(4));
+        ranged.setConcurrency(Math.max(concurrency, 1));
+        pool = Executors.newFixedThreadPool(Math.max(concurrency, 1));
+        provider = new MinioFileSourceProvider(client, ranged, pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+        server.close();
+    }
+
+    @Benchmark
+    public long download() throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long total = 0;
+        try (InputStream stream = provider.getFileContent(url)) {
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                total += read;
+            }
+        }
+        if (total != expectedSize) {
+            throw new IllegalStateException("Загружено " + total + " байт из " + expectedSize);
+        }
+        return total;
+    }
+}
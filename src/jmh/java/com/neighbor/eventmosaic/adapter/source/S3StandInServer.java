@@ -0,0 +1,119 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Локальная замена MinIO для бенчмарков загрузки: отдает один объект по протоколу S3
+ * (HEAD, GET и GET с заголовками Range и If-Match) без проверки подписи запросов.
+ * <p>
+ * Скорость отдачи каждого ответа ограничена, а перед первым байтом ответа добавляется задержка,
+ * что моделирует пропускную способность одного TCP-соединения до удаленного хранилища.
+ */
+public final class S3StandInServer implements AutoCloseable {
+
+    private static final String ETAG = "\"stand-in-etag\"";
+    private static final String LAST_MODIFIED = "Mon, 06 Jan 2025 00:00:00 GMT";
+    private static final int WRITE_CHUNK = 16 * 1024;
+
+    private final byte[] content;
+    private final long bytesPerSecond;
+    private final long firstByteDelayNanos;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    /**
+     * @param content          содержимое объекта
+     * @param bytesPerSecond   скорость отдачи одного ответа
+     * @param firstByteDelayMs задержка перед первым байтом ответа
+     */
+    public S3StandInServer(byte[] content, long bytesPerSecond, long firstByteDelayMs) throws IOException {
+        this.content = content;
+        this.bytesPerSecond = bytesPerSecond;
+        this.firstByteDelayNanos = TimeUnit.MILLISECONDS.toNanos(firstByteDelayMs);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 64);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    /**
+     * Возвращает адрес сервера, например {@code http://127.0.0.1:12345}
+     */
+    public String getEndpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getResponseHeaders().set("ETag", ETAG);
+            exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+            exchange.getResponseHeaders().set("Content-Type", "text/csv");
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+
+            String ifMatch = exchange.getRequestHeaders().getFirst("If-Match");
+            // Как и MinIO, сравниваем ETag без учета кавычек
+            if (ifMatch != null && !ETAG.equals('"' + ifMatch.replace("\"", "") + '"')) {
+                exchange.sendResponseHeaders(412, -1);
+                return;
+            }
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(content.length));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+
+            long start = 0;
+            long end = content.length - 1L;
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            int status = 200;
+            if (range != null && range.startsWith("bytes=")) {
+                String[] bounds = range.substring("bytes=".length()).split("-", 2);
+                start = Long.parseLong(bounds[0]);
+                if (!bounds[1].isEmpty()) {
+                    end = Math.min(end, Long.parseLong(bounds[1]));
+                }
+                status = 206;
+                exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+            }
+
+            LockSupport.parkNanos(firstByteDelayNanos);
+            long length = end - start + 1;
+            exchange.sendResponseHeaders(status, length);
+            writeThrottled(exchange.getResponseBody(), (int) start, (int) length);
+        }
+    }
+
+    /**
+     * Отдает байты не быстрее {@code bytesPerSecond}
+     */
+    private void writeThrottled(OutputStream out, int offset, int length) throws IOException {
+        long started = System.nanoTime();
+        int written = 0;
+        while (written < length) {
+            int count = Math.min(WRITE_CHUNK, length - written);
+            out.write(content, offset + written, count);
+            written += count;
+            long due = started + written * 1_000_000_000L / bytesPerSecond;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+}
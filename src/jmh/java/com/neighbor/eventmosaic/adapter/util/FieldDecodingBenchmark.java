@@ -0,0 +1,126 @@
+package com.neighbor.eventmosaic.adapter.util;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор одного поля каждым методом {@link CsvParserUtil}: примитивный разбор из байтов (движок TSV)
+ * и из символов, методы-обертки над {@link CSVRecord} (движок COMMONS_CSV), а также для сравнения
+ * String + parseXxx + упаковка. Для примитивных методов gc.alloc.rate.norm должен быть ~0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldDecodingBenchmark {
+
+    private byte[] row;
+    private int longStart;
+    private int longEnd;
+    private int intStart;
+    private int intEnd;
+    private int doubleStart;
+    private int doubleEnd;
+    private String text;
+    private CSVRecord csvRecord;
+
+    @Setup
+    public void setUp() throws IOException {
+        text = "1219144758\t20240107\t-2.63157894736842\tUNITED STATES";
+        row = text.getBytes(StandardCharsets.US_ASCII);
+        longStart = 0;
+        longEnd = text.indexOf('\t');
+        intStart = longEnd + 1;
+        intEnd = text.indexOf('\t', intStart);
+        doubleStart = intEnd + 1;
+        doubleEnd = text.indexOf('\t', doubleStart);
+        csvRecord = CSVFormat.DEFAULT.builder()
+                .setDelimiter('\t')
+                .get()
+                .parse(new StringReader(text))
+                .iterator()
+                .next();
+    }
+
+    @Benchmark
+    public long primitiveLong() {
+        return CsvParserUtil.parseLong(row, longStart, longEnd);
+    }
+
+    @Benchmark
+    public int primitiveInt() {
+        return CsvParserUtil.parseInt(row, intStart, intEnd);
+    }
+
+    @Benchmark
+    public double primitiveDouble() {
+        return CsvParserUtil.parseDouble(row, doubleStart, doubleEnd);
+    }
+
+    @Benchmark
+    public long charsLong() {
+        return CsvParserUtil.parseLong(text, longStart, longEnd);
+    }
+
+    @Benchmark
+    public int charsInt() {
+        return CsvParserUtil.parseInt(text, intStart, intEnd);
+    }
+
+    @Benchmark
+    public double charsDouble() {
+        return CsvParserUtil.parseDouble(text, doubleStart, doubleEnd);
+    }
+
+    @Benchmark
+    public String recordString() {
+        return CsvParserUtil.getString(csvRecord, 3);
+    }
+
+    @Benchmark
+    public Long recordLong() {
+        return CsvParserUtil.getLong(csvRecord, 0);
+    }
+
+    @Benchmark
+    public Integer recordInt() {
+        return CsvParserUtil.getInteger(csvRecord, 1);
+    }
+
+    @Benchmark
+    public Double recordDouble() {
+        return CsvParserUtil.getDouble(csvRecord, 2);
+    }
+
+    @Benchmark
+    public Long stringLong() {
+        return Long.valueOf(new String(row, longStart, longEnd - longStart, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Integer stringInt() {
+        return Integer.valueOf(new String(row, intStart, intEnd - intStart, StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Double stringDouble() {
+        return Double.valueOf(new String(row, doubleStart, doubleEnd - doubleStart, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,35 @@
+package com.neighbor.eventmosaic.adapter.backfill;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * Операция actuator {@code backfill}: запуск, состояние и отмена повторной обработки файлов по префиксу.
+ * <p>
+ * {@code POST /actuator/backfill {"prefix": "http://minio:9000/event-mosaic/2025/01/"}} - запуск,
+ * {@code GET /actuator/backfill} - состояние, {@code DELETE /actuator/backfill} - отмена.
+ */
+@Endpoint(id = "backfill")
+@RequiredArgsConstructor
+public class BackfillEndpoint {
+
+    private final BackfillService backfillService;
+
+    @ReadOperation
+    public BackfillStatus status() {
+        return backfillService.status();
+    }
+
+    @WriteOperation
+    public BackfillStatus start(String prefix) {
+        return backfillService.start(prefix);
+    }
+
+    @DeleteOperation
+    public BackfillStatus cancel() {
+        return backfillService.cancel();
+    }
+}
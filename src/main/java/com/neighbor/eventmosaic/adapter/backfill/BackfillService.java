@@ -0,0 +1,340 @@
+package com.neighbor.eventmosaic.adapter.backfill;
+
+import com.neighbor.eventmosaic.adapter.config.properties.BackfillProperties;
+import com.neighbor.eventmosaic.adapter.parser.ParseSummary;
+import com.neighbor.eventmosaic.adapter.publisher.KafkaMessagePublisher;
+import com.neighbor.eventmosaic.adapter.registry.LocalProcessedFileRegistry;
+import com.neighbor.eventmosaic.adapter.service.CsvProcessingService;
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+import com.neighbor.eventmosaic.adapter.source.FileSourceProvider;
+import com.neighbor.eventmosaic.adapter.util.FileNameUtil;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import com.neighbor.eventmosaic.library.common.dto.Mention;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Повторная обработка (backfill) всех файлов событий и упоминаний по префиксу хранилища.
+ * <p>
+ * Файлы обрабатываются в пуле из {@code backfill.workers} потоков тем же {@link CsvProcessingService}
+ * и отправляются тем же {@link KafkaMessagePublisher}, что и сообщения коллектора. Реестр обработанных файлов
+ * сервиса не проверяется: файлы, уже обработанные по сообщениям коллектора, отправляются повторно.
+ * Скорость ограничивается по байтам файлов и по отправляемым записям.
+ * <p>
+ * Задание и обработанные им файлы сохраняются в каталоге состояния: после перезапуска незавершенное
+ * задание продолжается, а уже обработанные файлы пропускаются. Файлы, обработка которых завершилась ошибкой,
+ * обрабатываются при повторном запуске задания с тем же префиксом.
+ */
+@Slf4j
+public class BackfillService {
+
+    private static final String JOB_FILE = "job";
+    private static final String CHECKPOINT_FILE = "processed-files.log";
+    private static final Duration CHECKPOINT_RETENTION = Duration.ofDays(365);
+
+    /**
+     * Количество записей, для которых разрешение на отправку запрашивается одним вызовом
+     */
+    private static final int RECORD_PERMITS = 100;
+
+    private final FileSourceProvider fileSourceProvider;
+    private final CsvProcessingService csvProcessingService;
+    private final KafkaMessagePublisher kafkaMessagePublisher;
+    private final BackfillProperties properties;
+    private final Runnable awaitPublished;
+
+    private volatile Job job;
+
+    /**
+     * @param fileSourceProvider    источник файлов
+     * @param csvProcessingService  сервис обработки CSV-файлов
+     * @param kafkaMessagePublisher компонент отправки сообщений
+     * @param properties            настройки повторной обработки
+     * @param awaitPublished        ожидание подтверждения отправленных записей перед отметкой файла обработанным
+     */
+    public BackfillService(FileSourceProvider fileSourceProvider,
+                           CsvProcessingService csvProcessingService,
+                           KafkaMessagePublisher kafkaMessagePublisher,
+                           BackfillProperties properties,
+                           Runnable awaitPublished) {
+        this.fileSourceProvider = fileSourceProvider;
+        this.csvProcessingService = csvProcessingService;
+        this.kafkaMessagePublisher = kafkaMessagePublisher;
+        this.properties = properties;
+        this.awaitPublished = awaitPublished;
+    }
+
+    /**
+     * Запускает обработку всех файлов по префиксу. Если задание уже выполняется, возвращает его состояние.
+     *
+     * @param prefix префикс файлов (например, "http://minio:9000/event-mosaic/2025/01/")
+     * @return состояние задания
+     */
+    public synchronized BackfillStatus start(String prefix) {
+        Job current = job;
+        if (current != null && current.state == BackfillStatus.State.RUNNING) {
+            log.warn("Повторная обработка {} уже выполняется, новое задание {} не запущено", current.prefix, prefix);
+            return current.status();
+        }
+
+        try {
+            Files.createDirectories(properties.getDirectory());
+            Files.writeString(properties.getDirectory().resolve(JOB_FILE), prefix, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Не удалось сохранить задание повторной обработки: после перезапуска оно не продолжится", e);
+        }
+
+        Job started = new Job(prefix);
+        job = started;
+        Thread coordinator = new Thread(started::run, "backfill-coordinator");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return started.status();
+    }
+
+    /**
+     * Возвращает состояние последнего задания
+     */
+    public BackfillStatus status() {
+        Job current = job;
+        return current != null
+                ? current.status()
+                : BackfillStatus.idle();
+    }
+
+    /**
+     * Отменяет выполняемое задание. Обрабатываемые файлы прерываются и будут обработаны заново
+     * при повторном запуске задания с тем же префиксом.
+     *
+     * @return состояние задания
+     */
+    public synchronized BackfillStatus cancel() {
+        Job current = job;
+        if (current == null) {
+            return BackfillStatus.idle();
+        }
+        current.cancel();
+        deleteQuietly(properties.getDirectory().resolve(JOB_FILE));
+        return current.status();
+    }
+
+    /**
+     * Останавливает выполняемое задание при остановке приложения. Задание сохраняется
+     * и продолжается после перезапуска.
+     */
+    public void shutdown() {
+        Job current = job;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    /**
+     * Продолжает задание, не завершенное до остановки приложения
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        Path jobFile = properties.getDirectory().resolve(JOB_FILE);
+        if (!properties.isResumeOnStartup() || !Files.isRegularFile(jobFile)) {
+            return;
+        }
+        try {
+            String prefix = Files.readString(jobFile, StandardCharsets.UTF_8).strip();
+            log.info("Продолжение незавершенной повторной обработки: {}", prefix);
+            start(prefix);
+        } catch (IOException e) {
+            log.warn("Не удалось прочитать незавершенное задание повторной обработки {}", jobFile, e);
+        }
+    }
+
+    /**
+     * Определяет тип записей файла GDELT по имени: {@code *.export.CSV} - события, {@code *.mentions.CSV} - упоминания
+     *
+     * @param path путь к файлу
+     * @return класс записей или null, если файл не обрабатывается
+     */
+    static Class<?> classify(String path) {
+        String name = path.substring(path.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+        if (name.contains(".export.csv")) {
+            return Event.class;
+        }
+        if (name.contains(".mentions.csv")) {
+            return Mention.class;
+        }
+        return null;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить файл состояния повторной обработки {}", path, e);
+        }
+    }
+
+    /**
+     * Задание повторной обработки
+     */
+    private final class Job {
+
+        private final String prefix;
+        private final Instant startedAt = Instant.now();
+        private final RateLimiter bytesLimiter = new RateLimiter(properties.getMaxBytesPerSecond().toBytes());
+        private final RateLimiter recordsLimiter = new RateLimiter(properties.getMaxRecordsPerSecond());
+        private final AtomicInteger filesProcessed = new AtomicInteger();
+        private final AtomicInteger filesSkipped = new AtomicInteger();
+        private final AtomicInteger filesFailed = new AtomicInteger();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong records = new AtomicLong();
+
+        private volatile BackfillStatus.State state = BackfillStatus.State.RUNNING;
+        private volatile boolean cancelled;
+        private volatile int filesTotal;
+        private volatile Instant finishedAt;
+        private volatile ExecutorService workers;
+
+        private Job(String prefix) {
+            this.prefix = prefix;
+        }
+
+        private void run() {
+            Path directory = properties.getDirectory();
+            try (LocalProcessedFileRegistry checkpoint =
+                         new LocalProcessedFileRegistry(directory.resolve(CHECKPOINT_FILE), CHECKPOINT_RETENTION,
+                                 awaitPublished)) {
+                List<FileMetadata> files = fileSourceProvider.list(prefix).stream()
+                        .filter(file -> classify(file.path()) != null)
+                        .toList();
+                filesTotal = files.size();
+                log.info("Повторная обработка {}: найдено {} файлов событий и упоминаний", prefix, files.size());
+
+                workers = Executors.newFixedThreadPool(properties.getWorkers(), new CustomizableThreadFactory("backfill-"));
+                for (FileMetadata file : files) {
+                    workers.execute(() -> process(file, checkpoint));
+                }
+                workers.shutdown();
+                workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+                if (cancelled) {
+                    finish(BackfillStatus.State.CANCELLED);
+                    return;
+                }
+                deleteQuietly(directory.resolve(JOB_FILE));
+                if (filesFailed.get() == 0) {
+                    checkpoint.close();
+                    deleteQuietly(directory.resolve(CHECKPOINT_FILE));
+                }
+                finish(BackfillStatus.State.COMPLETED);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finish(BackfillStatus.State.CANCELLED);
+            } catch (Exception e) {
+                log.error("Ошибка повторной обработки {}", prefix, e);
+                finish(BackfillStatus.State.FAILED);
+            }
+        }
+
+        private void process(FileMetadata file, LocalProcessedFileRegistry checkpoint) {
+            if (cancelled) {
+                return;
+            }
+            String path = file.path();
+            String batchId = FileNameUtil.extractBatchId(path);
+            if (checkpoint.isProcessed(file, batchId)) {
+                filesSkipped.incrementAndGet();
+                return;
+            }
+
+            try {
+                bytesLimiter.acquire(file.size());
+                ParseSummary summary = classify(path) == Event.class
+                        ? process(file, Event.class, batchId, kafkaMessagePublisher::publishEventMessage)
+                        : process(file, Mention.class, batchId, kafkaMessagePublisher::publishMentionMessage);
+                checkpoint.markProcessed(file, batchId);
+
+                filesProcessed.incrementAndGet();
+                bytes.addAndGet(file.size());
+                records.addAndGet(summary.records());
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                if (!cancelled) {
+                    filesFailed.incrementAndGet();
+                    log.error("Ошибка повторной обработки файла {}", path, e);
+                }
+            } finally {
+                // Ошибки и незавершенные конверты неудачного файла не должны достаться следующему файлу потока
+                kafkaMessagePublisher.discardPending();
+            }
+        }
+
+        private <T> ParseSummary process(FileMetadata file, Class<T> targetClass, String batchId,
+                                         BiConsumer<T, String> publisher) {
+            return csvProcessingService.reprocessCsvFile(file, targetClass, throttled(record -> publisher.accept(record, batchId)));
+        }
+
+        /**
+         * Получатель, запрашивающий разрешение на отправку для каждых {@link #RECORD_PERMITS} записей
+         */
+        private <T> Consumer<T> throttled(Consumer<T> consumer) {
+            int[] count = new int[1];
+            return record -> {
+                if (++count[0] == RECORD_PERMITS) {
+                    count[0] = 0;
+                    try {
+                        recordsLimiter.acquire(RECORD_PERMITS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException("Повторная обработка отменена");
+                    }
+                }
+                consumer.accept(record);
+            };
+        }
+
+        private void cancel() {
+            cancelled = true;
+            ExecutorService pool = workers;
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+
+        private void finish(BackfillStatus.State finalState) {
+            finishedAt = Instant.now();
+            state = finalState;
+            log.info("Повторная обработка {} завершена: {}", prefix, status());
+        }
+
+        private BackfillStatus status() {
+            Instant end = finishedAt != null
+                    ? finishedAt
+                    : Instant.now();
+            double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+            return new BackfillStatus(state, prefix, filesTotal, filesProcessed.get(), filesSkipped.get(),
+                    filesFailed.get(), bytes.get(), records.get(), startedAt, finishedAt,
+                    (long) (bytes.get() / seconds), (long) (records.get() / seconds));
+        }
+    }
+}
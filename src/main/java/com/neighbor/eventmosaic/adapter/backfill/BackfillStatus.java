@@ -0,0 +1,44 @@
+package com.neighbor.eventmosaic.adapter.backfill;
+
+import java.time.Instant;
+
+/**
+ * Состояние задания повторной обработки
+ *
+ * @param state          состояние задания
+ * @param prefix         префикс обрабатываемых файлов
+ * @param filesTotal     количество найденных файлов событий и упоминаний
+ * @param filesProcessed количество обработанных файлов
+ * @param filesSkipped   количество файлов, обработанных до перезапуска или ранее
+ * @param filesFailed    количество файлов, обработка которых завершилась ошибкой
+ * @param bytes          размер обработанных файлов
+ * @param records        количество отправленных записей
+ * @param startedAt      время запуска задания
+ * @param finishedAt     время завершения задания или null
+ * @param bytesPerSecond средняя скорость обработки в байтах
+ * @param recordsPerSecond средняя скорость отправки записей
+ */
+public record BackfillStatus(State state,
+                             String prefix,
+                             int filesTotal,
+                             int filesProcessed,
+                             int filesSkipped,
+                             int filesFailed,
+                             long bytes,
+                             long records,
+                             Instant startedAt,
+                             Instant finishedAt,
+                             long bytesPerSecond,
+                             long recordsPerSecond) {
+
+    /**
+     * Состояние задания
+     */
+    public enum State {
+        IDLE, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    static BackfillStatus idle() {
+        return new BackfillStatus(State.IDLE, null, 0, 0, 0, 0, 0, 0, null, null, 0, 0);
+    }
+}
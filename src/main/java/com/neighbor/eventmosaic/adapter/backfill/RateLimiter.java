@@ -0,0 +1,49 @@
+package com.neighbor.eventmosaic.adapter.backfill;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничитель скорости по алгоритму маркерной корзины с запасом не более чем на одну секунду.
+ * Большой запрос выполняется сразу, а его стоимость ожидают следующие запросы,
+ * поэтому средняя скорость соблюдается и для единиц разного размера (файлов, пачек записей).
+ */
+class RateLimiter {
+
+    private static final long BURST_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double nanosPerPermit;
+    private long nextFree = System.nanoTime();
+
+    /**
+     * @param permitsPerSecond разрешений в секунду; 0 - без ограничения
+     */
+    RateLimiter(long permitsPerSecond) {
+        this.nanosPerPermit = permitsPerSecond > 0
+                ? (double) TimeUnit.SECONDS.toNanos(1) / permitsPerSecond
+                : 0;
+    }
+
+    /**
+     * Ожидает, пока не будет соблюдена скорость с учетом предыдущих запросов
+     *
+     * @param permits количество разрешений
+     * @throws InterruptedException если поток прерван во время ожидания
+     */
+    void acquire(long permits) throws InterruptedException {
+        if (nanosPerPermit == 0 || permits <= 0) {
+            return;
+        }
+        long wait = reserve(permits);
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    private synchronized long reserve(long permits) {
+        long now = System.nanoTime();
+        nextFree = Math.max(nextFree, now - BURST_NANOS);
+        long wait = nextFree - now;
+        nextFree += (long) (permits * nanosPerPermit);
+        return wait;
+    }
+}
@@ -1,29 +1,106 @@
 package com.neighbor.eventmosaic.adapter.config;
 
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProjectionProperties;
 import com.neighbor.eventmosaic.adapter.parser.CsvParser;
+import com.neighbor.eventmosaic.adapter.parser.ParallelCsvParser;
+import com.neighbor.eventmosaic.adapter.parser.StagedCsvParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Configuration
+@EnableConfigurationProperties({ParserProperties.class, ProjectionProperties.class})
 public class AppConfig {
 
     /**
-     * Создает мапу парсеров, где ключом является поддерживаемый класс
+     * Создает мапу парсеров, где ключом является поддерживаемый класс.
+     * При включенном параллельном разборе каждый парсер оборачивается в {@link ParallelCsvParser},
+     * при включенной конвейерной обработке - в {@link StagedCsvParser}.
      *
-     * @param parsers список всех доступных парсеров
+     * @param parsers          список всех доступных парсеров
+     * @param parserProperties настройки парсеров
+     * @param parserPool       пул потоков параллельного разбора
+     * @param pipelineExecutor пул виртуальных потоков конвейерной обработки
+     * @param meterRegistry    реестр метрик
      * @return мапа парсеров
      */
     @Bean
-    public Map<Class<?>, CsvParser<?>> csvParsers(List<CsvParser<?>> parsers) {
+    public Map<Class<?>, CsvParser<?>> csvParsers(List<CsvParser<?>> parsers,
+                                                  ParserProperties parserProperties,
+                                                  @Qualifier("parserPool") ObjectProvider<ExecutorService> parserPool,
+                                                  @Qualifier("pipelineExecutor") ObjectProvider<ExecutorService> pipelineExecutor,
+                                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        ParserProperties.Parallel parallel = parserProperties.getParallel();
+        Function<CsvParser<?>, CsvParser<?>> wrapper = parallel.isEnabled()
+                ? parser -> parallel(parser, parserPool.getObject(), parallel)
+                : Function.identity();
+        ParserProperties.Pipeline pipeline = parserProperties.getPipeline();
+        if (pipeline.isEnabled()) {
+            wrapper = wrapper.andThen(parser -> staged(parser, pipelineExecutor.getObject(), pipeline, meterRegistry));
+        }
+
         return parsers.stream()
                 .collect(Collectors.toMap(
                         CsvParser::getSupportedClass,
-                        Function.identity()
+                        wrapper
                 ));
     }
+
+    /**
+     * Создает пул потоков для параллельного разбора файлов
+     *
+     * @param parserProperties настройки парсеров
+     * @return пул с ограниченным количеством потоков
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(prefix = "parser.parallel", name = "enabled", havingValue = "true")
+    public ExecutorService parserPool(ParserProperties parserProperties) {
+        return new ForkJoinPool(parserProperties.getParallel().resolveParallelism());
+    }
+
+    /**
+     * Создает пул виртуальных потоков для стадий чтения и разбора конвейерной обработки.
+     * Потоки стадий большую часть времени ожидают очередей или источника, поэтому не занимают потоки платформы
+     *
+     * @return пул, создающий виртуальный поток на каждую задачу
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(prefix = "parser.pipeline", name = "enabled", havingValue = "true")
+    public ExecutorService pipelineExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    private static <T> CsvParser<T> staged(CsvParser<T> parser, ExecutorService executor,
+                                           ParserProperties.Pipeline pipeline,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        StagedCsvParser<T> staged = new StagedCsvParser<>(parser, executor,
+                Math.toIntExact(pipeline.getReadChunkSize().toBytes()),
+                pipeline.getReadQueueCapacity(),
+                pipeline.getBatchRecords(),
+                pipeline.getRecordQueueCapacity());
+        meterRegistry.ifAvailable(staged::bindTo);
+        return staged;
+    }
+
+    private static <T> CsvParser<T> parallel(CsvParser<T> parser, ExecutorService pool,
+                                             ParserProperties.Parallel parallel) {
+        int parallelism = parallel.resolveParallelism();
+        return new ParallelCsvParser<>(parser, pool,
+                Math.toIntExact(parallel.getChunkSize().toBytes()),
+                parallelism * 2,
+                parallel.isOrdered());
+    }
 }
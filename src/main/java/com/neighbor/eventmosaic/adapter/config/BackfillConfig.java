@@ -0,0 +1,39 @@
+package com.neighbor.eventmosaic.adapter.config;
+
+import com.neighbor.eventmosaic.adapter.backfill.BackfillEndpoint;
+import com.neighbor.eventmosaic.adapter.backfill.BackfillService;
+import com.neighbor.eventmosaic.adapter.config.properties.BackfillProperties;
+import com.neighbor.eventmosaic.adapter.publisher.KafkaMessagePublisher;
+import com.neighbor.eventmosaic.adapter.service.CsvProcessingService;
+import com.neighbor.eventmosaic.adapter.source.FileSourceProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация повторной обработки (backfill) файлов по префиксу хранилища.
+ */
+@Configuration
+@EnableConfigurationProperties(BackfillProperties.class)
+@ConditionalOnProperty(prefix = "backfill", name = "enabled", havingValue = "true")
+public class BackfillConfig {
+
+    /**
+     * Создает сервис повторной обработки. Файл отмечается обработанным после подтверждения
+     * брокером всех его записей.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BackfillService backfillService(FileSourceProvider fileSourceProvider,
+                                           CsvProcessingService csvProcessingService,
+                                           KafkaMessagePublisher kafkaMessagePublisher,
+                                           BackfillProperties properties) {
+        return new BackfillService(fileSourceProvider, csvProcessingService, kafkaMessagePublisher,
+                properties, kafkaMessagePublisher::awaitPublished);
+    }
+
+    @Bean
+    public BackfillEndpoint backfillEndpoint(BackfillService backfillService) {
+        return new BackfillEndpoint(backfillService);
+    }
+}
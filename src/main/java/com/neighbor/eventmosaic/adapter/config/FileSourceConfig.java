@@ -1,35 +1,98 @@
 package com.neighbor.eventmosaic.adapter.config;
 
+import com.neighbor.eventmosaic.adapter.config.properties.FileCacheProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.LocalStorageProperties;
 import com.neighbor.eventmosaic.adapter.config.properties.MinioProperties;
+import com.neighbor.eventmosaic.adapter.source.CachingFileSourceProvider;
 import com.neighbor.eventmosaic.adapter.source.FileSourceProvider;
+import com.neighbor.eventmosaic.adapter.source.LocalFileSourceProvider;
+import com.neighbor.eventmosaic.adapter.source.MinioHttpMetrics;
 import com.neighbor.eventmosaic.adapter.source.MinioFileSourceProvider;
+import com.neighbor.eventmosaic.adapter.source.RoutingFileSourceProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.minio.MinioClient;
+import io.minio.http.HttpUtils;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Конфигурация для провайдеров файлов.
  */
 @Slf4j
 @Configuration
-@EnableConfigurationProperties(MinioProperties.class)
+@EnableConfigurationProperties({MinioProperties.class, FileCacheProperties.class, LocalStorageProperties.class})
 public class FileSourceConfig {
 
+    /**
+     * Общий HTTP-клиент MinIO с настраиваемым пулом соединений, ограничениями одновременных запросов
+     * и таймаутами. Соединения переиспользуются между файлами, поэтому загрузка очередного файла
+     * не требует нового TCP/TLS-соединения. Если доступен реестр метрик, клиент публикует метрики
+     * получения соединений, времени до первого байта и скорости загрузки ({@link MinioHttpMetrics}).
+     *
+     * @param minioProperties Конфигурационные свойства MinIO.
+     * @return HTTP-клиент MinIO.
+     */
+    @Bean
+    public OkHttpClient minioHttpClient(MinioProperties minioProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        MinioProperties.Http http = minioProperties.getHttp();
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(http.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(http.getMaxRequestsPerHost());
+
+        // Клиент по умолчанию MinIO: HTTP/1.1 и сертификаты из SSL_CERT_FILE
+        OkHttpClient.Builder builder = HttpUtils.newDefaultHttpClient(
+                        http.getConnectTimeout().toMillis(),
+                        http.getWriteTimeout().toMillis(),
+                        http.getReadTimeout().toMillis())
+                .newBuilder()
+                .connectionPool(new ConnectionPool(http.getMaxIdleConnections(), http.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        MinioHttpMetrics metrics = null;
+        if (registry != null) {
+            metrics = new MinioHttpMetrics(registry);
+            builder.eventListenerFactory(metrics);
+        }
+        OkHttpClient client = builder.build();
+        if (metrics != null) {
+            metrics.monitor(client);
+        }
+
+        log.info("HTTP-клиент MinIO: простаивающих соединений до {} на {}, запросов до {} (к одному хосту до {})",
+                http.getMaxIdleConnections(), http.getKeepAlive(), http.getMaxRequests(), http.getMaxRequestsPerHost());
+        return client;
+    }
+
     /**
      * Этот клиент будет использоваться MinioFileSourceProvider.
      *
      * @param minioProperties Конфигурационные свойства MinIO.
+     * @param minioHttpClient HTTP-клиент MinIO.
      * @return Сконфигурированный MinioClient.
      */
     @Bean
-    public MinioClient minioClient(MinioProperties minioProperties) {
+    public MinioClient minioClient(MinioProperties minioProperties, OkHttpClient minioHttpClient) {
         log.info("Инициализация MinIO клиента. Endpoint: '{}'", minioProperties.getEndpoint());
         try {
             MinioClient client = MinioClient.builder()
                     .endpoint(minioProperties.getEndpoint())
                     .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey())
+                    .httpClient(minioHttpClient)
                     .build();
             log.info("MinIO клиент успешно инициализирован для endpoint: {}", minioProperties.getEndpoint());
             return client;
@@ -41,8 +104,51 @@ public class FileSourceConfig {
         }
     }
 
+    /**
+     * Создает пул потоков загрузки диапазонов объектов MinIO.
+     * Размер пула позволяет одновременно загружать диапазоны двух файлов.
+     *
+     * @param minioProperties Конфигурационные свойства MinIO.
+     * @return Пул потоков загрузки.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(prefix = "storage.minio.ranged", name = "enabled", havingValue = "true")
+    public ExecutorService minioDownloadPool(MinioProperties minioProperties) {
+        return Executors.newFixedThreadPool(minioProperties.getRanged().getConcurrency() * 2,
+                new CustomizableThreadFactory("minio-range-"));
+    }
+
+    /**
+     * Создает провайдер файлов MinIO. Если включен локальный кеш, провайдер оборачивается
+     * в {@link CachingFileSourceProvider}, метрики которого регистрируются в реестре приложения.
+     * Если включено чтение локальных файлов, провайдер выбирается по схеме URL:
+     * {@code http(s)://} - MinIO, {@code file://} - {@link LocalFileSourceProvider}.
+     */
     @Bean
-    public FileSourceProvider minioFileSourceProvider(MinioClient minioClient) {
-        return new MinioFileSourceProvider(minioClient);
+    public FileSourceProvider fileSourceProvider(MinioClient minioClient,
+                                                 MinioProperties minioProperties,
+                                                 FileCacheProperties fileCacheProperties,
+                                                 LocalStorageProperties localStorageProperties,
+                                                 @Qualifier("minioDownloadPool") ObjectProvider<ExecutorService> minioDownloadPool,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        FileSourceProvider provider =
+                new MinioFileSourceProvider(minioClient, minioProperties.getRanged(), minioDownloadPool.getIfAvailable());
+        if (fileCacheProperties.isEnabled()) {
+            CachingFileSourceProvider cachingProvider = new CachingFileSourceProvider(provider,
+                    fileCacheProperties.getDirectory(),
+                    fileCacheProperties.getMaxSize().toBytes(),
+                    fileCacheProperties.getMaxAge());
+            meterRegistry.ifAvailable(cachingProvider::bindTo);
+            provider = cachingProvider;
+        }
+        if (!localStorageProperties.isEnabled()) {
+            return provider;
+        }
+
+        log.info("Чтение локальных файлов по URL file:// из каталога {}", localStorageProperties.getRoot());
+        return new RoutingFileSourceProvider(Map.of(
+                "http", provider,
+                "https", provider,
+                "file", new LocalFileSourceProvider(localStorageProperties.getRoot())));
     }
 }
@@ -2,8 +2,11 @@ package com.neighbor.eventmosaic.adapter.config;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.util.backoff.FixedBackOff;
 
@@ -37,4 +40,24 @@ public class KafkaConsumerConfig {
                         log.error(BLOCKING_RETRY_TERMINAL_MESSAGE, rec.value(), ex.getMessage(), ex),
                 fixedBackOff);
     }
+
+    /**
+     * Обработка ошибок в транзакционном режиме (publisher.transactions.enabled=true).
+     * Ошибка слушателя отменяет транзакцию вместе с отправленными записями, после чего сообщение
+     * (или пачка сообщений) читается заново с тем же интервалом и количеством повторов, что и у DefaultErrorHandler.
+     * Смещение пропущенного после всех попыток сообщения фиксируется в новой транзакции.
+     *
+     * @param kafkaTemplate шаблон отправки для фиксации смещения пропущенного сообщения
+     * @return DefaultAfterRollbackProcessor для обработки отмененных транзакций
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "publisher.transactions", name = "enabled", havingValue = "true")
+    public DefaultAfterRollbackProcessor<Object, Object> afterRollbackProcessor(KafkaTemplate<Object, Object> kafkaTemplate) {
+        FixedBackOff fixedBackOff = new FixedBackOff(retryIntervalMilliseconds, maxRetryAttempts);
+
+        return new DefaultAfterRollbackProcessor<>(
+                (rec, ex) ->
+                        log.error(BLOCKING_RETRY_TERMINAL_MESSAGE, rec.value(), ex.getMessage(), ex),
+                fixedBackOff, kafkaTemplate, true);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.neighbor.eventmosaic.adapter.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neighbor.eventmosaic.adapter.config.properties.PublisherProperties;
+import com.neighbor.eventmosaic.adapter.publisher.KafkaTemplateRouter;
+import com.neighbor.eventmosaic.adapter.publisher.codec.BinaryRecordSerializer;
+import com.neighbor.eventmosaic.adapter.publisher.codec.StreamingJsonRecordSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Конфигурация Kafka Producer.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(PublisherProperties.class)
+public class KafkaProducerConfig {
+
+    private static final String TOPIC_PROPERTY_PREFIX = "kafka.topic.producer.";
+
+    /**
+     * Настраивает JSON-сериализатор значений так, чтобы поля со значением null не попадали в сообщение.
+     * Пустые колонки GDELT и колонки, исключенные проекцией, не занимают место в топике,
+     * а потребители на Jackson читают отсутствующее поле как null.
+     * События и упоминания записываются потоковым генератором по схеме записи ({@link StreamingJsonRecordSerializer})
+     * с теми же именами полей и заголовком __TypeId__, что и у JSON-сериализатора.
+     * При publisher.format=BINARY события и упоминания записываются в двоичном формате,
+     * а JSON-сериализатор используется для остальных значений.
+     *
+     * @param publisherProperties настройки отправки
+     * @return кастомайзер фабрики продюсеров
+     */
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaProducerFactoryCustomizer valueSerializerCustomizer(PublisherProperties publisherProperties) {
+        Serializer<Object> valueSerializer = valueSerializer(publisherProperties);
+
+        return producerFactory -> ((DefaultKafkaProducerFactory<Object, Object>) producerFactory)
+                .setValueSerializer(valueSerializer);
+    }
+
+    /**
+     * Делает общую фабрику продюсеров транзакционной при publisher.transactions.enabled=true
+     *
+     * @param publisherProperties настройки отправки
+     * @return кастомайзер фабрики продюсеров
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "publisher.transactions", name = "enabled", havingValue = "true")
+    public DefaultKafkaProducerFactoryCustomizer transactionalProducerCustomizer(PublisherProperties publisherProperties) {
+        PublisherProperties.Transactions transactions = publisherProperties.getTransactions();
+        return producerFactory -> {
+            producerFactory.setTransactionIdPrefix(transactions.getIdPrefix());
+            producerFactory.updateConfigs(Map.of(ProducerConfig.TRANSACTION_TIMEOUT_CONFIG,
+                    (int) transactions.getTimeout().toMillis()));
+        };
+    }
+
+    /**
+     * Менеджер транзакций Kafka. Контейнеры слушателей Spring Boot выполняют в его транзакции обработку
+     * сообщения и фиксацию смещения, а шаблон отправки участвует в той же транзакции.
+     * Синхронизация транзакций включена (по умолчанию у KafkaTransactionManager она выключена),
+     * чтобы файлы отмечались обработанными после фиксации, а незавершенные конверты отбрасывались при отмене.
+     *
+     * @param producerFactory транзакционная фабрика продюсеров
+     * @return менеджер транзакций Kafka
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "publisher.transactions", name = "enabled", havingValue = "true")
+    public KafkaTransactionManager<Object, Object> kafkaTransactionManager(ProducerFactory<Object, Object> producerFactory) {
+        KafkaTransactionManager<Object, Object> transactionManager = new KafkaTransactionManager<>(producerFactory);
+        transactionManager.setTransactionSynchronization(AbstractPlatformTransactionManager.SYNCHRONIZATION_ALWAYS);
+        return transactionManager;
+    }
+
+    /**
+     * Создает маршрутизатор шаблонов отправки по топикам.
+     * Для каждого профиля из publisher.profiles, назначенного топику, создается отдельная фабрика продюсеров
+     * с настройками spring.kafka.producer, переопределенными профилем; топик конвертов исходящего топика
+     * отправляется тем же профилем. Остальные топики используют общий шаблон.
+     * <p>
+     * Транзакция Kafka принадлежит одному продюсеру, поэтому в транзакционном режиме профили не используются
+     * и все топики отправляются общим шаблоном. Вне транзакции слушателя (например, при загрузке архива)
+     * общий шаблон отправляет сообщения нетранзакционным продюсером.
+     *
+     * @param kafkaTemplate       общий шаблон отправки
+     * @param kafkaProperties     настройки Kafka Spring Boot
+     * @param publisherProperties настройки отправки
+     * @param environment         окружение для получения имен топиков по ключам kafka.topic.producer
+     * @param sslBundles          SSL-бандлы Spring Boot
+     * @param meterRegistry       реестр метрик продюсеров
+     * @return маршрутизатор шаблонов отправки
+     */
+    @Bean
+    public KafkaTemplateRouter kafkaTemplateRouter(KafkaTemplate<String, Object> kafkaTemplate,
+                                                   KafkaProperties kafkaProperties,
+                                                   PublisherProperties publisherProperties,
+                                                   Environment environment,
+                                                   ObjectProvider<SslBundles> sslBundles,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        if (publisherProperties.getTransactions().isEnabled()) {
+            if (!publisherProperties.getTopicProfiles().isEmpty()) {
+                log.warn("Транзакционная отправка: профили продюсеров {} не используются, все топики отправляются "
+                        + "общим продюсером", publisherProperties.getTopicProfiles());
+            }
+            kafkaTemplate.setAllowNonTransactional(true);
+            return new KafkaTemplateRouter(kafkaTemplate, Map.of());
+        }
+
+        Map<String, KafkaTemplate<String, Object>> profileTemplates = new HashMap<>();
+        Map<String, KafkaTemplate<String, Object>> topicTemplates = new HashMap<>();
+        publisherProperties.getTopicProfiles().forEach((topicKey, profileName) -> {
+            if (!StringUtils.hasText(profileName)) {
+                return;
+            }
+            PublisherProperties.ProducerProfile profile = publisherProperties.getProfiles().get(profileName);
+            if (profile == null) {
+                throw new IllegalArgumentException("Неизвестный профиль продюсера " + profileName + " для топика "
+                        + topicKey + ". Доступные профили: " + publisherProperties.getProfiles().keySet());
+            }
+            String topic = environment.getRequiredProperty(TOPIC_PROPERTY_PREFIX + topicKey);
+            KafkaTemplate<String, Object> template = profileTemplates.computeIfAbsent(profileName, name ->
+                    profileTemplate(name, profile, kafkaProperties, publisherProperties, sslBundles, meterRegistry));
+            topicTemplates.put(topic, template);
+            log.info("Топик {} отправляется продюсером профиля {}", topic, profileName);
+
+            String envelopeTopic = publisherProperties.getEnvelope().getTopics().get(topicKey);
+            if (StringUtils.hasText(envelopeTopic)) {
+                topicTemplates.put(envelopeTopic, template);
+                log.info("Топик конвертов {} отправляется продюсером профиля {}", envelopeTopic, profileName);
+            }
+        });
+        return new KafkaTemplateRouter(kafkaTemplate, topicTemplates);
+    }
+
+    private static KafkaTemplate<String, Object> profileTemplate(String name,
+                                                                 PublisherProperties.ProducerProfile profile,
+                                                                 KafkaProperties kafkaProperties,
+                                                                 PublisherProperties publisherProperties,
+                                                                 ObjectProvider<SslBundles> sslBundles,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, Object> configs = kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable());
+        configs.putAll(profile.toProducerProperties());
+        configs.put(ProducerConfig.CLIENT_ID_CONFIG,
+                configs.getOrDefault(ProducerConfig.CLIENT_ID_CONFIG, "em-adapter") + "-" + name);
+
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(configs);
+        factory.setValueSerializer(valueSerializer(publisherProperties));
+        meterRegistry.ifAvailable(registry ->
+                factory.addListener(new MicrometerProducerListener<>(registry, List.of(Tag.of("profile", name)))));
+        return new KafkaTemplate<>(factory);
+    }
+
+    private static Serializer<Object> valueSerializer(PublisherProperties publisherProperties) {
+        ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper()
+                .setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL);
+        Serializer<Object> jsonSerializer = new JsonSerializer<>(objectMapper);
+        return publisherProperties.getFormat() == PublisherProperties.Format.BINARY
+                ? new BinaryRecordSerializer(jsonSerializer)
+                : new StreamingJsonRecordSerializer(jsonSerializer);
+    }
+}
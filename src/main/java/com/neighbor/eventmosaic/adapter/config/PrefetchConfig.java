@@ -0,0 +1,82 @@
+package com.neighbor.eventmosaic.adapter.config;
+
+import com.neighbor.eventmosaic.adapter.config.properties.PrefetchProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.PublisherProperties;
+import com.neighbor.eventmosaic.adapter.service.CsvProcessingService;
+import com.neighbor.eventmosaic.adapter.service.PrefetchingBatchProcessor;
+import com.neighbor.eventmosaic.adapter.source.FileSourceProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Конфигурация конвейерной обработки файлов с упреждающей загрузкой.
+ * Сообщения с путями к файлам читаются пачками, следующие файлы пачки загружаются,
+ * пока обрабатывается текущий.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(PrefetchProperties.class)
+@ConditionalOnProperty(prefix = "prefetch", name = "enabled", havingValue = "true")
+public class PrefetchConfig {
+
+    /**
+     * Имя фабрики контейнеров пакетных слушателей
+     */
+    public static final String BATCH_CONTAINER_FACTORY = "batchKafkaListenerContainerFactory";
+
+    /**
+     * Фабрика контейнеров для пакетных слушателей с настройками Spring Boot.
+     * Обработчик ошибок повторяет пачку с файла, указанного в BatchListenerFailedException.
+     * <p>
+     * При publisher.transactions.enabled=true вся пачка обрабатывается в одной транзакции Kafka:
+     * ошибка откатывает записи всех файлов пачки, и пачка повторяется целиком. Все файлы пачки
+     * должны уложиться в publisher.transactions.timeout, о чем предупреждает журнал.
+     */
+    @Bean(BATCH_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            DefaultErrorHandler errorHandler,
+            PrefetchProperties prefetchProperties,
+            PublisherProperties publisherProperties) {
+        if (publisherProperties.getTransactions().isEnabled() && prefetchProperties.getBatchSize() > 1) {
+            log.warn("Транзакционная отправка включена: до {} файлов пачки (prefetch.batch-size) обрабатываются "
+                            + "в одной транзакции длительностью не более {} (publisher.transactions.timeout). "
+                            + "Ошибка любого файла откатывает и повторяет всю пачку",
+                    prefetchProperties.getBatchSize(), publisherProperties.getTransactions().getTimeout());
+        }
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+
+    /**
+     * Пул потоков упреждающей загрузки файлов
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService prefetchPool(PrefetchProperties prefetchProperties) {
+        return Executors.newFixedThreadPool(prefetchProperties.getMaxFiles(), new CustomizableThreadFactory("prefetch-"));
+    }
+
+    @Bean
+    public PrefetchingBatchProcessor prefetchingBatchProcessor(CsvProcessingService csvProcessingService,
+                                                               FileSourceProvider fileSourceProvider,
+                                                               @Qualifier("prefetchPool") ExecutorService prefetchPool,
+                                                               PrefetchProperties prefetchProperties) {
+        return new PrefetchingBatchProcessor(csvProcessingService, fileSourceProvider, prefetchPool, prefetchProperties);
+    }
+}
@@ -0,0 +1,95 @@
+package com.neighbor.eventmosaic.adapter.config;
+
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProcessedFileRegistryProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.PublisherProperties;
+import com.neighbor.eventmosaic.adapter.publisher.KafkaMessagePublisher;
+import com.neighbor.eventmosaic.adapter.registry.FileCheckpointStore;
+import com.neighbor.eventmosaic.adapter.registry.LocalFileCheckpointStore;
+import com.neighbor.eventmosaic.adapter.registry.LocalProcessedFileRegistry;
+import com.neighbor.eventmosaic.adapter.registry.ProcessedFileRegistry;
+import com.neighbor.eventmosaic.adapter.registry.TransactionAwareProcessedFileRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация реестра обработанных файлов и контрольных точек обработки.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ProcessedFileRegistryProperties.class)
+public class ProcessedFileRegistryConfig {
+
+    /**
+     * Создает реестр обработанных файлов в локальном журнале или выключенный реестр.
+     * Перед отметкой файла дожидается подтверждения брокером всех отправленных записей файла,
+     * чтобы файл не считался обработанным до их доставки. В транзакционном режиме файл отмечается
+     * после фиксации транзакции с его записями.
+     *
+     * @param properties            настройки реестра
+     * @param publisherProperties   настройки отправки
+     * @param kafkaMessagePublisher компонент отправки сообщений
+     * @param meterRegistry         реестр метрик
+     * @return реестр обработанных файлов
+     */
+    @Bean
+    public ProcessedFileRegistry processedFileRegistry(ProcessedFileRegistryProperties properties,
+                                                       PublisherProperties publisherProperties,
+                                                       KafkaMessagePublisher kafkaMessagePublisher,
+                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        if (!properties.isEnabled()) {
+            return ProcessedFileRegistry.disabled();
+        }
+
+        LocalProcessedFileRegistry registry =
+                new LocalProcessedFileRegistry(properties.getJournal(), properties.getRetention(),
+                        kafkaMessagePublisher::awaitPublished);
+        meterRegistry.ifAvailable(registry::bindTo);
+        return publisherProperties.getTransactions().isEnabled()
+                ? new TransactionAwareProcessedFileRegistry(registry)
+                : registry;
+    }
+
+    /**
+     * Создает хранилище контрольных точек в локальном каталоге или выключенное хранилище.
+     * Перед сохранением точки дожидается подтверждения брокером всех отправленных записей файла.
+     * В транзакционном режиме записи неудачной попытки отменяются вместе с транзакцией, а при параллельном
+     * разборе без сохранения порядка номер записи меняется от попытки к попытке, поэтому точки не используются.
+     *
+     * @param properties            настройки реестра
+     * @param parserProperties      настройки парсеров
+     * @param publisherProperties   настройки отправки
+     * @param kafkaMessagePublisher компонент отправки сообщений
+     * @param meterRegistry         реестр метрик
+     * @return хранилище контрольных точек
+     */
+    @Bean
+    public FileCheckpointStore fileCheckpointStore(ProcessedFileRegistryProperties properties,
+                                                   ParserProperties parserProperties,
+                                                   PublisherProperties publisherProperties,
+                                                   KafkaMessagePublisher kafkaMessagePublisher,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        ProcessedFileRegistryProperties.Checkpoints checkpoints = properties.getCheckpoints();
+        if (!checkpoints.isEnabled()) {
+            return FileCheckpointStore.disabled();
+        }
+        if (publisherProperties.getTransactions().isEnabled()) {
+            log.warn("Контрольные точки не используются в транзакционном режиме");
+            return FileCheckpointStore.disabled();
+        }
+        ParserProperties.Parallel parallel = parserProperties.getParallel();
+        if (parallel.isEnabled() && !parallel.isOrdered()) {
+            log.warn("Контрольные точки не используются при параллельном разборе без сохранения порядка записей");
+            return FileCheckpointStore.disabled();
+        }
+
+        LocalFileCheckpointStore store = new LocalFileCheckpointStore(checkpoints.getDirectory(),
+                properties.getRetention(), checkpoints.getInterval(), kafkaMessagePublisher::awaitPublished);
+        meterRegistry.ifAvailable(store::bindTo);
+        return store;
+    }
+}
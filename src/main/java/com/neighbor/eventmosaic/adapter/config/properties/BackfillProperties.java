@@ -0,0 +1,48 @@
+package com.neighbor.eventmosaic.adapter.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Конфигурационные свойства повторной обработки (backfill) всех файлов по префиксу хранилища.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "backfill")
+public class BackfillProperties {
+
+    /**
+     * Включить операцию actuator {@code backfill}. Для вызова по HTTP ее нужно добавить в management.endpoints.web.exposure.include.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Количество одновременно обрабатываемых файлов.
+     */
+    private int workers = 2;
+
+    /**
+     * Ограничение скорости загрузки файлов в секунду (0 - без ограничения).
+     */
+    private DataSize maxBytesPerSecond = DataSize.ofBytes(0);
+
+    /**
+     * Ограничение количества отправляемых записей в секунду (0 - без ограничения).
+     */
+    private long maxRecordsPerSecond = 0;
+
+    /**
+     * Каталог состояния: незавершенное задание и обработанные им файлы.
+     * Для продолжения после перезапуска должен находиться на постоянном томе.
+     */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "em-adapter", "backfill");
+
+    /**
+     * Продолжать незавершенное задание при запуске приложения.
+     */
+    private boolean resumeOnStartup = true;
+}
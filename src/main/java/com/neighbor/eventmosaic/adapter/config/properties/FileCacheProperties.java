@@ -0,0 +1,39 @@
+package com.neighbor.eventmosaic.adapter.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Конфигурационные свойства локального дискового кеша загруженных файлов.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "storage.cache")
+public class FileCacheProperties {
+
+    /**
+     * Сохранять ли загруженные файлы на локальный диск.
+     * Повторная обработка файла (например, после ошибки отправки) читает его с диска, а не из хранилища.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Каталог кеша.
+     */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "em-adapter-cache");
+
+    /**
+     * Максимальный суммарный размер файлов в кеше. Давно не читавшиеся файлы удаляются первыми.
+     */
+    private DataSize maxSize = DataSize.ofGigabytes(2);
+
+    /**
+     * Время хранения файла с момента последнего чтения.
+     */
+    private Duration maxAge = Duration.ofHours(6);
+}
@@ -0,0 +1,27 @@
+package com.neighbor.eventmosaic.adapter.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Конфигурационные свойства чтения файлов из локальной файловой системы по URL {@code file://}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "storage.local")
+public class LocalStorageProperties {
+
+    /**
+     * Принимать ли пути вида {@code file:///data/gdelt/20250106223000.export.CSV}.
+     * Используется для повторной обработки локального архива GDELT без MinIO.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Каталог, за пределами которого файлы не читаются.
+     */
+    private Path root = Path.of("/data");
+}
@@ -3,6 +3,9 @@ package com.neighbor.eventmosaic.adapter.config.properties;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
 
 /**
  * Конфигурационные свойства для подключения к MinIO.
@@ -27,4 +30,88 @@ public class MinioProperties {
      * Секретный ключ (Secret Key) для аутентификации в MinIO.
      */
     private String secretKey;
-}
\ No newline at end of file
+
+    /**
+     * Настройки загрузки больших объектов параллельными диапазонами.
+     */
+    private Ranged ranged = new Ranged();
+
+    /**
+     * Настройки HTTP-клиента MinIO.
+     */
+    private Http http = new Http();
+
+    /**
+     * Настройки загрузки объекта несколькими одновременными запросами диапазонов байтов.
+     */
+    @Getter
+    @Setter
+    public static class Ranged {
+
+        /**
+         * Загружать ли большие объекты диапазонами.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Минимальный размер объекта, начиная с которого он загружается диапазонами.
+         * Объекты меньшего размера читаются одним запросом.
+         */
+        private DataSize threshold = DataSize.ofMegabytes(32);
+
+        /**
+         * Размер одного диапазона. Для каждого файла в памяти находится не более (concurrency + 1) диапазонов.
+         */
+        private DataSize rangeSize = DataSize.ofMegabytes(8);
+
+        /**
+         * Количество диапазонов одного объекта, загружаемых одновременно.
+         */
+        private int concurrency = 4;
+    }
+
+    /**
+     * Настройки HTTP-клиента MinIO: пул соединений, ограничения одновременных запросов и таймауты.
+     */
+    @Getter
+    @Setter
+    public static class Http {
+
+        /**
+         * Максимальное количество простаивающих соединений в пуле.
+         */
+        private int maxIdleConnections = 16;
+
+        /**
+         * Время, в течение которого простаивающее соединение остается в пуле.
+         */
+        private Duration keepAlive = Duration.ofMinutes(5);
+
+        /**
+         * Максимальное количество одновременных запросов ко всем хостам.
+         */
+        private int maxRequests = 64;
+
+        /**
+         * Максимальное количество одновременных запросов к одному хосту.
+         * Клиент MinIO выполняет запросы асинхронно, поэтому лишние запросы (например, диапазоны
+         * одновременно загружаемых файлов) ждут в очереди диспетчера.
+         */
+        private int maxRequestsPerHost = 16;
+
+        /**
+         * Таймаут установки соединения.
+         */
+        private Duration connectTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Таймаут ожидания данных при чтении ответа.
+         */
+        private Duration readTimeout = Duration.ofMinutes(1);
+
+        /**
+         * Таймаут отправки запроса.
+         */
+        private Duration writeTimeout = Duration.ofMinutes(1);
+    }
+}
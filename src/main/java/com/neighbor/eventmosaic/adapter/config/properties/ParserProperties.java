@@ -0,0 +1,135 @@
+package com.neighbor.eventmosaic.adapter.config.properties;
+
+import com.neighbor.eventmosaic.adapter.parser.ParserEngine;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Конфигурационные свойства парсеров CSV-файлов GDELT.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "parser")
+public class ParserProperties {
+
+    /**
+     * Настройки парсера файлов событий.
+     */
+    private Settings event = new Settings();
+
+    /**
+     * Настройки парсера файлов упоминаний.
+     */
+    private Settings mention = new Settings();
+
+    /**
+     * Максимальное количество диагностических сообщений о некорректных значениях и пропущенных записях на файл.
+     * Остальные проблемы учитываются только в метриках и итогах разбора.
+     */
+    private int diagnosticSamples = 10;
+
+    /**
+     * Настройки параллельного разбора одного файла.
+     */
+    private Parallel parallel = new Parallel();
+
+    /**
+     * Настройки конвейерной обработки файла.
+     */
+    private Pipeline pipeline = new Pipeline();
+
+    /**
+     * Настройки отдельного парсера.
+     */
+    @Getter
+    @Setter
+    public static class Settings {
+
+        /**
+         * Движок разбора CSV.
+         * TSV - байтовый токенизатор без поддержки кавычек, COMMONS_CSV - Apache Commons CSV.
+         */
+        private ParserEngine engine = ParserEngine.TSV;
+
+        /**
+         * Емкость кеша строк для колонок-справочников (коды стран, типов, событий, источники).
+         * 0 отключает кеширование. Используется только движком TSV.
+         */
+        private int stringCacheCapacity = 4096;
+    }
+
+    /**
+     * Настройки параллельного разбора файла по блокам строк.
+     */
+    @Getter
+    @Setter
+    public static class Parallel {
+
+        /**
+         * Разбирать ли файл параллельно по блокам.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Размер блока, на которые делится файл. Граница блока сдвигается до конца строки.
+         */
+        private DataSize chunkSize = DataSize.ofMegabytes(4);
+
+        /**
+         * Количество потоков разбора. 0 - по количеству процессоров.
+         */
+        private int parallelism = 0;
+
+        /**
+         * Передавать ли записи в исходном порядке файла.
+         * Без упорядочивания блоки передаются по готовности, порядок сохраняется только внутри блока:
+         * записи упоминаний одного события (одного ключа Kafka) из разных блоков могут быть переставлены.
+         */
+        private boolean ordered = true;
+
+        /**
+         * Возвращает фактическое количество потоков разбора
+         */
+        public int resolveParallelism() {
+            return parallelism > 0
+                    ? parallelism
+                    : Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    /**
+     * Настройки конвейерной обработки файла: чтение, разбор и отправка записей выполняются отдельными
+     * стадиями, связанными ограниченными очередями.
+     */
+    @Getter
+    @Setter
+    public static class Pipeline {
+
+        /**
+         * Выполнять ли чтение и разбор файла в виртуальных потоках параллельно с отправкой записей.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Размер блока, которыми читается содержимое файла.
+         */
+        private DataSize readChunkSize = DataSize.ofKilobytes(256);
+
+        /**
+         * Емкость очереди прочитанных, но не разобранных блоков.
+         */
+        private int readQueueCapacity = 16;
+
+        /**
+         * Количество записей в пачке, передаваемой от разбора к отправке.
+         */
+        private int batchRecords = 512;
+
+        /**
+         * Емкость очереди разобранных, но не отправленных пачек записей.
+         */
+        private int recordQueueCapacity = 16;
+    }
+}
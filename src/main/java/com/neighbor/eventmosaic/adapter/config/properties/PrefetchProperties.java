@@ -0,0 +1,38 @@
+package com.neighbor.eventmosaic.adapter.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Конфигурационные свойства конвейерной обработки файлов с упреждающей загрузкой.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "prefetch")
+public class PrefetchProperties {
+
+    /**
+     * Обрабатывать ли сообщения пачками с упреждающей загрузкой следующих файлов.
+     * Пока текущий файл разбирается и отправляется, следующие файлы пачки уже загружаются.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Максимальный суммарный размер загруженных, но еще не обработанных файлов.
+     * Файл больше бюджета загружается, только когда предыдущие файлы обработаны.
+     */
+    private DataSize maxBytes = DataSize.ofMegabytes(256);
+
+    /**
+     * Максимальное количество одновременно загружаемых файлов.
+     */
+    private int maxFiles = 4;
+
+    /**
+     * Максимальное количество путей к файлам в одной пачке (max.poll.records).
+     * Пачка должна обрабатываться быстрее max.poll.interval.ms.
+     */
+    private int batchSize = 8;
+}
@@ -0,0 +1,65 @@
+package com.neighbor.eventmosaic.adapter.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Конфигурационные свойства реестра обработанных файлов.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "processed-files")
+public class ProcessedFileRegistryProperties {
+
+    /**
+     * Пропускать ли файлы, уже обработанные с тем же путем, ETag и идентификатором батча
+     * (повторные сообщения коллектора, повторная доставка после ребалансировки).
+     */
+    private boolean enabled = false;
+
+    /**
+     * Файл журнала обработанных файлов. Для сохранения между перезапусками должен находиться на постоянном томе.
+     */
+    private Path journal = Path.of(System.getProperty("java.io.tmpdir"), "em-adapter", "processed-files.log");
+
+    /**
+     * Период, в течение которого файл считается обработанным.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Контрольные точки обработки файлов.
+     */
+    private Checkpoints checkpoints = new Checkpoints();
+
+    /**
+     * Контрольные точки: сколько записей файла подтверждено брокером.
+     * При повторной обработке файла той же версии (повтор после ошибки, перезапуск после сбоя)
+     * подтвержденные записи разбираются, но заново не отправляются.
+     */
+    @Getter
+    @Setter
+    public static class Checkpoints {
+
+        /**
+         * Сохранять ли контрольные точки. Не используются в транзакционном режиме
+         * и при параллельном разборе без сохранения порядка записей.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Каталог контрольных точек. Для сохранения между перезапусками должен находиться на постоянном томе.
+         */
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "em-adapter", "checkpoints");
+
+        /**
+         * Количество записей между контрольными точками. Перед сохранением точки ожидается
+         * подтверждение всех отправленных записей, поэтому слишком частые точки замедляют отправку.
+         */
+        private int interval = 20_000;
+    }
+}
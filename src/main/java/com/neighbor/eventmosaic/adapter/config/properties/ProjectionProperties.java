@@ -0,0 +1,30 @@
+package com.neighbor.eventmosaic.adapter.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Проекции полей для исходящих топиков Kafka.
+ * Пустой список означает, что в сообщения попадают все поля.
+ * Поле globalEventId остается всегда, так как является ключом сообщения.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kafka.topic.producer.projection")
+public class ProjectionProperties {
+
+    /**
+     * Поля событий (Event), отправляемые в топик adapter-event.
+     * Пример: globalEventId,eventCode,eventRootCode,avgTone,actionGeoCountryCode
+     */
+    private List<String> adapterEvent = new ArrayList<>();
+
+    /**
+     * Поля упоминаний (Mention), отправляемые в топик adapter-mention.
+     */
+    private List<String> adapterMention = new ArrayList<>();
+}
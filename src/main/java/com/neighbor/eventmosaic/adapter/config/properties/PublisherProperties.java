@@ -0,0 +1,201 @@
+package com.neighbor.eventmosaic.adapter.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Конфигурационные свойства отправки записей в Kafka.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "publisher")
+public class PublisherProperties {
+
+    /**
+     * Максимальное количество отправленных, но еще не подтвержденных брокером сообщений.
+     * При достижении предела отправка ожидает подтверждения предыдущих сообщений.
+     */
+    private int maxInFlight = 10_000;
+
+    /**
+     * Количество повторных отправок сообщения после временной ошибки, когда продюсер уже исчерпал свои попытки.
+     */
+    private int maxRetries = 2;
+
+    /**
+     * Максимальное время ожидания места в окне отправки и подтверждения всех сообщений файла.
+     */
+    private Duration timeout = Duration.ofMinutes(2);
+
+    /**
+     * Формат значений сообщений с событиями и упоминаниями.
+     */
+    private Format format = Format.JSON;
+
+    /**
+     * Профили продюсеров по имени. Каждый профиль получает собственную фабрику продюсеров
+     * с настройками spring.kafka.producer, переопределенными профилем.
+     */
+    private Map<String, ProducerProfile> profiles = new LinkedHashMap<>();
+
+    /**
+     * Профиль продюсера для исходящего топика по ключу kafka.topic.producer (adapter-event, adapter-mention).
+     * Топики без профиля используют общий продюсер.
+     */
+    private Map<String, String> topicProfiles = new HashMap<>();
+
+    /**
+     * Отправка записей конвертами (несколько записей одного раздела в одном сообщении).
+     */
+    private Envelope envelope = new Envelope();
+
+    /**
+     * Транзакционная отправка: записи файла и смещение сообщения с путем к нему фиксируются одной транзакцией Kafka.
+     */
+    private Transactions transactions = new Transactions();
+
+    /**
+     * Настройки продюсера, переопределяемые профилем. Незаданные настройки берутся из spring.kafka.producer.
+     */
+    @Getter
+    @Setter
+    public static class ProducerProfile {
+
+        /**
+         * Алгоритм сжатия пакетов: none, gzip, snappy, lz4 или zstd (compression.type).
+         */
+        private String compressionType;
+
+        /**
+         * Время ожидания заполнения пакета перед отправкой (linger.ms).
+         */
+        private Duration linger;
+
+        /**
+         * Максимальный размер пакета сообщений одного раздела (batch.size).
+         */
+        private DataSize batchSize;
+
+        /**
+         * Память продюсера под неотправленные сообщения (buffer.memory).
+         */
+        private DataSize bufferMemory;
+
+        /**
+         * Максимальный размер запроса к брокеру (max.request.size).
+         */
+        private DataSize maxRequestSize;
+
+        /**
+         * Дополнительные свойства продюсера.
+         */
+        private Map<String, String> properties = new HashMap<>();
+
+        /**
+         * Возвращает свойства продюсера, заданные профилем
+         */
+        public Map<String, Object> toProducerProperties() {
+            Map<String, Object> producerProperties = new HashMap<>(properties);
+            if (compressionType != null) {
+                producerProperties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+            }
+            if (linger != null) {
+                producerProperties.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+            }
+            if (batchSize != null) {
+                producerProperties.put(ProducerConfig.BATCH_SIZE_CONFIG, (int) batchSize.toBytes());
+            }
+            if (bufferMemory != null) {
+                producerProperties.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory.toBytes());
+            }
+            if (maxRequestSize != null) {
+                producerProperties.put(ProducerConfig.MAX_REQUEST_SIZE_CONFIG, (int) maxRequestSize.toBytes());
+            }
+            return producerProperties;
+        }
+    }
+
+    /**
+     * Настройки отправки записей конвертами. Конверты отправляются в отдельные топики, поэтому потребители
+     * выбирают между топиками с отдельными записями и топиками конвертов.
+     */
+    @Getter
+    @Setter
+    public static class Envelope {
+
+        /**
+         * Топик конвертов по ключу исходящего топика kafka.topic.producer (adapter-event, adapter-mention).
+         * Записи топиков без топика конвертов отправляются только по одной.
+         */
+        private Map<String, String> topics = new HashMap<>();
+
+        /**
+         * Максимальное количество записей в конверте.
+         */
+        private int maxRecords = 500;
+
+        /**
+         * Размер, по достижении которого конверт отправляется. Конверт может превысить его на одну запись,
+         * поэтому max.request.size продюсера должен быть больше с запасом.
+         */
+        private DataSize maxBytes = DataSize.ofKilobytes(512);
+
+        /**
+         * Отправлять записи также по одной в исходные топики.
+         */
+        private boolean perRecord = true;
+    }
+
+    /**
+     * Настройки транзакционной отправки.
+     * Слушатели выполняются в транзакции Kafka: при ошибке отправленные записи файла отменяются вместе
+     * со смещением, и повторная обработка не дублирует записи для потребителей с read_committed.
+     * Все топики отправляются общим продюсером (профили продюсеров не используются), повторные отправки
+     * отдельных сообщений не выполняются - повторяется обработка всего сообщения с путем.
+     */
+    @Getter
+    @Setter
+    public static class Transactions {
+
+        /**
+         * Включить транзакционную отправку.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Префикс transactional.id продюсеров. Должен быть уникальным для экземпляра приложения
+         * и сохраняться при его перезапуске.
+         */
+        private String idPrefix = "em-adapter-tx-";
+
+        /**
+         * Максимальная длительность транзакции (transaction.timeout.ms): должна покрывать обработку
+         * самого большого файла и не превышать transaction.max.timeout.ms брокера.
+         */
+        private Duration timeout = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Формат значений сообщений
+     */
+    public enum Format {
+
+        /**
+         * JSON с именами полей
+         */
+        JSON,
+
+        /**
+         * Двоичный формат без имен полей; тип содержимого передается в заголовке contentType
+         */
+        BINARY
+    }
+}
@@ -0,0 +1,17 @@
+package com.neighbor.eventmosaic.adapter.exception;
+
+/**
+ * Исключение, возникающее при ошибках отправки сообщений в Kafka.
+ * Используется для отделения сбоев публикации от ошибок
+ * доступа к файлам и парсинга их содержимого.
+ */
+public class PublishingException extends AdapterException {
+
+    public PublishingException(String message) {
+        super(message);
+    }
+
+    public PublishingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,5 +1,6 @@
 package com.neighbor.eventmosaic.adapter.listener;
 
+import com.neighbor.eventmosaic.adapter.parser.ParseSummary;
 import com.neighbor.eventmosaic.adapter.publisher.KafkaMessagePublisher;
 import com.neighbor.eventmosaic.adapter.service.CsvProcessingService;
 import com.neighbor.eventmosaic.adapter.util.FileNameUtil;
@@ -7,24 +8,27 @@ import com.neighbor.eventmosaic.library.common.dto.Event;
 import com.neighbor.eventmosaic.library.common.dto.Mention;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 /**
  * Компонент для прослушивания сообщений из Kafka
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "prefetch", name = "enabled", havingValue = "false", matchIfMissing = true)
 public class KafkaMessageListener {
 
     private final CsvProcessingService csvProcessingService;
     private final KafkaMessagePublisher kafkaMessagePublisher;
 
     /**
-     * Обрабатывает сообщения с путями к файлам событий (Event)
+     * Обрабатывает сообщения с путями к файлам событий (Event).
+     * События отправляются в Kafka по мере парсинга, без накопления всего файла в памяти.
+     * Смещение сообщения фиксируется только после подтверждения брокером всех событий файла.
+     * Состояние отправки потока сбрасывается и при ошибке, чтобы не влиять на следующее сообщение
      *
      * @param path путь к CSV файлу с событиями
      */
@@ -33,12 +37,22 @@ public class KafkaMessageListener {
         log.info("Получен путь к файлу событий: {}", path);
         String batchId = FileNameUtil.extractBatchId(path);
 
-        List<Event> events = csvProcessingService.processCsvFile(path, Event.class);
-        kafkaMessagePublisher.publishEventMessages(events, batchId);
+        try {
+            ParseSummary summary = csvProcessingService.processCsvFile(path, Event.class,
+                    event -> kafkaMessagePublisher.publishEventMessage(event, batchId));
+            kafkaMessagePublisher.awaitPublished();
+            log.info("Отправлено {} событий с идентификатором батча: {}. Итоги разбора: {}",
+                    summary.records(), batchId, summary);
+        } finally {
+            kafkaMessagePublisher.discardPending();
+        }
     }
 
     /**
-     * Обрабатывает сообщения с путями к файлам упоминаний (Mention)
+     * Обрабатывает сообщения с путями к файлам упоминаний (Mention).
+     * Упоминания отправляются в Kafka по мере парсинга, без накопления всего файла в памяти.
+     * Смещение сообщения фиксируется только после подтверждения брокером всех упоминаний файла.
+     * Состояние отправки потока сбрасывается и при ошибке, чтобы не влиять на следующее сообщение
      *
      * @param path путь к CSV файлу с упоминаниями
      */
@@ -47,7 +61,14 @@ public class KafkaMessageListener {
         log.info("Получен путь к файлу упоминаний: {}", path);
         String batchId = FileNameUtil.extractBatchId(path);
 
-        List<Mention> mentions = csvProcessingService.processCsvFile(path, Mention.class);
-        kafkaMessagePublisher.publishMentionMessages(mentions, batchId);
+        try {
+            ParseSummary summary = csvProcessingService.processCsvFile(path, Mention.class,
+                    mention -> kafkaMessagePublisher.publishMentionMessage(mention, batchId));
+            kafkaMessagePublisher.awaitPublished();
+            log.info("Отправлено {} упоминаний с идентификатором батча: {}. Итоги разбора: {}",
+                    summary.records(), batchId, summary);
+        } finally {
+            kafkaMessagePublisher.discardPending();
+        }
     }
 }
@@ -0,0 +1,90 @@
+package com.neighbor.eventmosaic.adapter.listener;
+
+import com.neighbor.eventmosaic.adapter.config.PrefetchConfig;
+import com.neighbor.eventmosaic.adapter.parser.ParseSummary;
+import com.neighbor.eventmosaic.adapter.publisher.KafkaMessagePublisher;
+import com.neighbor.eventmosaic.adapter.service.PrefetchingBatchProcessor;
+import com.neighbor.eventmosaic.adapter.util.FileNameUtil;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import com.neighbor.eventmosaic.library.common.dto.Mention;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Компонент для прослушивания сообщений из Kafka пачками с упреждающей загрузкой файлов.
+ * Используется вместо {@link KafkaMessageListener} при prefetch.enabled=true
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "prefetch", name = "enabled", havingValue = "true")
+public class PrefetchingKafkaMessageListener {
+
+    private final PrefetchingBatchProcessor prefetchingBatchProcessor;
+    private final KafkaMessagePublisher kafkaMessagePublisher;
+
+    /**
+     * Обрабатывает пачку сообщений с путями к файлам событий (Event).
+     * Следующие файлы пачки загружаются, пока обрабатывается текущий.
+     * Каждый файл считается обработанным только после подтверждения брокером всех его событий:
+     * при ошибке обработчик ошибок фиксирует смещения только подтвержденных файлов.
+     * При publisher.transactions.enabled=true пачка обрабатывается в одной транзакции:
+     * ошибка откатывает записи всех файлов пачки, включая подтвержденные, и пачка повторяется целиком
+     *
+     * @param paths пути к CSV файлам с событиями в порядке сообщений
+     */
+    @KafkaListener(topics = "${kafka.topic.consumer.collector-event}",
+            containerFactory = PrefetchConfig.BATCH_CONTAINER_FACTORY,
+            properties = "max.poll.records:${prefetch.batch-size:8}")
+    public void processEventsPaths(List<String> paths) {
+        log.info("Получено путей к файлам событий: {}", paths.size());
+
+        try {
+            List<ParseSummary> summaries = prefetchingBatchProcessor.process(paths, Event.class, path -> {
+                String batchId = FileNameUtil.extractBatchId(path);
+                return event -> kafkaMessagePublisher.publishEventMessage(event, batchId);
+            }, kafkaMessagePublisher::awaitPublished);
+            for (int i = 0; i < paths.size(); i++) {
+                log.info("Отправлено {} событий с идентификатором батча: {}. Итоги разбора: {}",
+                        summaries.get(i).records(), FileNameUtil.extractBatchId(paths.get(i)), summaries.get(i));
+            }
+        } finally {
+            kafkaMessagePublisher.discardPending();
+        }
+    }
+
+    /**
+     * Обрабатывает пачку сообщений с путями к файлам упоминаний (Mention).
+     * Следующие файлы пачки загружаются, пока обрабатывается текущий.
+     * Каждый файл считается обработанным только после подтверждения брокером всех его упоминаний:
+     * при ошибке обработчик ошибок фиксирует смещения только подтвержденных файлов.
+     * При publisher.transactions.enabled=true пачка обрабатывается в одной транзакции:
+     * ошибка откатывает записи всех файлов пачки, включая подтвержденные, и пачка повторяется целиком
+     *
+     * @param paths пути к CSV файлам с упоминаниями в порядке сообщений
+     */
+    @KafkaListener(topics = "${kafka.topic.consumer.collector-mention}",
+            containerFactory = PrefetchConfig.BATCH_CONTAINER_FACTORY,
+            properties = "max.poll.records:${prefetch.batch-size:8}")
+    public void processMentionsPaths(List<String> paths) {
+        log.info("Получено путей к файлам упоминаний: {}", paths.size());
+
+        try {
+            List<ParseSummary> summaries = prefetchingBatchProcessor.process(paths, Mention.class, path -> {
+                String batchId = FileNameUtil.extractBatchId(path);
+                return mention -> kafkaMessagePublisher.publishMentionMessage(mention, batchId);
+            }, kafkaMessagePublisher::awaitPublished);
+            for (int i = 0; i < paths.size(); i++) {
+                log.info("Отправлено {} упоминаний с идентификатором батча: {}. Итоги разбора: {}",
+                        summaries.get(i).records(), FileNameUtil.extractBatchId(paths.get(i)), summaries.get(i));
+            }
+        } finally {
+            kafkaMessagePublisher.discardPending();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.neighbor.eventmosaic.adapter.parser;
+
+import com.neighbor.eventmosaic.adapter.parser.row.CsvRow;
+import com.neighbor.eventmosaic.adapter.parser.row.CsvRowReader;
+import com.neighbor.eventmosaic.adapter.parser.row.ParseStatistics;
+import com.neighbor.eventmosaic.adapter.parser.row.StringCache;
+import com.neighbor.eventmosaic.adapter.parser.schema.RecordLayout;
+import com.neighbor.eventmosaic.adapter.parser.schema.RecordMapping;
+import com.neighbor.eventmosaic.adapter.parser.schema.RecordSchema;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Базовый парсер CSV-файлов GDELT.
+ * Отвечает за построчное чтение выбранным движком, выбор раскладки колонок по первой строке файла
+ * и фильтрацию записей без ключа. Наследники только описывают схему записи {@link RecordSchema}.
+ * Метрики кеша строк и качества разбора регистрируются автоматически, так как парсер является {@link MeterBinder}.
+ * <p>
+ * Пустые, отсутствующие и некорректные значения только подсчитываются по колонкам {@link ParseStatistics};
+ * подробная диагностика пишется в лог для первых {@code diagnosticSamples} проблем файла,
+ * а счетчики публикуются в метрики один раз по окончании файла.
+ */
+@Slf4j
+public abstract class AbstractCsvParser<T> implements CsvParser<T>, MeterBinder {
+
+    static final String RECORDS_METRIC = "adapter.parser.records";
+    static final String VALUES_METRIC = "adapter.parser.values";
+
+    private final ParserEngine engine;
+    private final RecordSchema<T> schema;
+    private final RecordMapping<T> mapping;
+    private final StringCache stringCache;
+    private final int diagnosticSamples;
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * @param engine            движок разбора
+     * @param schema            схема записи
+     * @param projectedFields   поля проекции; пустой список означает все поля
+     * @param stringCache       кеш строк для кешируемых полей схемы
+     * @param diagnosticSamples максимальное количество диагностических сообщений на файл
+     * @param requiredFields    поля, которые разбираются при любой проекции
+     */
+    protected AbstractCsvParser(ParserEngine engine,
+                                RecordSchema<T> schema,
+                                Collection<String> projectedFields,
+                                StringCache stringCache,
+                                int diagnosticSamples,
+                                String... requiredFields) {
+        this.engine = engine;
+        this.schema = schema;
+        this.mapping = schema.compile(projectedFields, stringCache, requiredFields);
+        this.stringCache = stringCache;
+        this.diagnosticSamples = diagnosticSamples;
+    }
+
+    /**
+     * Потоково парсит CSV-файл GDELT.
+     * Раскладка колонок выбирается по количеству колонок первой строки файла.
+     * Запись с пустым GlobalEventId пропускается
+     * так как это значение является ключом при отправке в Kafka и должно быть.
+     *
+     * @param stream   поток ввода
+     * @param charset  кодировка символов
+     * @param consumer получатель распарсенных записей
+     * @return итоги разбора файла
+     * @throws IOException если возникает ошибка при чтении или парсинге CSV-файла
+     */
+    @Override
+    public ParseSummary parseStream(InputStream stream, Charset charset, Consumer<? super T> consumer) throws IOException {
+        String parserName = getSupportedClass().getSimpleName();
+        log.debug("Начинаем парсинг CSV-файла. Тип записей: {}, движок: {}", parserName, engine);
+        long count = 0;
+
+        ParseStatistics statistics = new ParseStatistics(parserName, diagnosticSamples);
+        CsvRowReader reader = engine.open(stream, charset, mapping.getColumnLimit());
+        reader.setStatistics(statistics);
+        RecordLayout<T> layout = null;
+        CsvRow row;
+        while ((row = reader.nextRow()) != null) {
+            if (layout == null) {
+                layout = selectLayout(row.size());
+                statistics.setColumnNames(layout::getFieldName);
+            }
+            statistics.row();
+            T rec = layout.read(row);
+            if (getGlobalEventId(rec) == null) {
+                statistics.skippedRecord(row);
+                continue;
+            }
+            consumer.accept(rec);
+            count++;
+        }
+
+        ParseSummary summary = new ParseSummary(
+                layout != null ? layout.getName() : null,
+                statistics.getRows(),
+                count,
+                statistics.getSkippedRecords(),
+                statistics.getEmptyValues(),
+                statistics.getMissingValues(),
+                statistics.getMalformedValues());
+        publish(parserName, summary);
+        log.debug("Парсинг CSV-файла завершен. {}", summary);
+        return summary;
+    }
+
+    /**
+     * Возвращает движок разбора, которым пользуется парсер
+     */
+    public ParserEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Возвращает схему записи парсера
+     */
+    public RecordSchema<T> getSchema() {
+        return schema;
+    }
+
+    /**
+     * Возвращает кеш строк парсера
+     */
+    public StringCache getStringCache() {
+        return stringCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        stringCache.bindTo(registry, Tags.of("parser", getSupportedClass().getSimpleName()));
+        this.meterRegistry = registry;
+    }
+
+    /**
+     * Возвращает ключ записи, по которому она отправляется в Kafka
+     */
+    protected abstract Long getGlobalEventId(T rec);
+
+    /**
+     * Добавляет итоги файла к счетчикам записей и значений парсера
+     */
+    private void publish(String parserName, ParseSummary summary) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        registry.counter(RECORDS_METRIC, "parser", parserName, "result", "parsed").increment(summary.records());
+        registry.counter(RECORDS_METRIC, "parser", parserName, "result", "skipped").increment(summary.skippedRecords());
+        publishValues(registry, parserName, "empty", summary.emptyValues());
+        publishValues(registry, parserName, "missing", summary.missingValues());
+        publishValues(registry, parserName, "malformed", summary.malformedValues());
+    }
+
+    private static void publishValues(MeterRegistry registry, String parserName, String result, Map<String, Long> counts) {
+        counts.forEach((field, count) -> registry
+                .counter(VALUES_METRIC, "parser", parserName, "field", field, "result", result)
+                .increment(count));
+    }
+
+    private RecordLayout<T> selectLayout(int columnCount) {
+        RecordLayout<T> layout = mapping.layoutFor(columnCount);
+        if (layout.getColumnCount() == columnCount) {
+            log.debug("Раскладка колонок файла: {}", layout);
+        } else {
+            log.warn("Неизвестное количество колонок в файле: {}. Используется раскладка {}", columnCount, layout);
+        }
+        return layout;
+    }
+}
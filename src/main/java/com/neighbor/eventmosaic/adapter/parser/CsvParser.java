@@ -3,7 +3,9 @@ package com.neighbor.eventmosaic.adapter.parser;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Интерфейс для парсинга CSV файлов
@@ -11,13 +13,29 @@ import java.util.List;
 public interface CsvParser<T> {
 
     /**
-     * Парсит CSV поток в список объектов
+     * Потоково парсит CSV, передавая каждый объект получателю сразу после разбора записи.
+     * Записи не накапливаются в памяти, поэтому потребление памяти не зависит от размера файла.
+     *
+     * @param stream   поток с CSV данными
+     * @param charset  кодировка CSV файла
+     * @param consumer получатель распарсенных объектов
+     * @return итоги разбора: количество переданных получателю объектов и счетчики качества данных
+     */
+    ParseSummary parseStream(InputStream stream, Charset charset, Consumer<? super T> consumer) throws IOException;
+
+    /**
+     * Парсит CSV поток в список объектов.
+     * Тонкая обертка над потоковым парсингом, материализующая весь результат в памяти.
      *
      * @param stream  поток с CSV данными
      * @param charset кодировка CSV файла
      * @return список распарсенных объектов
      */
-    List<T> parseStream(InputStream stream, Charset charset) throws IOException;
+    default List<T> parseStream(InputStream stream, Charset charset) throws IOException {
+        List<T> results = new ArrayList<>();
+        parseStream(stream, charset, results::add);
+        return results;
+    }
 
     /**
      * Возвращает класс, с которым работает парсер
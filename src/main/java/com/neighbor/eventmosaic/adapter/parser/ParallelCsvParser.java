@@ -0,0 +1,228 @@
+package com.neighbor.eventmosaic.adapter.parser;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Парсер, разбирающий один файл параллельно по частям.
+ * <p>
+ * Поток читается блоками заданного размера, каждый блок обрезается по последнему переводу строки
+ * (остаток переносится в следующий блок) и разбирается исходным парсером в пуле потоков.
+ * Получателю записи передаются в вызывающем потоке: либо в исходном порядке файла,
+ * либо в порядке готовности блоков. Порядок записей внутри блока сохраняется всегда.
+ * <p>
+ * Передача по готовности блоков нарушает порядок записей с одинаковым ключом Kafka, если такие записи
+ * попадают в разные блоки. Для файлов событий ключ ({@code GlobalEventID}) уникален в пределах файла,
+ * а в файлах упоминаний одно событие упоминается многими строками в разных частях файла, поэтому
+ * для упоминаний порядок сообщений одного ключа в топике не сохраняется.
+ * <p>
+ * Количество одновременно обрабатываемых блоков ограничено, поэтому потребление памяти
+ * не зависит от размера файла. Итоги разбора блоков суммируются в итоги файла;
+ * диагностические сообщения ограничиваются для каждого блока отдельно.
+ */
+@Slf4j
+public class ParallelCsvParser<T> implements CsvParser<T> {
+
+    private final CsvParser<T> delegate;
+    private final ExecutorService executor;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final boolean ordered;
+
+    /**
+     * @param delegate          парсер, разбирающий отдельный блок; должен допускать параллельные вызовы
+     * @param executor          пул потоков для разбора блоков
+     * @param chunkSize         размер блока в байтах
+     * @param maxChunksInFlight максимальное количество блоков, разбираемых или ожидающих передачи получателю
+     * @param ordered           передавать ли записи получателю в исходном порядке файла
+     */
+    public ParallelCsvParser(CsvParser<T> delegate, ExecutorService executor,
+                             int chunkSize, int maxChunksInFlight, boolean ordered) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.ordered = ordered;
+    }
+
+    @Override
+    public ParseSummary parseStream(InputStream stream, Charset charset, Consumer<? super T> consumer) throws IOException {
+        log.debug("Начинаем параллельный парсинг. Тип записей: {}, размер блока: {}, упорядоченно: {}",
+                getSupportedClass().getSimpleName(), chunkSize, ordered);
+
+        ChunkReader chunks = new ChunkReader(stream, chunkSize);
+        Deque<Future<ParsedChunk<T>>> pending = new ArrayDeque<>();
+        CompletionService<ParsedChunk<T>> completion = new ExecutorCompletionService<>(executor);
+        ParseSummary summary = ParseSummary.empty();
+        int chunkCount = 0;
+
+        try {
+            Chunk chunk;
+            while ((chunk = chunks.next()) != null) {
+                if (pending.size() == maxChunksInFlight) {
+                    summary = summary.merge(deliver(nextCompleted(pending, completion), consumer));
+                }
+                Callable<ParsedChunk<T>> task = parseTask(chunk, charset);
+                pending.add(ordered ? executor.submit(task) : completion.submit(task));
+                chunkCount++;
+            }
+            while (!pending.isEmpty()) {
+                summary = summary.merge(deliver(nextCompleted(pending, completion), consumer));
+            }
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+
+        log.debug("Параллельный парсинг CSV-файла завершен. Блоков: {}, {}", chunkCount, summary);
+        return summary;
+    }
+
+    @Override
+    public Class<T> getSupportedClass() {
+        return delegate.getSupportedClass();
+    }
+
+    private Callable<ParsedChunk<T>> parseTask(Chunk chunk, Charset charset) {
+        return () -> {
+            List<T> records = new ArrayList<>();
+            ParseSummary summary = delegate.parseStream(
+                    new ByteArrayInputStream(chunk.bytes(), 0, chunk.length()), charset, records::add);
+            return new ParsedChunk<>(records, summary);
+        };
+    }
+
+    /**
+     * Ожидает следующий блок: первый отправленный при упорядоченной передаче или любой готовый иначе
+     */
+    private Future<ParsedChunk<T>> nextCompleted(Deque<Future<ParsedChunk<T>>> pending,
+                                                 CompletionService<ParsedChunk<T>> completion) throws IOException {
+        try {
+            if (ordered) {
+                return pending.poll();
+            }
+            Future<ParsedChunk<T>> future = completion.take();
+            pending.remove(future);
+            return future;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Параллельный парсинг прерван");
+        }
+    }
+
+    private ParseSummary deliver(Future<ParsedChunk<T>> future, Consumer<? super T> consumer) throws IOException {
+        ParsedChunk<T> chunk = await(future);
+        chunk.records().forEach(consumer);
+        return chunk.summary();
+    }
+
+    private ParsedChunk<T> await(Future<ParsedChunk<T>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Параллельный парсинг прерван");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof UncheckedIOException uncheckedIoException) {
+                throw uncheckedIoException.getCause();
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Ошибка при параллельном парсинге блока", cause);
+        }
+    }
+
+    /**
+     * Блок целых строк: первые {@code length} байтов массива
+     */
+    private record Chunk(byte[] bytes, int length) {
+    }
+
+    /**
+     * Записи разобранного блока и итоги его разбора
+     */
+    private record ParsedChunk<T>(List<T> records, ParseSummary summary) {
+    }
+
+    /**
+     * Читает поток блоками, заканчивающимися переводом строки.
+     * Блок увеличивается, только если в него не помещается одна строка.
+     */
+    private static final class ChunkReader {
+
+        private final InputStream stream;
+        private final int chunkSize;
+        private byte[] carry = new byte[0];
+        private boolean eof;
+
+        private ChunkReader(InputStream stream, int chunkSize) {
+            this.stream = stream;
+            this.chunkSize = chunkSize;
+        }
+
+        /**
+         * Возвращает следующий блок целых строк или null, если поток прочитан
+         */
+        private Chunk next() throws IOException {
+            if (eof && carry.length == 0) {
+                return null;
+            }
+            byte[] buffer = Arrays.copyOf(carry, Math.max(chunkSize, carry.length * 2));
+            int filled = carry.length;
+            int searchFrom = filled;
+
+            while (true) {
+                if (!eof) {
+                    int read = stream.readNBytes(buffer, filled, buffer.length - filled);
+                    filled += read;
+                    eof = filled < buffer.length;
+                }
+
+                int lineEnd = lastIndexOfLineEnd(buffer, searchFrom, filled);
+                if (lineEnd >= 0 && !eof) {
+                    carry = Arrays.copyOfRange(buffer, lineEnd + 1, filled);
+                    return new Chunk(buffer, lineEnd + 1);
+                }
+                if (eof) {
+                    carry = new byte[0];
+                    return filled == 0 ? null : new Chunk(buffer, filled);
+                }
+
+                // Строка длиннее блока: увеличиваем блок и дочитываем
+                searchFrom = filled;
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+        }
+
+        private static int lastIndexOfLineEnd(byte[] buffer, int from, int to) {
+            for (int i = to - 1; i >= from; i--) {
+                if (buffer[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
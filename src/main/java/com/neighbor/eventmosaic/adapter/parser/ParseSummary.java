@@ -0,0 +1,76 @@
+package com.neighbor.eventmosaic.adapter.parser;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Итоги разбора одного файла: количество строк и записей,
+ * а также количество пустых, отсутствующих и некорректных значений по полям.
+ *
+ * @param layout          раскладка колонок, выбранная для файла
+ * @param rows            количество прочитанных непустых строк
+ * @param records         количество записей, переданных получателю
+ * @param skippedRecords  количество записей, пропущенных из-за пустого GlobalEventId
+ * @param emptyValues     количество пустых значений по полям
+ * @param missingValues   количество значений, отсутствующих из-за короткой строки, по полям
+ * @param malformedValues количество некорректных значений по полям
+ */
+public record ParseSummary(String layout,
+                           long rows,
+                           long records,
+                           long skippedRecords,
+                           Map<String, Long> emptyValues,
+                           Map<String, Long> missingValues,
+                           Map<String, Long> malformedValues) {
+
+    /**
+     * Итоги пустого файла
+     */
+    public static ParseSummary empty() {
+        return new ParseSummary(null, 0, 0, 0, Map.of(), Map.of(), Map.of());
+    }
+
+    /**
+     * Объединяет итоги частей одного файла
+     */
+    public ParseSummary merge(ParseSummary other) {
+        return new ParseSummary(
+                layout != null ? layout : other.layout,
+                rows + other.rows,
+                records + other.records,
+                skippedRecords + other.skippedRecords,
+                sum(emptyValues, other.emptyValues),
+                sum(missingValues, other.missingValues),
+                sum(malformedValues, other.malformedValues));
+    }
+
+    /**
+     * Возвращает общее количество некорректных значений
+     */
+    public long totalMalformedValues() {
+        return malformedValues.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Возвращает общее количество значений, отсутствующих из-за короткой строки
+     */
+    public long totalMissingValues() {
+        return missingValues.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "раскладка: " + layout
+                + ", строк: " + rows
+                + ", записей: " + records
+                + ", пропущено записей: " + skippedRecords
+                + ", некорректных значений: " + totalMalformedValues() + (malformedValues.isEmpty() ? "" : " " + malformedValues)
+                + ", отсутствующих значений: " + totalMissingValues() + (missingValues.isEmpty() ? "" : " " + missingValues);
+    }
+
+    private static Map<String, Long> sum(Map<String, Long> first, Map<String, Long> second) {
+        Map<String, Long> result = new TreeMap<>(first);
+        second.forEach((field, count) -> result.merge(field, count, Long::sum));
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package com.neighbor.eventmosaic.adapter.parser;
+
+import com.neighbor.eventmosaic.adapter.parser.row.CommonsCsvRowReader;
+import com.neighbor.eventmosaic.adapter.parser.row.CsvRowReader;
+import com.neighbor.eventmosaic.adapter.parser.row.TsvRowReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Движок разбора CSV, выбираемый для каждого парсера в конфигурации
+ */
+public enum ParserEngine {
+
+    /**
+     * Байтовый токенизатор для файлов GDELT без кавычек.
+     * Не создает строки для числовых и пустых полей, а также для колонок из кеша строк.
+     */
+    TSV {
+        @Override
+        public CsvRowReader open(InputStream stream, Charset charset, int columnLimit) {
+            TsvRowReader reader = new TsvRowReader(stream, charset);
+            reader.setColumnLimit(columnLimit);
+            return reader;
+        }
+    },
+
+    /**
+     * Apache Commons CSV с поддержкой кавычек.
+     * Создает CSVRecord и строку на каждое поле, поэтому кеш строк не использует.
+     */
+    COMMONS_CSV {
+        @Override
+        public CsvRowReader open(InputStream stream, Charset charset, int columnLimit) throws IOException {
+            return new CommonsCsvRowReader(stream, charset);
+        }
+    };
+
+    /**
+     * Открывает построчный читатель для потока
+     *
+     * @param stream      поток с CSV данными
+     * @param charset     кодировка CSV файла
+     * @param columnLimit количество первых колонок, которые нужны парсеру; движок может не токенизировать остальные
+     * @return читатель строк
+     */
+    public abstract CsvRowReader open(InputStream stream, Charset charset, int columnLimit) throws IOException;
+}
@@ -0,0 +1,445 @@
+package com.neighbor.eventmosaic.adapter.parser;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Парсер, обрабатывающий файл конвейером из стадий, связанных ограниченными очередями:
+ * чтение содержимого блоками (загрузка и распаковка), разбор записей и передача записей получателю (отправка).
+ * <p>
+ * Чтение и разбор выполняются в потоках пула (виртуальных), а получателю записи передаются в вызывающем
+ * потоке в исходном порядке файла, поэтому транзакция, учет подтверждений отправки и контрольные точки
+ * остаются в потоке слушателя. Когда получатель не успевает (например, окно отправки заполнено
+ * неподтвержденными сообщениями), очереди заполняются и разбор, а затем и чтение приостанавливаются:
+ * потребление памяти ограничено емкостью очередей и не зависит от размера файла.
+ * <p>
+ * Метрики с тегами {@code type} и {@code stage} (read, parse, publish):
+ * {@code adapter.pipeline.queue.depth} - блоки и пачки в очередях после стадий чтения и разбора,
+ * {@code adapter.pipeline.stage} - время обработки стадией одного блока или пачки,
+ * {@code adapter.pipeline.blocked} - время ожидания стадии: чтения и разбора - из-за заполненной очереди,
+ * отправки - в ожидании следующей пачки.
+ */
+@Slf4j
+public class StagedCsvParser<T> implements CsvParser<T>, MeterBinder {
+
+    private static final String READ = "read";
+    private static final String PARSE = "parse";
+    private static final String PUBLISH = "publish";
+
+    /**
+     * Признак окончания содержимого в очереди прочитанных блоков
+     */
+    private static final byte[] END_OF_DATA = new byte[0];
+
+    private static final long CLOSE_CHECK_MILLIS = 100;
+
+    private final CsvParser<T> delegate;
+    private final ExecutorService executor;
+    private final int readChunkSize;
+    private final int readQueueCapacity;
+    private final int batchRecords;
+    private final int recordQueueCapacity;
+
+    /**
+     * Файлы, обрабатываемые в данный момент (для метрик заполненности очередей)
+     */
+    private final Set<FileRun> runs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Таймеры стадий по названию стадии; регистрируются при подключении реестра метрик
+     */
+    private volatile Map<String, Timer> stageTimers = Map.of();
+    private volatile Map<String, Timer> blockedTimers = Map.of();
+
+    /**
+     * @param delegate            парсер, выполняющий разбор записей
+     * @param executor            пул потоков для стадий чтения и разбора; на каждый файл занимаются два потока
+     * @param readChunkSize       размер блока чтения в байтах
+     * @param readQueueCapacity   емкость очереди прочитанных блоков
+     * @param batchRecords        количество записей в пачке, передаваемой получателю
+     * @param recordQueueCapacity емкость очереди разобранных пачек
+     */
+    public StagedCsvParser(CsvParser<T> delegate, ExecutorService executor, int readChunkSize,
+                           int readQueueCapacity, int batchRecords, int recordQueueCapacity) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.readChunkSize = readChunkSize;
+        this.readQueueCapacity = readQueueCapacity;
+        this.batchRecords = batchRecords;
+        this.recordQueueCapacity = recordQueueCapacity;
+    }
+
+    @Override
+    public ParseSummary parseStream(InputStream stream, Charset charset, Consumer<? super T> consumer) throws IOException {
+        log.debug("Начинаем конвейерную обработку. Тип записей: {}, блок чтения: {} байт, пачка: {} записей",
+                getSupportedClass().getSimpleName(), readChunkSize, batchRecords);
+
+        FileRun run = new FileRun(stream);
+        runs.add(run);
+        try {
+            run.start(() -> {
+                run.read();
+                return null;
+            });
+            Future<ParseSummary> parsing = run.start(() -> run.parse(charset));
+            run.deliver(consumer);
+            ParseSummary summary = await(parsing);
+            log.debug("Конвейерная обработка CSV-файла завершена. {}", summary);
+            return summary;
+        } finally {
+            // Источник закрывается вызывающим кодом, поэтому стадия чтения должна завершиться до возврата
+            run.stop();
+            runs.remove(run);
+        }
+    }
+
+    @Override
+    public Class<T> getSupportedClass() {
+        return delegate.getSupportedClass();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindQueueDepth(registry, READ, run -> run.chunks.size());
+        bindQueueDepth(registry, PARSE, run -> run.batches.size());
+        stageTimers = timers(registry, "adapter.pipeline.stage",
+                "Время обработки блока или пачки записей стадией конвейера");
+        blockedTimers = timers(registry, "adapter.pipeline.blocked",
+                "Время ожидания стадии конвейера из-за очереди");
+    }
+
+    private void bindQueueDepth(MeterRegistry registry, String stage, ToIntFunction<FileRun> depth) {
+        Gauge.builder("adapter.pipeline.queue.depth", runs, active -> active.stream().mapToInt(depth).sum())
+                .description("Блоки и пачки записей в очереди после стадии конвейера")
+                .tags("type", getSupportedClass().getSimpleName(), "stage", stage)
+                .register(registry);
+    }
+
+    private Map<String, Timer> timers(MeterRegistry registry, String name, String description) {
+        return Stream.of(READ, PARSE, PUBLISH).collect(Collectors.toUnmodifiableMap(Function.identity(),
+                stage -> Timer.builder(name)
+                        .description(description)
+                        .tags("type", getSupportedClass().getSimpleName(), "stage", stage)
+                        .register(registry)));
+    }
+
+    private static void record(Map<String, Timer> timers, String stage, long startNanos) {
+        Timer timer = timers.get(stage);
+        if (timer != null) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordStage(String stage, long startNanos) {
+        record(stageTimers, stage, startNanos);
+    }
+
+    private void recordBlocked(String stage, long startNanos) {
+        record(blockedTimers, stage, startNanos);
+    }
+
+    private ParseSummary await(Future<ParseSummary> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Конвейерная обработка прервана");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Ошибка при конвейерной обработке файла", cause);
+        }
+    }
+
+    /**
+     * Очереди и состояние стадий при обработке одного файла
+     */
+    private final class FileRun {
+
+        private static final int STAGES = 2;
+
+        private final InputStream source;
+        private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(readQueueCapacity);
+        private final BlockingQueue<List<T>> batches = new ArrayBlockingQueue<>(recordQueueCapacity);
+
+        /**
+         * Признак окончания записей в очереди пачек
+         */
+        private final List<T> endOfRecords = new ArrayList<>(0);
+
+        private final CountDownLatch finished = new CountDownLatch(STAGES);
+        private final Set<Thread> stageThreads = new HashSet<>();
+
+        /**
+         * Количество стадий, запуск которых выполнялся (изменяется только вызывающим потоком)
+         */
+        private int launched;
+
+        private volatile boolean closed;
+        private volatile Throwable readFailure;
+
+        private FileRun(InputStream source) {
+            this.source = source;
+        }
+
+        /**
+         * Запускает стадию в пуле. Стадия, запущенная после завершения обработки файла, сразу завершается
+         */
+        private <V> Future<V> start(Callable<V> stage) {
+            launched++;
+            try {
+                return executor.submit(() -> {
+                    Thread current = Thread.currentThread();
+                    try {
+                        synchronized (this) {
+                            if (closed) {
+                                return null;
+                            }
+                            stageThreads.add(current);
+                        }
+                        return stage.call();
+                    } finally {
+                        synchronized (this) {
+                            stageThreads.remove(current);
+                        }
+                        // Прерывание от stop() не должно достаться следующей задаче потока пула
+                        Thread.interrupted();
+                        finished.countDown();
+                    }
+                });
+            } catch (RuntimeException e) {
+                finished.countDown();
+                throw e;
+            }
+        }
+
+        /**
+         * Завершает обработку файла: прерывает стадии и ожидает их завершения,
+         * чтобы после возврата источник больше не читался
+         */
+        private void stop() {
+            synchronized (this) {
+                closed = true;
+                stageThreads.forEach(Thread::interrupt);
+            }
+            // Стадии, до запуска которых дело не дошло, ожидать не нужно
+            for (; launched < STAGES; launched++) {
+                finished.countDown();
+            }
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    finished.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Стадия чтения: читает содержимое блоками в очередь прочитанных блоков
+         */
+        private void read() {
+            try {
+                byte[] chunk;
+                do {
+                    long start = System.nanoTime();
+                    chunk = source.readNBytes(readChunkSize);
+                    recordStage(READ, start);
+                    if (chunk.length > 0) {
+                        put(chunks, chunk, READ);
+                    }
+                } while (chunk.length == readChunkSize);
+            } catch (InterruptedException e) {
+                // Обработка файла завершена или прервана
+                return;
+            } catch (IOException | RuntimeException e) {
+                readFailure = e;
+            }
+            try {
+                put(chunks, END_OF_DATA, READ);
+            } catch (InterruptedException e) {
+                // Разбор уже завершен
+            }
+        }
+
+        /**
+         * Стадия разбора: разбирает прочитанные блоки и передает записи пачками в очередь пачек.
+         * Признак окончания записей передается и при ошибке разбора, а сама ошибка - через результат задачи
+         */
+        private ParseSummary parse(Charset charset) throws IOException, InterruptedException {
+            Batcher batcher = new Batcher();
+            try {
+                ParseSummary summary = delegate.parseStream(new ReadAheadStream(), charset, batcher);
+                batcher.flush();
+                return summary;
+            } finally {
+                put(batches, endOfRecords, PARSE);
+            }
+        }
+
+        /**
+         * Стадия отправки: передает записи получателю в вызывающем потоке до признака окончания записей
+         */
+        private void deliver(Consumer<? super T> consumer) throws IOException {
+            while (true) {
+                long waitStart = System.nanoTime();
+                List<T> batch = take(batches);
+                recordBlocked(PUBLISH, waitStart);
+                if (batch == endOfRecords) {
+                    return;
+                }
+                long start = System.nanoTime();
+                batch.forEach(consumer);
+                recordStage(PUBLISH, start);
+            }
+        }
+
+        /**
+         * Помещает элемент в очередь, ожидая места. Ожидание прекращается при завершении обработки файла,
+         * даже если прерывание потока уже было поглощено чтением источника
+         */
+        private <E> void put(BlockingQueue<E> queue, E element, String stage) throws InterruptedException {
+            if (queue.offer(element)) {
+                return;
+            }
+            long start = System.nanoTime();
+            while (!queue.offer(element, CLOSE_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    throw new InterruptedException("Обработка файла завершена");
+                }
+            }
+            recordBlocked(stage, start);
+        }
+
+        private <E> E take(BlockingQueue<E> queue) throws InterruptedIOException {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Конвейерная обработка прервана");
+            }
+        }
+
+        /**
+         * Собирает записи в пачки и передает заполненные пачки в очередь
+         */
+        private final class Batcher implements Consumer<T> {
+
+            private List<T> batch = new ArrayList<>(batchRecords);
+            private long start = System.nanoTime();
+
+            @Override
+            public void accept(T rec) {
+                batch.add(rec);
+                if (batch.size() == batchRecords) {
+                    flush();
+                }
+            }
+
+            private void flush() {
+                if (batch.isEmpty()) {
+                    return;
+                }
+                recordStage(PARSE, start);
+                try {
+                    put(batches, batch, PARSE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException("Конвейерная обработка прервана"));
+                }
+                batch = new ArrayList<>(batchRecords);
+                start = System.nanoTime();
+            }
+        }
+
+        /**
+         * Содержимое файла из очереди прочитанных блоков
+         */
+        private final class ReadAheadStream extends InputStream {
+
+            private byte[] current = END_OF_DATA;
+            private int position;
+            private boolean eof;
+
+            @Override
+            public int read() throws IOException {
+                byte[] single = new byte[1];
+                return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                Objects.checkFromIndexSize(offset, length, buffer.length);
+                if (length == 0) {
+                    return 0;
+                }
+                if (position == current.length) {
+                    if (eof) {
+                        return -1;
+                    }
+                    byte[] next = take(chunks);
+                    if (next == END_OF_DATA) {
+                        eof = true;
+                        rethrowReadFailure();
+                        return -1;
+                    }
+                    current = next;
+                    position = 0;
+                }
+                int count = Math.min(length, current.length - position);
+                System.arraycopy(current, position, buffer, offset, count);
+                position += count;
+                return count;
+            }
+
+            private void rethrowReadFailure() throws IOException {
+                Throwable failure = readFailure;
+                if (failure instanceof IOException ioException) {
+                    throw ioException;
+                }
+                if (failure instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+            }
+        }
+    }
+}
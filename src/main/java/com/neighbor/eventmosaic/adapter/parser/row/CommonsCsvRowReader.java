@@ -0,0 +1,123 @@
+package com.neighbor.eventmosaic.adapter.parser.row;
+
+import com.neighbor.eventmosaic.adapter.util.CsvParserUtil;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+
+/**
+ * Читатель CSV на базе Apache Commons CSV.
+ * Поддерживает кавычки и экранирование, но создает CSVRecord
+ * и строку для каждого поля.
+ */
+public class CommonsCsvRowReader implements CsvRowReader {
+
+    private final Iterator<CSVRecord> records;
+    private final RecordRow row = new RecordRow();
+
+    public CommonsCsvRowReader(InputStream stream, Charset charset) throws IOException {
+        this.records = CSVFormat.DEFAULT
+                .builder()
+                .setDelimiter('\t')         // Разделитель - табуляция
+                .setSkipHeaderRecord(false) // Пропуск заголовка (если есть)
+                .setTrim(true)              // Удаление пробелов в начале и конце строки
+                .setIgnoreEmptyLines(true)  // Игнорирование пустых строк
+                .get()
+                .parse(new InputStreamReader(stream, charset))
+                .iterator();
+    }
+
+    @Override
+    public void setStatistics(ParseStatistics statistics) {
+        row.statistics = statistics;
+    }
+
+    @Override
+    public CsvRow nextRow() {
+        if (!records.hasNext()) {
+            return null;
+        }
+        row.csvRecord = records.next();
+        return row;
+    }
+
+    /**
+     * Адаптер CSVRecord к интерфейсу CsvRow
+     */
+    private static final class RecordRow implements CsvRow {
+
+        private CSVRecord csvRecord;
+        private ParseStatistics statistics = new ParseStatistics(CommonsCsvRowReader.class.getSimpleName(), 0);
+
+        @Override
+        public int size() {
+            return csvRecord.size();
+        }
+
+        @Override
+        public String getString(int index) {
+            if (index >= csvRecord.size()) {
+                statistics.missing(index);
+                return null;
+            }
+            String value = csvRecord.get(index);
+            if (value.isEmpty()) {
+                statistics.empty(index);
+                return null;
+            }
+            return value;
+        }
+
+        @Override
+        public Long getLong(int index) {
+            String value = getString(index);
+            if (value == null) {
+                return null;
+            }
+            long result = CsvParserUtil.parseLong(value, 0, value.length());
+            if (result == CsvParserUtil.ABSENT_LONG) {
+                statistics.malformed(index, this);
+                return null;
+            }
+            return result;
+        }
+
+        @Override
+        public Integer getInteger(int index) {
+            String value = getString(index);
+            if (value == null) {
+                return null;
+            }
+            int result = CsvParserUtil.parseInt(value, 0, value.length());
+            if (result == CsvParserUtil.ABSENT_INT) {
+                statistics.malformed(index, this);
+                return null;
+            }
+            return result;
+        }
+
+        @Override
+        public Double getDouble(int index) {
+            String value = getString(index);
+            if (value == null) {
+                return null;
+            }
+            double result = CsvParserUtil.parseDouble(value, 0, value.length());
+            if (Double.isNaN(result)) {
+                statistics.malformed(index, this);
+                return null;
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return csvRecord.toString();
+        }
+    }
+}
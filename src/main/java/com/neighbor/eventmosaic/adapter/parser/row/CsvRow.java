@@ -0,0 +1,58 @@
+package com.neighbor.eventmosaic.adapter.parser.row;
+
+/**
+ * Текущая строка CSV-файла с типизированным доступом к полям по индексу.
+ * Экземпляр может переиспользоваться читателем, поэтому значения
+ * должны извлекаться до перехода к следующей строке.
+ */
+public interface CsvRow {
+
+    /**
+     * Возвращает количество полей в строке
+     */
+    int size();
+
+    /**
+     * Безопасно получает строковое значение поля
+     *
+     * @param index индекс колонки
+     * @return значение или null, если индекс выходит за пределы строки или поле пустое
+     */
+    String getString(int index);
+
+    /**
+     * Получает строковое значение поля через кеш строк.
+     * Движок, которому кеш не дает выигрыша, возвращает обычное значение.
+     *
+     * @param index       индекс колонки
+     * @param stringCache кеш строк парсера
+     * @return значение или null, если индекс выходит за пределы строки или поле пустое
+     */
+    default String getString(int index, StringCache stringCache) {
+        return getString(index);
+    }
+
+    /**
+     * Безопасно получает и преобразует значение поля в Long
+     *
+     * @param index индекс колонки
+     * @return значение или null, если поле отсутствует, пустое или некорректное
+     */
+    Long getLong(int index);
+
+    /**
+     * Безопасно получает и преобразует значение поля в Integer
+     *
+     * @param index индекс колонки
+     * @return значение или null, если поле отсутствует, пустое или некорректное
+     */
+    Integer getInteger(int index);
+
+    /**
+     * Безопасно получает и преобразует значение поля в Double
+     *
+     * @param index индекс колонки
+     * @return значение или null, если поле отсутствует, пустое или некорректное
+     */
+    Double getDouble(int index);
+}
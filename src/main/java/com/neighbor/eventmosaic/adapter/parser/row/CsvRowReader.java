@@ -0,0 +1,25 @@
+package com.neighbor.eventmosaic.adapter.parser.row;
+
+import java.io.IOException;
+
+/**
+ * Построчный читатель CSV-данных
+ */
+public interface CsvRowReader {
+
+    /**
+     * Переходит к следующей непустой строке
+     *
+     * @return текущая строка или null, если данные закончились
+     * @throws IOException если возникает ошибка при чтении данных
+     */
+    CsvRow nextRow() throws IOException;
+
+    /**
+     * Задает счетчики качества разбора, в которые читатель учитывает пустые,
+     * отсутствующие и некорректные значения
+     *
+     * @param statistics счетчики текущего файла
+     */
+    void setStatistics(ParseStatistics statistics);
+}
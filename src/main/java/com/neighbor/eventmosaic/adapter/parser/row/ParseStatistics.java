@@ -0,0 +1,158 @@
+package com.neighbor.eventmosaic.adapter.parser.row;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Счетчики качества разбора одного файла.
+ * <p>
+ * На горячем пути только увеличиваются элементы массивов по индексу колонки, без форматирования
+ * и логирования. Подробная диагностика (строка, колонка, значение) пишется структурированным
+ * логом только для первых {@code sampleLimit} проблем файла.
+ * <p>
+ * Экземпляр не потокобезопасен и используется одним парсером в течение разбора одного файла.
+ */
+@Slf4j
+public class ParseStatistics {
+
+    private static final int INITIAL_COLUMNS = 64;
+
+    private final String parserName;
+    private final int sampleLimit;
+
+    private IntFunction<String> columnNames = column -> "column" + column;
+    private long rows;
+    private long skippedRecords;
+    private int samples;
+    private long[] empty = new long[INITIAL_COLUMNS];
+    private long[] missing = new long[INITIAL_COLUMNS];
+    private long[] malformed = new long[INITIAL_COLUMNS];
+
+    /**
+     * @param parserName  имя парсера для диагностики
+     * @param sampleLimit максимальное количество диагностических сообщений на файл
+     */
+    public ParseStatistics(String parserName, int sampleLimit) {
+        this.parserName = parserName;
+        this.sampleLimit = sampleLimit;
+    }
+
+    /**
+     * Задает имена колонок для диагностики и итогов разбора
+     */
+    public void setColumnNames(IntFunction<String> columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    /**
+     * Учитывает прочитанную строку
+     */
+    public void row() {
+        rows++;
+    }
+
+    /**
+     * Учитывает пустое значение колонки
+     */
+    public void empty(int column) {
+        ensureCapacity(column);
+        empty[column]++;
+    }
+
+    /**
+     * Учитывает колонку, отсутствующую в короткой строке
+     */
+    public void missing(int column) {
+        ensureCapacity(column);
+        missing[column]++;
+    }
+
+    /**
+     * Учитывает некорректное значение колонки
+     *
+     * @param column индекс колонки
+     * @param row    строка, из которой значение извлекается для диагностики только при необходимости
+     */
+    public void malformed(int column, CsvRow row) {
+        ensureCapacity(column);
+        malformed[column]++;
+        if (samples < sampleLimit) {
+            samples++;
+            log.warn("Некорректное значение в CSV-файле: {} {} {} {}",
+                    kv("parser", parserName),
+                    kv("line", rows),
+                    kv("column", columnNames.apply(column)),
+                    kv("value", row.getString(column)));
+        }
+    }
+
+    /**
+     * Учитывает запись, пропущенную из-за отсутствия ключа
+     *
+     * @param row строка, текст которой выводится в диагностику только при необходимости
+     */
+    public void skippedRecord(CsvRow row) {
+        skippedRecords++;
+        if (samples < sampleLimit) {
+            samples++;
+            log.warn("Пропускаем запись с пустым GlobalEventId: {} {} {}",
+                    kv("parser", parserName),
+                    kv("line", rows),
+                    kv("row", row.toString()));
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getSkippedRecords() {
+        return skippedRecords;
+    }
+
+    /**
+     * Возвращает количество пустых значений по именам полей
+     */
+    public Map<String, Long> getEmptyValues() {
+        return byName(empty);
+    }
+
+    /**
+     * Возвращает количество отсутствующих значений по именам полей
+     */
+    public Map<String, Long> getMissingValues() {
+        return byName(missing);
+    }
+
+    /**
+     * Возвращает количество некорректных значений по именам полей
+     */
+    public Map<String, Long> getMalformedValues() {
+        return byName(malformed);
+    }
+
+    private Map<String, Long> byName(long[] counts) {
+        Map<String, Long> result = new TreeMap<>();
+        for (int column = 0; column < counts.length; column++) {
+            if (counts[column] > 0) {
+                result.put(columnNames.apply(column), counts[column]);
+            }
+        }
+        return result;
+    }
+
+    private void ensureCapacity(int column) {
+        if (column >= empty.length) {
+            int length = Math.max(column + 1, empty.length * 2);
+            empty = Arrays.copyOf(empty, length);
+            missing = Arrays.copyOf(missing, length);
+            malformed = Arrays.copyOf(malformed, length);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.neighbor.eventmosaic.adapter.parser.row;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный кеш строк для колонок с небольшим числом различных значений
+ * (коды стран, типов акторов, событий, имена источников).
+ * <p>
+ * Поиск выполняется по исходным байтам поля и не создает объектов: строка
+ * декодируется только при промахе. Кеш устроен как таблица с прямым отображением:
+ * значение занимает слот по хешу своих байтов и вытесняет предыдущее значение этого слота,
+ * поэтому размер кеша не превышает заданной емкости на любых входных данных.
+ * <p>
+ * Кеш потокобезопасен без блокировок: слоты содержат неизменяемые записи,
+ * а гонка при записи приводит лишь к лишнему промаху.
+ */
+public class StringCache {
+
+    /**
+     * Значения длиннее этого порога (URL, полные названия) не кешируются
+     */
+    private static final int MAX_VALUE_LENGTH = 64;
+
+    private final Entry[] slots;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * @param capacity максимальное количество строк (округляется вверх до степени двойки);
+     *                 0 отключает кеширование
+     */
+    public StringCache(int capacity) {
+        int slotCount = capacity > 0
+                ? Integer.highestOneBit(Math.max(1, capacity - 1)) << 1
+                : 0;
+        this.slots = new Entry[slotCount];
+        this.mask = slotCount - 1;
+    }
+
+    /**
+     * Проверяет, включено ли кеширование
+     */
+    public boolean isEnabled() {
+        return slots.length > 0;
+    }
+
+    /**
+     * Возвращает каноническую строку для диапазона байтов
+     *
+     * @param bytes   буфер
+     * @param start   начало диапазона (включительно)
+     * @param end     конец диапазона (не включительно)
+     * @param charset кодировка байтов
+     * @return строка из кеша или новая строка при промахе
+     */
+    public String get(byte[] bytes, int start, int end, Charset charset) {
+        int length = end - start;
+        if (length > MAX_VALUE_LENGTH || slots.length == 0) {
+            return new String(bytes, start, length, charset);
+        }
+
+        int hash = hash(bytes, start, end);
+        int slot = hash & mask;
+        Entry entry = slots[slot];
+        if (entry != null && entry.hash == hash
+                && Arrays.equals(entry.bytes, 0, entry.bytes.length, bytes, start, end)) {
+            hits.increment();
+            return entry.value;
+        }
+
+        misses.increment();
+        String value = new String(bytes, start, length, charset);
+        slots[slot] = new Entry(hash, Arrays.copyOfRange(bytes, start, end), value);
+        if (entry == null) {
+            size.incrementAndGet();
+        } else {
+            evictions.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Регистрирует метрики кеша: количество попаданий и промахов, вытеснения, размер и долю попаданий
+     *
+     * @param registry реестр метрик
+     * @param tags     теги, идентифицирующие кеш
+     */
+    public void bindTo(MeterRegistry registry, Tags tags) {
+        FunctionCounter.builder("adapter.parser.string.cache.requests", hits, LongAdder::sum)
+                .description("Запросы к кешу строк парсера")
+                .tags(tags).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("adapter.parser.string.cache.requests", misses, LongAdder::sum)
+                .description("Запросы к кешу строк парсера")
+                .tags(tags).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("adapter.parser.string.cache.evictions", evictions, LongAdder::sum)
+                .description("Вытеснения значений из кеша строк парсера")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("adapter.parser.string.cache.size", size, AtomicInteger::get)
+                .description("Количество строк в кеше парсера")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("adapter.parser.string.cache.hit.ratio", this, StringCache::hitRatio)
+                .description("Доля попаданий в кеш строк парсера")
+                .tags(tags)
+                .register(registry);
+    }
+
+    /**
+     * Возвращает долю попаданий с момента запуска
+     */
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private static int hash(byte[] bytes, int start, int end) {
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private record Entry(int hash, byte[] bytes, String value) {
+    }
+}
@@ -0,0 +1,278 @@
+package com.neighbor.eventmosaic.adapter.parser.row;
+
+import com.neighbor.eventmosaic.adapter.util.CsvParserUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Байтовый токенизатор файлов с разделителем-табуляцией (формат выгрузок GDELT).
+ * <p>
+ * Читает поток в переиспользуемый буфер, находит границы строк и полей по байтам
+ * {@code \n} и {@code \t} и хранит только смещения полей. Строки создаются лишь
+ * для строковых колонок, числа разбираются напрямую из байтов
+ * примитивными методами {@link CsvParserUtil}.
+ * Значения кешируемых колонок берутся из {@link StringCache} без создания строки.
+ * Кавычки не обрабатываются: выгрузки GDELT их не используют.
+ * <p>
+ * Сам читатель является текущей строкой: объект, возвращаемый {@link #nextRow()},
+ * меняется при каждом вызове. Экземпляр не потокобезопасен.
+ */
+public class TsvRowReader implements CsvRowReader, CsvRow {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_FIELD_CAPACITY = 64;
+
+    private final InputStream stream;
+    private final Charset charset;
+
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private int searchFrom;
+    private boolean eof;
+
+    private int columnLimit = Integer.MAX_VALUE;
+    private ParseStatistics statistics = new ParseStatistics(TsvRowReader.class.getSimpleName(), 0);
+
+    private int rowStart;
+    private int rowEnd;
+    private int fieldCount;
+    private int[] fieldStarts = new int[INITIAL_FIELD_CAPACITY];
+    private int[] fieldEnds = new int[INITIAL_FIELD_CAPACITY];
+
+    public TsvRowReader(InputStream stream, Charset charset) {
+        this(stream, charset, DEFAULT_BUFFER_SIZE);
+    }
+
+    public TsvRowReader(InputStream stream, Charset charset, int bufferSize) {
+        this.stream = stream;
+        this.charset = charset;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Ограничивает количество колонок, границы которых запоминаются.
+     * Для колонок после лимита только подсчитываются разделители,
+     * поэтому {@link #size()} по-прежнему возвращает полное количество полей.
+     *
+     * @param columnLimit количество первых колонок, доступных для чтения
+     */
+    public void setColumnLimit(int columnLimit) {
+        this.columnLimit = columnLimit;
+    }
+
+    @Override
+    public void setStatistics(ParseStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public CsvRow nextRow() throws IOException {
+        while (true) {
+            int lineEnd = indexOfLineEnd();
+            if (lineEnd < 0) {
+                if (!eof) {
+                    fill();
+                    continue;
+                }
+                if (position >= limit) {
+                    return null;
+                }
+                lineEnd = limit;
+            }
+
+            int start = position;
+            int end = lineEnd;
+            position = Math.min(lineEnd + 1, limit);
+            searchFrom = position;
+
+            if (end > start && buffer[end - 1] == '\r') {
+                end--;
+            }
+            if (end == start) {
+                continue; // Игнорирование пустых строк
+            }
+
+            tokenize(start, end);
+            return this;
+        }
+    }
+
+    @Override
+    public int size() {
+        return fieldCount;
+    }
+
+    @Override
+    public String getString(int index) {
+        if (isAbsent(index)) {
+            return null;
+        }
+        int start = fieldStarts[index];
+        return new String(buffer, start, fieldEnds[index] - start, charset);
+    }
+
+    @Override
+    public String getString(int index, StringCache stringCache) {
+        if (isAbsent(index)) {
+            return null;
+        }
+        return stringCache.get(buffer, fieldStarts[index], fieldEnds[index], charset);
+    }
+
+    @Override
+    public Long getLong(int index) {
+        if (isAbsent(index)) {
+            return null;
+        }
+        long value = CsvParserUtil.parseLong(buffer, fieldStarts[index], fieldEnds[index]);
+        if (value == CsvParserUtil.ABSENT_LONG) {
+            statistics.malformed(index, this);
+            return null;
+        }
+        return value;
+    }
+
+    @Override
+    public Integer getInteger(int index) {
+        if (isAbsent(index)) {
+            return null;
+        }
+        int value = CsvParserUtil.parseInt(buffer, fieldStarts[index], fieldEnds[index]);
+        if (value == CsvParserUtil.ABSENT_INT) {
+            statistics.malformed(index, this);
+            return null;
+        }
+        return value;
+    }
+
+    @Override
+    public Double getDouble(int index) {
+        if (isAbsent(index)) {
+            return null;
+        }
+        double value = CsvParserUtil.parseDouble(buffer, fieldStarts[index], fieldEnds[index]);
+        if (Double.isNaN(value)) {
+            statistics.malformed(index, this);
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * Возвращает исходный текст текущей строки.
+     * Используется только для диагностики, так как создает строку.
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, rowStart, rowEnd - rowStart, charset);
+    }
+
+    /**
+     * Проверяет, отсутствует ли значение колонки, и учитывает пустые и отсутствующие значения
+     */
+    private boolean isAbsent(int index) {
+        if (index >= fieldCount) {
+            statistics.missing(index);
+            return true;
+        }
+        if (index >= columnLimit) {
+            return true;
+        }
+        if (fieldStarts[index] == fieldEnds[index]) {
+            statistics.empty(index);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ищет конец строки, продолжая с места, где остановился предыдущий поиск
+     */
+    private int indexOfLineEnd() {
+        for (int i = searchFrom; i < limit; i++) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        searchFrom = limit;
+        return -1;
+    }
+
+    /**
+     * Сдвигает непрочитанный остаток в начало буфера и дочитывает данные из потока.
+     * Буфер увеличивается, только если в него не помещается одна строка.
+     */
+    private void fill() throws IOException {
+        if (position > 0) {
+            int remaining = limit - position;
+            System.arraycopy(buffer, position, buffer, 0, remaining);
+            searchFrom -= position;
+            limit = remaining;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = stream.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            eof = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    /**
+     * Запоминает границы полей строки, удаляя пробелы в начале и конце каждого поля
+     */
+    private void tokenize(int start, int end) {
+        rowStart = start;
+        rowEnd = end;
+        fieldCount = 0;
+
+        int fieldStart = start;
+        int i = start;
+        for (; i < end && fieldCount < columnLimit; i++) {
+            if (buffer[i] == '\t') {
+                addField(fieldStart, i);
+                fieldStart = i + 1;
+            }
+        }
+        if (fieldCount < columnLimit) {
+            addField(fieldStart, end);
+            return;
+        }
+
+        // Колонки за пределами лимита только подсчитываются
+        int skipped = 1;
+        for (; i < end; i++) {
+            if (buffer[i] == '\t') {
+                skipped++;
+            }
+        }
+        fieldCount += skipped;
+    }
+
+    private void addField(int start, int end) {
+        while (start < end && isWhitespace(buffer[start])) {
+            start++;
+        }
+        while (end > start && isWhitespace(buffer[end - 1])) {
+            end--;
+        }
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = start;
+        fieldEnds[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return (b & 0xFF) <= ' ';
+    }
+}
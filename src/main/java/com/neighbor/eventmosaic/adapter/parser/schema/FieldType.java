@@ -0,0 +1,39 @@
+package com.neighbor.eventmosaic.adapter.parser.schema;
+
+import com.neighbor.eventmosaic.adapter.parser.row.CsvRow;
+
+/**
+ * Тип значения поля записи GDELT
+ */
+public enum FieldType {
+
+    STRING(String.class, "getString"),
+
+    LONG(Long.class, "getLong"),
+
+    INTEGER(Integer.class, "getInteger"),
+
+    DOUBLE(Double.class, "getDouble");
+
+    private final Class<?> javaType;
+    private final String rowAccessor;
+
+    FieldType(Class<?> javaType, String rowAccessor) {
+        this.javaType = javaType;
+        this.rowAccessor = rowAccessor;
+    }
+
+    /**
+     * Возвращает тип свойства DTO
+     */
+    public Class<?> getJavaType() {
+        return javaType;
+    }
+
+    /**
+     * Возвращает имя метода {@link CsvRow}, которым читается значение
+     */
+    String getRowAccessor() {
+        return rowAccessor;
+    }
+}
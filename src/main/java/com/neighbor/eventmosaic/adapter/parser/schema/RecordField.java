@@ -0,0 +1,22 @@
+package com.neighbor.eventmosaic.adapter.parser.schema;
+
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+/**
+ * Описание поля записи: имя свойства DTO, тип значения и методы доступа.
+ * Геттер задается ссылкой на метод, сеттер находится по имени свойства при построении схемы.
+ *
+ * @param name   имя свойства DTO (совпадает с именем поля в JSON)
+ * @param type   тип значения
+ * @param getter метод чтения значения
+ * @param setter метод записи значения
+ * @param cached брать ли строковые значения из кеша строк парсера
+ * @param <T>    тип записи
+ */
+public record RecordField<T>(String name,
+                             FieldType type,
+                             Function<T, ?> getter,
+                             Method setter,
+                             boolean cached) {
+}
@@ -0,0 +1,68 @@
+package com.neighbor.eventmosaic.adapter.parser.schema;
+
+import com.neighbor.eventmosaic.adapter.parser.row.CsvRow;
+
+/**
+ * Скомпилированная раскладка колонок для файла с определенным количеством колонок.
+ * Заполняет только поля, вошедшие в проекцию.
+ *
+ * @param <T> тип записи
+ */
+public final class RecordLayout<T> {
+
+    private final String name;
+    private final int columnCount;
+    private final int columnLimit;
+    private final String[] fieldNames;
+    private final RowMapper<T> mapper;
+
+    RecordLayout(String name, int columnCount, int columnLimit, String[] fieldNames, RowMapper<T> mapper) {
+        this.name = name;
+        this.columnCount = columnCount;
+        this.columnLimit = columnLimit;
+        this.fieldNames = fieldNames;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Создает запись из строки CSV
+     */
+    public T read(CsvRow row) {
+        return mapper.read(row);
+    }
+
+    /**
+     * Возвращает название раскладки (например, версию формата GDELT)
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Возвращает имя поля колонки или условное имя для колонки без поля
+     */
+    public String getFieldName(int column) {
+        return column < fieldNames.length
+                ? fieldNames[column]
+                : "column" + column;
+    }
+
+    /**
+     * Возвращает количество колонок в строке файла с этой раскладкой
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Возвращает количество первых колонок, которые нужно токенизировать для заполнения полей проекции
+     */
+    public int getColumnLimit() {
+        return columnLimit;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + columnCount + " колонок)";
+    }
+}
@@ -0,0 +1,50 @@
+package com.neighbor.eventmosaic.adapter.parser.schema;
+
+import java.util.List;
+
+/**
+ * Скомпилированная схема записи: набор раскладок колонок, из которых
+ * для каждого файла выбирается одна по количеству колонок первой строки.
+ *
+ * @param <T> тип записи
+ */
+public final class RecordMapping<T> {
+
+    private final List<RecordLayout<T>> layouts;
+
+    RecordMapping(List<RecordLayout<T>> layouts) {
+        this.layouts = layouts;
+    }
+
+    /**
+     * Возвращает раскладку для файла с указанным количеством колонок
+     *
+     * @param columnCount количество колонок в первой строке файла
+     * @return раскладка с таким количеством колонок или раскладка по умолчанию, если совпадений нет
+     */
+    public RecordLayout<T> layoutFor(int columnCount) {
+        for (RecordLayout<T> layout : layouts) {
+            if (layout.getColumnCount() == columnCount) {
+                return layout;
+            }
+        }
+        return getDefaultLayout();
+    }
+
+    /**
+     * Возвращает раскладку по умолчанию (первую объявленную в схеме)
+     */
+    public RecordLayout<T> getDefaultLayout() {
+        return layouts.getFirst();
+    }
+
+    /**
+     * Возвращает наибольшее количество колонок, которые нужно токенизировать в любой из раскладок
+     */
+    public int getColumnLimit() {
+        return layouts.stream()
+                .mapToInt(RecordLayout::getColumnLimit)
+                .max()
+                .orElse(0);
+    }
+}
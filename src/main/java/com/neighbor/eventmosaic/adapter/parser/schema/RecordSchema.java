@@ -0,0 +1,223 @@
+package com.neighbor.eventmosaic.adapter.parser.schema;
+
+import com.neighbor.eventmosaic.adapter.parser.row.StringCache;
+import com.neighbor.eventmosaic.adapter.parser.schema.RowMapperGenerator.ColumnField;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Декларативная схема записи GDELT: поля DTO с типами и методами доступа
+ * и раскладки колонок для разных версий формата файла.
+ * <p>
+ * Раскладка - это порядок полей в колонках файла, она выбирается по количеству колонок
+ * (например, 61 колонка для событий GDELT 2.0 и 57/58 для GDELT 1.0).
+ * Схема описывается один раз и компилируется парсером при старте в {@link RecordMapping}:
+ * для каждой раскладки генерируется код с прямыми вызовами сеттеров, без рефлексии при разборе.
+ *
+ * @param <T> тип записи
+ */
+public final class RecordSchema<T> {
+
+    private final Class<T> recordType;
+    private final Map<String, RecordField<T>> fields;
+    private final List<LayoutDefinition> layouts;
+
+    private RecordSchema(Class<T> recordType, Map<String, RecordField<T>> fields, List<LayoutDefinition> layouts) {
+        this.recordType = recordType;
+        this.fields = fields;
+        this.layouts = layouts;
+    }
+
+    /**
+     * Создает построитель схемы
+     *
+     * @param recordType класс записи с публичным конструктором без аргументов и сеттерами свойств
+     */
+    public static <T> Builder<T> builder(Class<T> recordType) {
+        return new Builder<>(recordType);
+    }
+
+    /**
+     * Возвращает класс записи
+     */
+    public Class<T> getRecordType() {
+        return recordType;
+    }
+
+    /**
+     * Возвращает поля схемы в порядке объявления
+     */
+    public Collection<RecordField<T>> getFields() {
+        return fields.values();
+    }
+
+    /**
+     * Возвращает поле по имени или null, если такого поля нет
+     */
+    public RecordField<T> getField(String name) {
+        return fields.get(name);
+    }
+
+    /**
+     * Компилирует схему для парсера
+     *
+     * @param keptFields     поля проекции; пустой список означает все поля
+     * @param stringCache    кеш строк для полей, отмеченных как кешируемые
+     * @param requiredFields поля, которые разбираются всегда (например, ключ сообщения)
+     * @return скомпилированные раскладки колонок
+     * @throws IllegalArgumentException если в проекции указано неизвестное поле
+     */
+    public RecordMapping<T> compile(Collection<String> keptFields, StringCache stringCache, String... requiredFields) {
+        Set<String> kept = resolveProjection(keptFields, requiredFields);
+
+        List<RecordLayout<T>> compiled = new ArrayList<>(layouts.size());
+        for (LayoutDefinition layout : layouts) {
+            compiled.add(compileLayout(layout, kept, stringCache));
+        }
+        return new RecordMapping<>(compiled);
+    }
+
+    /**
+     * Возвращает множество разбираемых полей или null, если разбираются все поля
+     */
+    private Set<String> resolveProjection(Collection<String> keptFields, String... requiredFields) {
+        if (keptFields == null || keptFields.isEmpty()) {
+            return null;
+        }
+
+        Set<String> kept = new LinkedHashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String field : keptFields) {
+            String name = field.trim();
+            if (fields.containsKey(name)) {
+                kept.add(name);
+            } else {
+                unknown.add(field);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Неизвестные поля в проекции: " + unknown
+                    + ". Допустимые поля: " + fields.keySet());
+        }
+        kept.addAll(Arrays.asList(requiredFields));
+        return kept;
+    }
+
+    private RecordLayout<T> compileLayout(LayoutDefinition layout, Set<String> kept, StringCache stringCache) {
+        List<ColumnField<T>> columns = new ArrayList<>();
+        int columnLimit = 0;
+        for (int column = 0; column < layout.fieldNames().length; column++) {
+            String name = layout.fieldNames()[column];
+            if (kept != null && !kept.contains(name)) {
+                continue;
+            }
+            columns.add(new ColumnField<>(column, fields.get(name)));
+            columnLimit = column + 1;
+        }
+        StringCache cache = stringCache != null && stringCache.isEnabled() ? stringCache : null;
+        return new RecordLayout<>(layout.name(), layout.columnCount(), columnLimit, layout.fieldNames(),
+                RowMapperGenerator.generate(recordType, columns, cache));
+    }
+
+    /**
+     * Порядок полей в колонках файла
+     *
+     * @param name        название раскладки
+     * @param columnCount количество колонок в строке файла
+     * @param fieldNames  имена полей по колонкам; колонки после последнего поля не разбираются
+     */
+    private record LayoutDefinition(String name, int columnCount, String[] fieldNames) {
+    }
+
+    /**
+     * Построитель схемы записи
+     */
+    public static final class Builder<T> {
+
+        private final Class<T> recordType;
+        private final Map<String, RecordField<T>> fields = new LinkedHashMap<>();
+        private final List<LayoutDefinition> layouts = new ArrayList<>();
+
+        private Builder(Class<T> recordType) {
+            this.recordType = recordType;
+        }
+
+        public Builder<T> stringField(String name, Function<T, String> getter) {
+            return field(name, FieldType.STRING, getter, false);
+        }
+
+        /**
+         * Строковое поле с небольшим числом различных значений, значения которого берутся из кеша строк
+         */
+        public Builder<T> cachedStringField(String name, Function<T, String> getter) {
+            return field(name, FieldType.STRING, getter, true);
+        }
+
+        public Builder<T> longField(String name, Function<T, Long> getter) {
+            return field(name, FieldType.LONG, getter, false);
+        }
+
+        public Builder<T> integerField(String name, Function<T, Integer> getter) {
+            return field(name, FieldType.INTEGER, getter, false);
+        }
+
+        public Builder<T> doubleField(String name, Function<T, Double> getter) {
+            return field(name, FieldType.DOUBLE, getter, false);
+        }
+
+        /**
+         * Добавляет раскладку колонок. Первая добавленная раскладка используется по умолчанию,
+         * если количество колонок файла не совпадает ни с одной раскладкой.
+         *
+         * @param name        название раскладки
+         * @param columnCount количество колонок в строке файла
+         * @param fieldNames  имена полей в порядке колонок
+         */
+        public Builder<T> layout(String name, int columnCount, String... fieldNames) {
+            if (fieldNames.length > columnCount) {
+                throw new IllegalArgumentException("Раскладка " + name + " содержит больше полей, чем колонок");
+            }
+            List<String> unknown = Arrays.stream(fieldNames).filter(field -> !fields.containsKey(field)).toList();
+            if (!unknown.isEmpty()) {
+                throw new IllegalArgumentException("Раскладка " + name + " содержит неизвестные поля: " + unknown);
+            }
+            layouts.add(new LayoutDefinition(name, columnCount, fieldNames.clone()));
+            return this;
+        }
+
+        public RecordSchema<T> build() {
+            if (layouts.isEmpty()) {
+                throw new IllegalStateException("Схема записи должна содержать хотя бы одну раскладку колонок");
+            }
+            return new RecordSchema<>(recordType, Collections.unmodifiableMap(fields), List.copyOf(layouts));
+        }
+
+        private Builder<T> field(String name, FieldType type, Function<T, ?> getter, boolean cached) {
+            RecordField<T> field = new RecordField<>(name, type, getter, findSetter(name, type), cached);
+            if (fields.putIfAbsent(name, field) != null) {
+                throw new IllegalArgumentException("Поле " + name + " уже объявлено в схеме");
+            }
+            return this;
+        }
+
+        private Method findSetter(String name, FieldType type) {
+            String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            try {
+                return recordType.getMethod(setterName, type.getJavaType());
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("Класс " + recordType.getName() + " не содержит метод "
+                        + setterName + "(" + type.getJavaType().getSimpleName() + ")", e);
+            }
+        }
+    }
+}
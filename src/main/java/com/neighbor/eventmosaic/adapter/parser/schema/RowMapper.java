@@ -0,0 +1,17 @@
+package com.neighbor.eventmosaic.adapter.parser.schema;
+
+import com.neighbor.eventmosaic.adapter.parser.row.CsvRow;
+
+/**
+ * Преобразование строки CSV в запись по раскладке колонок.
+ * Реализации генерируются {@link RowMapperGenerator} для каждой раскладки.
+ *
+ * @param <T> тип записи
+ */
+public interface RowMapper<T> {
+
+    /**
+     * Создает запись из строки CSV
+     */
+    T read(CsvRow row);
+}
@@ -0,0 +1,131 @@
+package com.neighbor.eventmosaic.adapter.parser.schema;
+
+import com.neighbor.eventmosaic.adapter.parser.row.CsvRow;
+import com.neighbor.eventmosaic.adapter.parser.row.StringCache;
+import lombok.experimental.UtilityClass;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Генератор {@link RowMapper} для раскладки колонок.
+ * <p>
+ * Для каждой раскладки создается скрытый класс, метод {@code read} которого содержит
+ * прямую последовательность вызовов {@code target.setX(row.getY(column))}, как в написанном вручную парсере.
+ * Такой код не содержит полиморфных вызовов через функциональные интерфейсы
+ * и полностью встраивается JIT-компилятором.
+ */
+@UtilityClass
+class RowMapperGenerator {
+
+    private static final String ROW = Type.getInternalName(CsvRow.class);
+    private static final String CACHE_DESCRIPTOR = Type.getDescriptor(StringCache.class);
+    private static final String CLASS_NAME =
+            Type.getInternalName(RowMapperGenerator.class).replace("RowMapperGenerator", "GeneratedRowMapper");
+
+    /**
+     * Привязка колонки к полю записи
+     *
+     * @param column индекс колонки
+     * @param field  поле записи
+     */
+    record ColumnField<T>(int column, RecordField<T> field) {
+    }
+
+    /**
+     * Генерирует и создает преобразователь строки
+     *
+     * @param recordType  класс записи с публичным конструктором без аргументов
+     * @param columns     привязки колонок к полям
+     * @param stringCache кеш строк для кешируемых полей или null
+     * @return преобразователь строки
+     */
+    @SuppressWarnings("unchecked")
+    static <T> RowMapper<T> generate(Class<T> recordType, List<ColumnField<T>> columns, StringCache stringCache) {
+        byte[] bytecode = generateBytecode(recordType, columns, stringCache != null);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytecode, true);
+            return (RowMapper<T>) lookup.lookupClass()
+                    .getConstructor(StringCache.class)
+                    .newInstance(stringCache);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Не удалось создать преобразователь строк для " + recordType.getName(), e);
+        }
+    }
+
+    private static <T> byte[] generateBytecode(Class<T> recordType, List<ColumnField<T>> columns, boolean useCache) {
+        String target = Type.getInternalName(recordType);
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, CLASS_NAME, null,
+                "java/lang/Object", new String[]{Type.getInternalName(RowMapper.class)});
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "cache", CACHE_DESCRIPTOR, null, null).visitEnd();
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>",
+                "(" + CACHE_DESCRIPTOR + ")V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitVarInsn(Opcodes.ALOAD, 1);
+        constructor.visitFieldInsn(Opcodes.PUTFIELD, CLASS_NAME, "cache", CACHE_DESCRIPTOR);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor read = writer.visitMethod(Opcodes.ACC_PUBLIC, "read",
+                "(L" + ROW + ";)Ljava/lang/Object;", null, null);
+        read.visitCode();
+        read.visitTypeInsn(Opcodes.NEW, target);
+        read.visitInsn(Opcodes.DUP);
+        read.visitMethodInsn(Opcodes.INVOKESPECIAL, target, "<init>", "()V", false);
+        read.visitVarInsn(Opcodes.ASTORE, 2);
+
+        for (ColumnField<T> column : columns) {
+            RecordField<T> field = column.field();
+            String valueDescriptor = Type.getDescriptor(field.type().getJavaType());
+            boolean cached = useCache && field.cached();
+
+            read.visitVarInsn(Opcodes.ALOAD, 2);
+            read.visitVarInsn(Opcodes.ALOAD, 1);
+            pushInt(read, column.column());
+            if (cached) {
+                read.visitVarInsn(Opcodes.ALOAD, 0);
+                read.visitFieldInsn(Opcodes.GETFIELD, CLASS_NAME, "cache", CACHE_DESCRIPTOR);
+            }
+            read.visitMethodInsn(Opcodes.INVOKEINTERFACE, ROW, field.type().getRowAccessor(),
+                    "(I" + (cached ? CACHE_DESCRIPTOR : "") + ")" + valueDescriptor, true);
+
+            Method setter = field.setter();
+            read.visitMethodInsn(Opcodes.INVOKEVIRTUAL, target, setter.getName(),
+                    Type.getMethodDescriptor(setter), false);
+            if (setter.getReturnType() != void.class) {
+                // Значения long и double занимают на стеке две ячейки
+                read.visitInsn(Type.getType(setter.getReturnType()).getSize() == 2 ? Opcodes.POP2 : Opcodes.POP);
+            }
+        }
+
+        read.visitVarInsn(Opcodes.ALOAD, 2);
+        read.visitInsn(Opcodes.ARETURN);
+        read.visitMaxs(0, 0);
+        read.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static void pushInt(MethodVisitor method, int value) {
+        if (value <= 5) {
+            method.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            method.visitIntInsn(Opcodes.BIPUSH, value);
+        } else {
+            method.visitIntInsn(Opcodes.SIPUSH, value);
+        }
+    }
+}
@@ -1,28 +1,100 @@
 package com.neighbor.eventmosaic.adapter.publisher;
 
+import com.neighbor.eventmosaic.adapter.config.properties.PublisherProperties;
+import com.neighbor.eventmosaic.adapter.exception.PublishingException;
+import com.neighbor.eventmosaic.adapter.publisher.PendingSends.FailedSend;
+import com.neighbor.eventmosaic.adapter.publisher.codec.RecordCodecs;
+import com.neighbor.eventmosaic.adapter.publisher.codec.RecordEnvelopeWriter;
+import com.neighbor.eventmosaic.adapter.publisher.codec.RecordEnvelopes;
 import com.neighbor.eventmosaic.library.common.dto.Event;
 import com.neighbor.eventmosaic.library.common.dto.Mention;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RetriableException;
+import org.apache.kafka.common.errors.TransactionAbortedException;
+import org.apache.kafka.common.utils.Utils;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Компонент для отправки сообщений в Kafka
+ * Компонент для отправки сообщений в Kafka.
+ * <p>
+ * Сообщения отправляются асинхронно в пределах окна из {@code publisher.max-in-flight} неподтвержденных
+ * сообщений: при заполнении окна отправка ожидает подтверждений брокера, поэтому объем буферизованных
+ * записей ограничен. Подтверждения учитываются для потока, отправившего сообщения, и ожидаются
+ * методом {@link #awaitPublished()} до фиксации смещения сообщения с путем к файлу.
+ * <p>
+ * Для топиков с настроенным топиком конвертов ({@code publisher.envelope.topics}) записи также собираются
+ * в конверты (см. {@link RecordEnvelopeWriter}): записи, ключи которых попадают в один раздел топика конвертов,
+ * отправляются одним сообщением с заголовком {@link RecordEnvelopes#RECORD_COUNT_HEADER}. Конверт отправляется
+ * при достижении {@code max-records} записей или {@code max-bytes} байт, при смене батча и перед ожиданием
+ * подтверждений, поэтому порядок записей одного ключа сохраняется и в конвертах.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class KafkaMessagePublisher {
+public class KafkaMessagePublisher implements MeterBinder {
 
     private static final String BATCH_ID_HEADER = "X-Batch-ID";
+    private static final String EVENT_TOPIC_KEY = "adapter-event";
+    private static final String MENTION_TOPIC_KEY = "adapter-mention";
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final KafkaTemplateRouter kafkaTemplateRouter;
+    private final int maxInFlight;
+    private final int maxRetries;
+    private final Duration timeout;
+    private final Semaphore inFlight;
+    private final ThreadLocal<PendingSends> pending = ThreadLocal.withInitial(PendingSends::new);
+    private final Map<String, String> envelopeTopics;
+    private final int envelopeMaxRecords;
+    private final long envelopeMaxBytes;
+    private final boolean perRecord;
+    private final boolean binaryEnvelopes;
+    private final Map<String, Integer> partitionCounts = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<TopicPartition, OpenEnvelope>> envelopes = ThreadLocal.withInitial(LinkedHashMap::new);
+
+    /**
+     * Зарегистрирован ли в текущей транзакции потока сброс незавершенных конвертов при ее отмене
+     */
+    private final ThreadLocal<Boolean> rollbackHookRegistered = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * Метрики по топикам. Регистрируются один раз: подтверждения обрабатываются в потоке продюсера на каждое сообщение
+     */
+    private final Map<String, TopicMeters> topicMeters = new ConcurrentHashMap<>();
+
+    /**
+     * Количество записей в конвертах по топикам конвертов
+     */
+    private final Map<String, DistributionSummary> envelopeRecords = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
 
     @Value("${kafka.topic.producer.adapter-event}")
     private String adapterEventTopic;
@@ -30,7 +102,27 @@ public class KafkaMessagePublisher {
     @Value("${kafka.topic.producer.adapter-mention}")
     private String adapterMentionTopic;
 
+    /**
+     * @param kafkaTemplateRouter шаблоны отправки сообщений по топикам
+     * @param properties          настройки отправки
+     */
+    public KafkaMessagePublisher(KafkaTemplateRouter kafkaTemplateRouter, PublisherProperties properties) {
+        this.kafkaTemplateRouter = kafkaTemplateRouter;
+        this.maxInFlight = properties.getMaxInFlight();
+        // После ошибки транзакционный продюсер может только отменить транзакцию: повторяется обработка сообщения
+        this.maxRetries = properties.getTransactions().isEnabled() ? 0 : properties.getMaxRetries();
+        this.timeout = properties.getTimeout();
+        this.inFlight = new Semaphore(maxInFlight);
 
+        PublisherProperties.Envelope envelope = properties.getEnvelope();
+        this.envelopeTopics = envelope.getTopics().entrySet().stream()
+                .filter(entry -> StringUtils.hasText(entry.getValue()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        this.envelopeMaxRecords = envelope.getMaxRecords();
+        this.envelopeMaxBytes = envelope.getMaxBytes().toBytes();
+        this.perRecord = envelope.isPerRecord() || envelopeTopics.isEmpty();
+        this.binaryEnvelopes = properties.getFormat() == PublisherProperties.Format.BINARY;
+    }
 
     /**
      * Отправляет сообщения в Kafka для событий (Event)
@@ -40,16 +132,18 @@ public class KafkaMessagePublisher {
     public void publishEventMessages(List<Event> events, String batchId) {
         log.info("Отправка {} событий с идентификатором батча: {}", events.size(), batchId);
 
-        events.forEach(event -> {
-            var message = MessageBuilder
-                    .withPayload(event)
-                    .setHeader(KafkaHeaders.KEY, event.getGlobalEventId().toString())
-                    .setHeader(KafkaHeaders.TOPIC, adapterEventTopic)
-                    .setHeader(BATCH_ID_HEADER, batchId)
-                    .build();
+        events.forEach(event -> publishEventMessage(event, batchId));
+    }
 
-            kafkaTemplate.send(message);
-        });
+    /**
+     * Отправляет в Kafka одно событие (Event).
+     * Используется при потоковой обработке файла, когда события публикуются по мере парсинга.
+     *
+     * @param event   событие
+     * @param batchId идентификатор батча
+     */
+    public void publishEventMessage(Event event, String batchId) {
+        send(event, event.getGlobalEventId(), adapterEventTopic, EVENT_TOPIC_KEY, batchId);
     }
 
     /**
@@ -60,15 +154,316 @@ public class KafkaMessagePublisher {
     public void publishMentionMessages(List<Mention> mentions, String batchId) {
         log.info("Отправка {} упоминаний с идентификатором батча: {}", mentions.size(), batchId);
 
-        mentions.forEach(mention -> {
-            var message = MessageBuilder
-                    .withPayload(mention)
-                    .setHeader(KafkaHeaders.KEY, mention.getGlobalEventId().toString())
-                    .setHeader(KafkaHeaders.TOPIC, adapterMentionTopic)
-                    .setHeader(BATCH_ID_HEADER, batchId)
-                    .build();
+        mentions.forEach(mention -> publishMentionMessage(mention, batchId));
+    }
+
+    /**
+     * Отправляет в Kafka одно упоминание (Mention).
+     * Используется при потоковой обработке файла, когда упоминания публикуются по мере парсинга.
+     *
+     * @param mention упоминание
+     * @param batchId идентификатор батча
+     */
+    public void publishMentionMessage(Mention mention, String batchId) {
+        send(mention, mention.getGlobalEventId(), adapterMentionTopic, MENTION_TOPIC_KEY, batchId);
+    }
+
+    /**
+     * Отправляет незавершенные конверты текущего потока и ожидает подтверждения брокером всех сообщений,
+     * отправленных текущим потоком.
+     * Сообщения, отправка которых завершилась временной ошибкой, отправляются повторно
+     * (не более {@code publisher.max-retries} раз), остальные сообщения заново не отправляются.
+     *
+     * @throws PublishingException если часть сообщений не удалось отправить или не дождаться подтверждения
+     */
+    public void awaitPublished() {
+        flushEnvelopes();
+        PendingSends sends = pending.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int failures = 0;
+        FailedSend firstFailure = null;
+        try {
+            while (true) {
+                if (!sends.awaitCompleted(deadline)) {
+                    throw new PublishingException("Брокер не подтвердил " + sends.outstanding()
+                            + " сообщений за " + timeout);
+                }
+                FailedSend failed = sends.pollFailed();
+                if (failed == null) {
+                    break;
+                }
+                for (; failed != null; failed = sends.pollFailed()) {
+                    if (isCause(failed.cause(), TransactionAbortedException.class)) {
+                        // Сообщение отмененной ранее транзакции: брокер его отбросил, обработка уже повторяется
+                        log.debug("Сообщение отмененной транзакции в топик {} не учитывается", failed.topic());
+                        continue;
+                    }
+                    if (failed.attempt() < maxRetries && isRetriable(failed.cause())) {
+                        log.warn("Повторная отправка сообщения в топик {} (попытка {}): {}",
+                                failed.topic(), failed.attempt() + 1, failed.cause().getMessage());
+                        TopicMeters meters = meters(failed.topic());
+                        if (meters != null) {
+                            meters.retries().increment();
+                        }
+                        send(failed.message(), failed.topic(), failed.attempt() + 1);
+                    } else {
+                        failures++;
+                        TopicMeters meters = meters(failed.topic());
+                        if (meters != null) {
+                            meters.failures().increment();
+                        }
+                        if (firstFailure == null) {
+                            firstFailure = failed;
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PublishingException("Ожидание подтверждения сообщений прервано", e);
+        }
+
+        if (firstFailure != null) {
+            throw new PublishingException("Не удалось отправить " + failures + " сообщений, первая ошибка в топике: "
+                    + firstFailure.topic(), firstFailure.cause());
+        }
+    }
+
+    /**
+     * Сбрасывает состояние отправки текущего потока: незавершенные конверты, учет неподтвержденных сообщений
+     * и ошибки отправки. Вызывается после обработки каждого сообщения с путем к файлу, в том числе неудачной,
+     * чтобы следующий файл, обрабатываемый этим потоком, не получил ошибки и записи предыдущего файла.
+     * Подтверждения сообщений, отправленных до сброса, на новое состояние не влияют.
+     */
+    public void discardPending() {
+        Map<TopicPartition, OpenEnvelope> open = envelopes.get();
+        PendingSends sends = pending.get();
+        if (!open.isEmpty() || sends.outstanding() > 0) {
+            log.debug("Сброс состояния отправки: незавершенных конвертов {}, неподтвержденных сообщений {}",
+                    open.size(), sends.outstanding());
+        }
+        open.clear();
+        pending.remove();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("adapter.publisher.in.flight", inFlight, semaphore -> maxInFlight - semaphore.availablePermits())
+                .description("Отправленные, но еще не подтвержденные брокером сообщения")
+                .register(registry);
+        envelopeTopics.values().forEach(topic -> envelopeRecords.put(topic,
+                DistributionSummary.builder("adapter.publisher.envelope.records")
+                        .description("Количество записей в отправленных конвертах")
+                        .tag("topic", topic)
+                        .register(registry)));
+        meterRegistry = registry;
+        Stream.concat(Stream.of(adapterEventTopic, adapterMentionTopic), envelopeTopics.values().stream())
+                .filter(StringUtils::hasText)
+                .forEach(this::meters);
+    }
+
+    private void send(Object payload, Long globalEventId, String topic, String topicKey, String batchId) {
+        String key = globalEventId.toString();
+        String envelopeTopic = envelopeTopics.get(topicKey);
+        if (envelopeTopic != null) {
+            addToEnvelope(payload, key, envelopeTopic, batchId);
+            if (!perRecord) {
+                return;
+            }
+        }
+
+        var message = MessageBuilder
+                .withPayload(payload)
+                .setHeader(KafkaHeaders.KEY, key)
+                .setHeader(KafkaHeaders.TOPIC, topic)
+                .setHeader(BATCH_ID_HEADER, batchId)
+                .build();
+
+        send(message, topic, 0);
+    }
+
+    /**
+     * Добавляет запись в конверт раздела, в который попадает ключ записи, и отправляет заполненный конверт
+     */
+    @SuppressWarnings("unchecked")
+    private void addToEnvelope(Object payload, String key, String topic, String batchId) {
+        TopicPartition partition = new TopicPartition(topic, partition(topic, key));
+        Map<TopicPartition, OpenEnvelope> open = envelopes.get();
+        OpenEnvelope envelope = open.get(partition);
+        if (envelope != null && !envelope.batchId().equals(batchId)) {
+            sendEnvelope(open.remove(partition));
+            envelope = null;
+        }
+        if (envelope == null) {
+            envelope = new OpenEnvelope(partition, batchId,
+                    RecordEnvelopeWriter.create((Class<Object>) payload.getClass(), binaryEnvelopes));
+            open.put(partition, envelope);
+            discardOnRollback(open);
+        }
+
+        envelope.writer().add(payload);
+        if (envelope.writer().count() >= envelopeMaxRecords || envelope.writer().size() >= envelopeMaxBytes) {
+            sendEnvelope(open.remove(partition));
+        }
+    }
 
-            kafkaTemplate.send(message);
+    /**
+     * Записи отмененной транзакции будут отправлены заново при повторной обработке,
+     * поэтому незавершенные конверты потока отбрасываются вместе с транзакцией.
+     * Сброс регистрируется один раз на транзакцию, а не для каждого открытого конверта
+     */
+    private void discardOnRollback(Map<TopicPartition, OpenEnvelope> open) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || rollbackHookRegistered.get()) {
+            return;
+        }
+        rollbackHookRegistered.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                rollbackHookRegistered.remove();
+                if (status != STATUS_COMMITTED) {
+                    open.clear();
+                }
+            }
         });
     }
+
+    private void flushEnvelopes() {
+        Map<TopicPartition, OpenEnvelope> open = envelopes.get();
+        if (open.isEmpty()) {
+            return;
+        }
+        List<OpenEnvelope> pendingEnvelopes = List.copyOf(open.values());
+        open.clear();
+        pendingEnvelopes.forEach(this::sendEnvelope);
+    }
+
+    private void sendEnvelope(OpenEnvelope envelope) {
+        RecordEnvelopeWriter<Object> writer = envelope.writer();
+        String topic = envelope.partition().topic();
+        var message = MessageBuilder
+                .withPayload(writer.finish())
+                .setHeader(KafkaHeaders.TOPIC, topic)
+                .setHeader(KafkaHeaders.PARTITION, envelope.partition().partition())
+                .setHeader(BATCH_ID_HEADER, envelope.batchId())
+                .setHeader(RecordEnvelopes.RECORD_COUNT_HEADER, Integer.toString(writer.count()))
+                .setHeader(RecordCodecs.CONTENT_TYPE_HEADER, writer.contentType())
+                .setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, writer.recordType().getName())
+                .build();
+
+        DistributionSummary records = envelopeRecords.get(topic);
+        if (records != null) {
+            records.record(writer.count());
+        }
+        send(message, topic, 0);
+    }
+
+    /**
+     * Раздел топика для ключа, как у стандартного разделителя продюсера (murmur2 от ключа)
+     */
+    private int partition(String topic, String key) {
+        int partitions = partitionCounts.computeIfAbsent(topic,
+                name -> kafkaTemplateRouter.forTopic(name).partitionsFor(name).size());
+        return Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % partitions;
+    }
+
+    private void send(Message<?> message, String topic, int attempt) {
+        acquireInFlight(topic);
+        PendingSends sends = pending.get();
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplateRouter.forTopic(topic).send(message);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            if (e instanceof KafkaException) {
+                throw new PublishingException("Ошибка при отправке сообщения в топик: " + topic, e);
+            }
+            throw e;
+        }
+
+        sends.started();
+        TopicMeters meters = meters(topic);
+        future.whenComplete((result, e) -> {
+            inFlight.release();
+            if (meters != null) {
+                (e == null ? meters.success() : meters.failure()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            sends.completed(e == null ? null : new FailedSend(message, topic, attempt, e));
+        });
+    }
+
+    private void acquireInFlight(String topic) {
+        try {
+            if (!inFlight.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new PublishingException("Брокер не подтверждает сообщения: окно из " + maxInFlight
+                        + " сообщений не освободилось за " + timeout + ", топик: " + topic);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PublishingException("Отправка сообщения в топик прервана: " + topic, e);
+        }
+    }
+
+    /**
+     * Возвращает метрики топика, регистрируя их при первом обращении, или null, если реестр метрик не подключен
+     */
+    private TopicMeters meters(String topic) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return null;
+        }
+        TopicMeters meters = topicMeters.get(topic);
+        return meters != null ? meters : topicMeters.computeIfAbsent(topic, name -> TopicMeters.register(registry, name));
+    }
+
+    /**
+     * Метрики отправки сообщений в один топик
+     */
+    private record TopicMeters(Timer success, Timer failure, Counter retries, Counter failures) {
+
+        private static TopicMeters register(MeterRegistry registry, String topic) {
+            return new TopicMeters(
+                    sendTimer(registry, topic, "success"),
+                    sendTimer(registry, topic, "failure"),
+                    Counter.builder("adapter.publisher.retries")
+                            .description("Повторные отправки сообщений после временной ошибки")
+                            .tag("topic", topic)
+                            .register(registry),
+                    Counter.builder("adapter.publisher.failures")
+                            .description("Сообщения, которые не удалось отправить")
+                            .tag("topic", topic)
+                            .register(registry));
+        }
+
+        private static Timer sendTimer(MeterRegistry registry, String topic, String outcome) {
+            return Timer.builder("adapter.publisher.send")
+                    .description("Время от отправки сообщения до подтверждения брокером")
+                    .tags("topic", topic, "outcome", outcome)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Незавершенный конверт записей одного раздела и батча
+     */
+    private record OpenEnvelope(TopicPartition partition, String batchId, RecordEnvelopeWriter<Object> writer) {
+    }
+
+    /**
+     * Временная ошибка брокера (например, истекло время доставки), после которой отправку можно повторить
+     */
+    private static boolean isRetriable(Throwable e) {
+        return isCause(e, RetriableException.class);
+    }
+
+    private static boolean isCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,45 @@
+package com.neighbor.eventmosaic.adapter.publisher;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Выбор шаблона отправки по топику: топики с профилем продюсера отправляются через шаблон профиля,
+ * остальные - через общий шаблон. Фабрики продюсеров профилей закрываются вместе с маршрутизатором.
+ */
+public class KafkaTemplateRouter implements DisposableBean {
+
+    private final KafkaTemplate<String, Object> defaultTemplate;
+    private final Map<String, KafkaTemplate<String, Object>> topicTemplates;
+
+    /**
+     * @param defaultTemplate общий шаблон отправки
+     * @param topicTemplates  шаблоны профилей по имени топика
+     */
+    public KafkaTemplateRouter(KafkaTemplate<String, Object> defaultTemplate,
+                               Map<String, KafkaTemplate<String, Object>> topicTemplates) {
+        this.defaultTemplate = defaultTemplate;
+        this.topicTemplates = Map.copyOf(topicTemplates);
+    }
+
+    /**
+     * Возвращает шаблон отправки для топика
+     */
+    public KafkaTemplate<String, Object> forTopic(String topic) {
+        return topicTemplates.getOrDefault(topic, defaultTemplate);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        Set<KafkaTemplate<String, Object>> templates = new LinkedHashSet<>(topicTemplates.values());
+        for (KafkaTemplate<String, Object> template : templates) {
+            if (template.getProducerFactory() instanceof DisposableBean factory) {
+                factory.destroy();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.neighbor.eventmosaic.adapter.publisher;
+
+import org.springframework.messaging.Message;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Неподтвержденные сообщения, отправленные одним потоком, и сообщения, отправка которых завершилась ошибкой.
+ * Подтверждения приходят в потоке продюсера, а ожидаются в потоке, отправившем сообщения.
+ */
+final class PendingSends {
+
+    private final Queue<FailedSend> failed = new ConcurrentLinkedQueue<>();
+    private int outstanding;
+
+    synchronized void started() {
+        outstanding++;
+    }
+
+    /**
+     * @param failure ошибка отправки или null, если сообщение подтверждено
+     */
+    void completed(FailedSend failure) {
+        if (failure != null) {
+            failed.add(failure);
+        }
+        synchronized (this) {
+            outstanding--;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Ожидает подтверждения или ошибки всех отправленных сообщений
+     *
+     * @param deadline предельное время ожидания по {@link System#nanoTime()}
+     * @return false, если время ожидания истекло
+     */
+    synchronized boolean awaitCompleted(long deadline) throws InterruptedException {
+        while (outstanding > 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    synchronized int outstanding() {
+        return outstanding;
+    }
+
+    FailedSend pollFailed() {
+        return failed.poll();
+    }
+
+    /**
+     * Сообщение, отправка которого завершилась ошибкой
+     *
+     * @param message сообщение
+     * @param topic   топик
+     * @param attempt номер попытки (0 - первая отправка)
+     * @param cause   ошибка отправки
+     */
+    record FailedSend(Message<?> message, String topic, int attempt, Throwable cause) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.neighbor.eventmosaic.adapter.publisher.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Десериализатор значений для потребителей топиков адаптера: сообщения с двоичным типом содержимого
+ * (см. {@link RecordCodecs}) декодируются {@link RecordCodec}, остальные - делегатом (JSON).
+ * Позволяет потребителям перейти на двоичный формат до того, как его включит адаптер.
+ * <p>
+ * Конструктор без аргументов использует {@link JsonDeserializer}, настраиваемый свойствами потребителя
+ * ({@code spring.json.trusted.packages} и др.).
+ */
+public class BinaryRecordDeserializer implements Deserializer<Object> {
+
+    private final Deserializer<Object> delegate;
+
+    public BinaryRecordDeserializer() {
+        this(new JsonDeserializer<>());
+    }
+
+    /**
+     * @param delegate десериализатор сообщений без двоичного формата
+     */
+    public BinaryRecordDeserializer(Deserializer<Object> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return delegate.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        RecordCodec<?> codec = RecordCodecs.forContentType(RecordCodecs.contentType(headers));
+        if (codec == null || data == null) {
+            return delegate.deserialize(topic, headers, data);
+        }
+        return codec.decode(data);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.neighbor.eventmosaic.adapter.publisher.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Сериализатор значений, записывающий события и упоминания в двоичном формате {@link RecordCodec}.
+ * Остальные значения сериализуются делегатом (JSON).
+ * Тип содержимого записывается в заголовок {@link RecordCodecs#CONTENT_TYPE_HEADER}, поэтому потребители
+ * с {@link BinaryRecordDeserializer} читают оба формата в период перехода.
+ * Уже сериализованные значения (конверты записей, см. {@link RecordEnvelopeWriter}) записываются как есть.
+ */
+public class BinaryRecordSerializer implements Serializer<Object> {
+
+    private static final byte[] JSON_CONTENT_TYPE = RecordCodecs.JSON_CONTENT_TYPE.getBytes(StandardCharsets.UTF_8);
+
+    private final Serializer<Object> delegate;
+
+    /**
+     * @param delegate сериализатор значений без двоичного формата
+     */
+    public BinaryRecordSerializer(Serializer<Object> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data instanceof byte[] serialized) {
+            return serialized;
+        }
+        String contentType = data != null
+                ? RecordCodecs.contentType(data.getClass())
+                : null;
+        if (contentType == null || headers == null) {
+            byte[] json = delegate.serialize(topic, headers, data);
+            if (headers != null) {
+                headers.remove(RecordCodecs.CONTENT_TYPE_HEADER)
+                        .add(RecordCodecs.CONTENT_TYPE_HEADER, JSON_CONTENT_TYPE);
+            }
+            return json;
+        }
+
+        RecordCodec<Object> codec = (RecordCodec<Object>) RecordCodecs.forContentType(contentType);
+        headers.remove(RecordCodecs.CONTENT_TYPE_HEADER)
+                .add(RecordCodecs.CONTENT_TYPE_HEADER, contentType.getBytes(StandardCharsets.UTF_8));
+        return codec.encode(data);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,57 @@
+package com.neighbor.eventmosaic.adapter.publisher.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.neighbor.eventmosaic.adapter.parser.schema.RecordField;
+import com.neighbor.eventmosaic.adapter.parser.schema.RecordSchema;
+
+import java.io.IOException;
+
+/**
+ * Запись GDELT в JSON потоковым генератором Jackson по схеме записи {@link RecordSchema}.
+ * <p>
+ * Значения читаются геттерами схемы, без интроспекции классов Jackson, имена полей закодированы
+ * заранее, поля со значением null не записываются. Имена полей совпадают с именами свойств DTO,
+ * поэтому JSON совпадает с результатом ObjectMapper с {@code NON_NULL} с точностью до порядка полей.
+ *
+ * @param <T> тип записи
+ */
+public final class JsonRecordWriter<T> {
+
+    private final RecordField<T>[] fields;
+    private final SerializedString[] names;
+
+    @SuppressWarnings("unchecked")
+    public JsonRecordWriter(RecordSchema<T> schema) {
+        this.fields = schema.getFields().toArray(RecordField[]::new);
+        this.names = new SerializedString[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            names[i] = new SerializedString(fields[i].name());
+        }
+    }
+
+    /**
+     * Записывает запись JSON-объектом
+     *
+     * @param rec       запись
+     * @param generator генератор JSON
+     * @throws IOException если не удалось записать JSON
+     */
+    public void write(T rec, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < fields.length; i++) {
+            Object value = fields[i].getter().apply(rec);
+            if (value == null) {
+                continue;
+            }
+            generator.writeFieldName(names[i]);
+            switch (fields[i].type()) {
+                case STRING -> generator.writeString((String) value);
+                case LONG -> generator.writeNumber((long) (Long) value);
+                case INTEGER -> generator.writeNumber((int) (Integer) value);
+                case DOUBLE -> generator.writeNumber((double) (Double) value);
+            }
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,281 @@
+package com.neighbor.eventmosaic.adapter.publisher.codec;
+
+import com.neighbor.eventmosaic.adapter.parser.schema.RecordField;
+import com.neighbor.eventmosaic.adapter.parser.schema.RecordSchema;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Двоичный формат записи GDELT, построенный по схеме записи {@link RecordSchema}.
+ * <p>
+ * Формат версии 1:
+ * <pre>
+ * версия (1 байт) | количество полей N (varint) | битовая карта null (ceil(N/8) байт) | значения полей не null
+ * </pre>
+ * Поля записываются в порядке объявления в схеме без имен: целые числа - varint в кодировке zigzag,
+ * дробные - 8 байт IEEE 754, строки - длина в байтах (varint) и UTF-8.
+ * Новые поля схемы добавляются в конец, поэтому запись с меньшим количеством полей читается
+ * и новым декодером (недостающие поля остаются null). Запись с большим количеством полей,
+ * чем знает декодер, не читается.
+ *
+ * @param <T> тип записи
+ */
+public final class RecordCodec<T> {
+
+    /**
+     * Версия формата
+     */
+    public static final byte VERSION = 1;
+
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private final Class<T> recordType;
+    private final RecordField<T>[] fields;
+    private final MethodHandle[] setters;
+
+    @SuppressWarnings("unchecked")
+    public RecordCodec(RecordSchema<T> schema) {
+        this.recordType = schema.getRecordType();
+        this.fields = schema.getFields().toArray(RecordField[]::new);
+        this.setters = new MethodHandle[fields.length];
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        for (int i = 0; i < fields.length; i++) {
+            try {
+                setters[i] = lookup.unreflect(fields[i].setter());
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException("Сеттер поля " + fields[i].name() + " недоступен", e);
+            }
+        }
+    }
+
+    /**
+     * Возвращает класс записи
+     */
+    public Class<T> getRecordType() {
+        return recordType;
+    }
+
+    /**
+     * Кодирует запись
+     *
+     * @param rec запись
+     * @return двоичное представление записи
+     */
+    public byte[] encode(T rec) {
+        int count = fields.length;
+        Object[] values = new Object[count];
+        byte[][] strings = new byte[count][];
+        int bitmapOffset = 1 + varintSize(count);
+        int size = bitmapOffset + (count + 7) / 8;
+        for (int i = 0; i < count; i++) {
+            Object value = fields[i].getter().apply(rec);
+            values[i] = value;
+            if (value == null) {
+                continue;
+            }
+            size += switch (fields[i].type()) {
+                case STRING -> {
+                    strings[i] = ((String) value).getBytes(StandardCharsets.UTF_8);
+                    yield varintSize(strings[i].length) + strings[i].length;
+                }
+                case DOUBLE -> Double.BYTES;
+                default -> MAX_VARINT_BYTES;
+            };
+        }
+
+        Writer writer = new Writer(size);
+        writer.buffer[writer.position++] = VERSION;
+        writer.writeVarint(count);
+        writer.position += (count + 7) / 8;
+        for (int i = 0; i < count; i++) {
+            Object value = values[i];
+            if (value == null) {
+                writer.buffer[bitmapOffset + i / 8] |= (byte) (1 << (i % 8));
+                continue;
+            }
+            switch (fields[i].type()) {
+                case STRING -> {
+                    writer.writeVarint(strings[i].length);
+                    writer.write(strings[i]);
+                }
+                case LONG -> writer.writeVarint(zigzag((Long) value));
+                case INTEGER -> writer.writeVarint(zigzag((Integer) value));
+                case DOUBLE -> writer.writeLong(Double.doubleToRawLongBits((Double) value));
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Декодирует запись
+     *
+     * @param data двоичное представление записи
+     * @return запись
+     * @throws SerializationException если данные повреждены или записаны неизвестной версией формата
+     */
+    public T decode(byte[] data) {
+        return decode(data, 0, data.length);
+    }
+
+    /**
+     * Декодирует запись из части массива
+     *
+     * @param data   массив с двоичным представлением записи
+     * @param offset начало записи в массиве
+     * @param length длина записи
+     * @return запись
+     * @throws SerializationException если данные повреждены или записаны неизвестной версией формата
+     */
+    public T decode(byte[] data, int offset, int length) {
+        try {
+            Reader reader = new Reader(data, offset);
+            byte version = reader.readByte();
+            if (version != VERSION) {
+                throw new SerializationException("Неизвестная версия двоичного формата " + recordType.getSimpleName()
+                        + ": " + version);
+            }
+            int count = (int) reader.readVarint();
+            if (count < 0 || count > fields.length) {
+                throw new SerializationException("Запись " + recordType.getSimpleName() + " содержит " + count
+                        + " полей, известно " + fields.length + ": требуется новая версия схемы");
+            }
+            int bitmapOffset = reader.position;
+            reader.position += (count + 7) / 8;
+
+            T rec = recordType.getConstructor().newInstance();
+            for (int i = 0; i < count; i++) {
+                if ((data[bitmapOffset + i / 8] & (1 << (i % 8))) != 0) {
+                    continue;
+                }
+                Object value = switch (fields[i].type()) {
+                    case STRING -> reader.readString();
+                    case LONG -> unzigzag(reader.readVarint());
+                    case INTEGER -> Math.toIntExact(unzigzag(reader.readVarint()));
+                    case DOUBLE -> Double.longBitsToDouble(reader.readLong());
+                };
+                setters[i].invoke(rec, value);
+            }
+            if (reader.position > offset + length) {
+                throw new SerializationException("Запись " + recordType.getSimpleName() + " выходит за границы данных");
+            }
+            return rec;
+
+        } catch (SerializationException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new SerializationException("Не удалось декодировать запись " + recordType.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Имена полей в порядке формата
+     */
+    public List<String> getFieldNames() {
+        return Arrays.stream(fields).map(RecordField::name).toList();
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Запись в массив, размер которого рассчитан заранее с запасом для varint
+     */
+    private static final class Writer {
+
+        private final byte[] buffer;
+        private int position;
+
+        private Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void write(byte[] bytes) {
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private byte[] toByteArray() {
+            return position == buffer.length
+                    ? buffer
+                    : Arrays.copyOf(buffer, position);
+        }
+    }
+
+    /**
+     * Чтение из массива; выход за границы массива означает поврежденные данные
+     */
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        private Reader(byte[] data, int offset) {
+            this.data = data;
+            this.position = offset;
+        }
+
+        private byte readByte() {
+            return data[position++];
+        }
+
+        private long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Некорректное значение varint");
+        }
+
+        private long readLong() {
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | (data[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        private String readString() {
+            int length = Math.toIntExact(readVarint());
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
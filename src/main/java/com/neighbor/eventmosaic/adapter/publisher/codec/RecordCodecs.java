@@ -0,0 +1,84 @@
+package com.neighbor.eventmosaic.adapter.publisher.codec;
+
+import com.neighbor.eventmosaic.adapter.parser.EventCsvParser;
+import com.neighbor.eventmosaic.adapter.parser.MentionCsvParser;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import com.neighbor.eventmosaic.library.common.dto.Mention;
+import lombok.experimental.UtilityClass;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Двоичные форматы записей и их типы содержимого.
+ * Тип содержимого передается в заголовке {@link #CONTENT_TYPE_HEADER} сообщения Kafka;
+ * сообщения без заголовка считаются JSON.
+ */
+@UtilityClass
+public class RecordCodecs {
+
+    /**
+     * Заголовок с типом содержимого сообщения
+     */
+    public static final String CONTENT_TYPE_HEADER = "contentType";
+
+    public static final String JSON_CONTENT_TYPE = "application/json";
+    public static final String EVENT_CONTENT_TYPE = "application/vnd.eventmosaic.event";
+    public static final String MENTION_CONTENT_TYPE = "application/vnd.eventmosaic.mention";
+
+    private static final Map<Class<?>, String> CONTENT_TYPES = Map.of(
+            Event.class, EVENT_CONTENT_TYPE,
+            Mention.class, MENTION_CONTENT_TYPE);
+
+    private static final Map<String, RecordCodec<?>> CODECS = Map.of(
+            EVENT_CONTENT_TYPE, new RecordCodec<>(EventCsvParser.SCHEMA),
+            MENTION_CONTENT_TYPE, new RecordCodec<>(MentionCsvParser.SCHEMA));
+
+    /**
+     * Возвращает тип содержимого двоичного формата записи или null, если для класса нет двоичного формата
+     */
+    public static String contentType(Class<?> recordType) {
+        return CONTENT_TYPES.get(recordType);
+    }
+
+    /**
+     * Возвращает двоичный формат записи или null, если для класса нет двоичного формата
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RecordCodec<T> forRecordType(Class<T> recordType) {
+        return (RecordCodec<T>) forContentType(contentType(recordType));
+    }
+
+    /**
+     * Возвращает класс записи по имени (заголовок {@code __TypeId__}) или null, если класс не является записью GDELT
+     */
+    public static Class<?> recordType(String className) {
+        return CONTENT_TYPES.keySet().stream()
+                .filter(type -> type.getName().equals(className))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Возвращает двоичный формат по типу содержимого или null, если тип содержимого не двоичный
+     */
+    public static RecordCodec<?> forContentType(String contentType) {
+        return contentType != null
+                ? CODECS.get(contentType)
+                : null;
+    }
+
+    /**
+     * Возвращает тип содержимого из заголовков сообщения или null, если заголовка нет
+     */
+    public static String contentType(Headers headers) {
+        Header header = headers != null
+                ? headers.lastHeader(CONTENT_TYPE_HEADER)
+                : null;
+        return header != null
+                ? new String(header.value(), StandardCharsets.UTF_8)
+                : null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.neighbor.eventmosaic.adapter.publisher.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Десериализатор значений для потребителей, читающих и конверты, и сообщения с одной записью:
+ * конверт разбирается {@link RecordEnvelopes#unpack}, остальные сообщения - делегатом
+ * ({@link BinaryRecordDeserializer}) и возвращаются списком из одной записи.
+ */
+public class RecordEnvelopeDeserializer implements Deserializer<List<Object>> {
+
+    private final Deserializer<Object> delegate;
+
+    public RecordEnvelopeDeserializer() {
+        this(new BinaryRecordDeserializer());
+    }
+
+    /**
+     * @param delegate десериализатор сообщений с одной записью
+     */
+    public RecordEnvelopeDeserializer(Deserializer<Object> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public List<Object> deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public List<Object> deserialize(String topic, Headers headers, byte[] data) {
+        if (RecordEnvelopes.recordCount(headers) >= 0) {
+            return RecordEnvelopes.unpack(data, headers);
+        }
+        Object value = delegate.deserialize(topic, headers, data);
+        return value != null
+                ? List.of(value)
+                : Collections.emptyList();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
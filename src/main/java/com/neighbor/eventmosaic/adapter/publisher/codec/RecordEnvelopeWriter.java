@@ -0,0 +1,135 @@
+package com.neighbor.eventmosaic.adapter.publisher.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+
+/**
+ * Сборка конверта - одного сообщения Kafka с несколькими записями одного типа.
+ * <p>
+ * JSON-конверт - массив записей в формате {@link JsonRecordWriter}. Двоичный конверт - последовательность
+ * записей {@link RecordCodec}, каждая с длиной в varint. Количество записей передается в заголовке
+ * {@link RecordEnvelopes#RECORD_COUNT_HEADER}, тип записей - в заголовках {@code contentType} и {@code __TypeId__};
+ * разбирается конверт методом {@link RecordEnvelopes#unpack}.
+ * <p>
+ * Записи кодируются сразу при добавлении, поэтому размер конверта известен до отправки.
+ * Экземпляр не потокобезопасен и собирает один конверт.
+ *
+ * @param <T> тип записей
+ */
+public final class RecordEnvelopeWriter<T> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+    private final Class<T> recordType;
+    private final RecordCodec<T> codec;
+    private final JsonRecordWriter<T> jsonWriter;
+    private final ByteArrayBuilder buffer = new ByteArrayBuilder(INITIAL_BUFFER_SIZE);
+    private JsonGenerator generator;
+    private int count;
+
+    private RecordEnvelopeWriter(Class<T> recordType, boolean binary) {
+        this.recordType = recordType;
+        this.codec = binary ? RecordCodecs.forRecordType(recordType) : null;
+        this.jsonWriter = binary ? null : StreamingJsonRecordSerializer.writer(recordType);
+        if (codec == null && jsonWriter == null) {
+            throw new IllegalArgumentException("Для " + recordType.getName() + " нет формата записи");
+        }
+    }
+
+    /**
+     * Создает конверт для записей
+     *
+     * @param recordType класс записей (Event или Mention)
+     * @param binary     двоичный формат записей вместо JSON
+     */
+    public static <T> RecordEnvelopeWriter<T> create(Class<T> recordType, boolean binary) {
+        return new RecordEnvelopeWriter<>(recordType, binary);
+    }
+
+    /**
+     * Добавляет запись в конверт
+     */
+    public void add(T rec) {
+        try {
+            if (codec != null) {
+                byte[] encoded = codec.encode(rec);
+                writeVarint(encoded.length);
+                buffer.write(encoded);
+            } else {
+                if (generator == null) {
+                    generator = JSON_FACTORY.createGenerator(buffer);
+                    generator.writeStartArray();
+                }
+                jsonWriter.write(rec, generator);
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Не удалось записать " + recordType.getSimpleName() + " в конверт", e);
+        }
+        count++;
+    }
+
+    /**
+     * Количество записей в конверте
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Текущий размер конверта в байтах
+     */
+    public int size() {
+        return buffer.size();
+    }
+
+    /**
+     * Тип содержимого записей для заголовка {@code contentType}
+     */
+    public String contentType() {
+        return codec != null
+                ? RecordCodecs.contentType(recordType)
+                : RecordCodecs.JSON_CONTENT_TYPE;
+    }
+
+    /**
+     * Класс записей для заголовка {@code __TypeId__}
+     */
+    public Class<T> recordType() {
+        return recordType;
+    }
+
+    /**
+     * Завершает конверт
+     *
+     * @return содержимое конверта
+     */
+    public byte[] finish() {
+        if (codec == null) {
+            try {
+                if (generator == null) {
+                    generator = JSON_FACTORY.createGenerator(buffer);
+                    generator.writeStartArray();
+                }
+                generator.writeEndArray();
+                generator.close();
+            } catch (IOException e) {
+                throw new SerializationException("Не удалось завершить конверт " + recordType.getSimpleName(), e);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.append((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer.append(value);
+    }
+}
@@ -0,0 +1,113 @@
+package com.neighbor.eventmosaic.adapter.publisher.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.UtilityClass;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разбор конвертов записей (см. {@link RecordEnvelopeWriter}) для потребителей топиков-конвертов.
+ * Конверт отличается от сообщения с одной записью заголовком {@link #RECORD_COUNT_HEADER}.
+ */
+@UtilityClass
+public class RecordEnvelopes {
+
+    /**
+     * Заголовок с количеством записей в конверте
+     */
+    public static final String RECORD_COUNT_HEADER = "X-Record-Count";
+
+    private static final ObjectMapper OBJECT_MAPPER = JacksonUtils.enhancedObjectMapper();
+
+    /**
+     * Возвращает количество записей в конверте или -1, если сообщение не является конвертом
+     */
+    public static int recordCount(Headers headers) {
+        String count = header(headers, RECORD_COUNT_HEADER);
+        if (count == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(count);
+        } catch (NumberFormatException e) {
+            throw new SerializationException("Некорректный заголовок " + RECORD_COUNT_HEADER + ": " + count, e);
+        }
+    }
+
+    /**
+     * Разбирает конверт записей
+     *
+     * @param data    значение сообщения
+     * @param headers заголовки сообщения
+     * @return записи конверта в порядке отправки
+     * @throws SerializationException если сообщение не является конвертом записей GDELT или повреждено
+     */
+    public static List<Object> unpack(byte[] data, Headers headers) {
+        int count = recordCount(headers);
+        String typeId = header(headers, AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        Class<?> recordType = RecordCodecs.recordType(typeId);
+        if (count < 0 || recordType == null || data == null) {
+            throw new SerializationException("Сообщение не является конвертом записей: " + RECORD_COUNT_HEADER
+                    + "=" + header(headers, RECORD_COUNT_HEADER) + ", тип " + typeId);
+        }
+
+        RecordCodec<?> codec = RecordCodecs.forContentType(RecordCodecs.contentType(headers));
+        List<Object> records = codec != null
+                ? unpackBinary(data, codec, count)
+                : unpackJson(data, recordType);
+        if (records.size() != count) {
+            throw new SerializationException("Конверт содержит " + records.size() + " записей вместо " + count);
+        }
+        return records;
+    }
+
+    private static List<Object> unpackBinary(byte[] data, RecordCodec<?> codec, int count) {
+        List<Object> records = new ArrayList<>(count);
+        int position = 0;
+        try {
+            while (position < data.length) {
+                int length = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = data[position++];
+                    length |= (b & 0x7F) << shift;
+                    if ((b & 0x80) == 0) {
+                        break;
+                    }
+                }
+                if (length < 0 || length > data.length - position) {
+                    throw new SerializationException("Запись конверта выходит за границы данных");
+                }
+                records.add(codec.decode(data, position, length));
+                position += length;
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("Конверт записей поврежден", e);
+        }
+        return records;
+    }
+
+    private static List<Object> unpackJson(byte[] data, Class<?> recordType) {
+        try {
+            return OBJECT_MAPPER.readerForListOf(recordType).readValue(data);
+        } catch (IOException e) {
+            throw new SerializationException("Не удалось разобрать JSON-конверт " + recordType.getSimpleName(), e);
+        }
+    }
+
+    private static String header(Headers headers, String name) {
+        Header header = headers != null
+                ? headers.lastHeader(name)
+                : null;
+        return header != null
+                ? new String(header.value(), StandardCharsets.UTF_8)
+                : null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.neighbor.eventmosaic.adapter.publisher.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.neighbor.eventmosaic.adapter.parser.EventCsvParser;
+import com.neighbor.eventmosaic.adapter.parser.MentionCsvParser;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import com.neighbor.eventmosaic.library.common.dto.Mention;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * JSON-сериализатор значений, записывающий события и упоминания через {@link JsonRecordWriter}.
+ * Остальные значения сериализуются делегатом.
+ * <p>
+ * Как и {@code JsonSerializer}, добавляет заголовок {@code __TypeId__} с именем класса, поэтому
+ * существующие потребители читают сообщения без изменений. Буфер вывода переиспользуется потоком-отправителем.
+ * Уже сериализованные значения (конверты записей, см. {@link RecordEnvelopeWriter}) записываются как есть.
+ */
+public class StreamingJsonRecordSerializer implements Serializer<Object> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int INITIAL_BUFFER_SIZE = 2048;
+
+    private static final Map<Class<?>, JsonRecordWriter<?>> WRITERS = Map.of(
+            Event.class, new JsonRecordWriter<>(EventCsvParser.SCHEMA),
+            Mention.class, new JsonRecordWriter<>(MentionCsvParser.SCHEMA));
+
+    private static final Map<Class<?>, byte[]> TYPE_IDS = Map.of(
+            Event.class, Event.class.getName().getBytes(StandardCharsets.UTF_8),
+            Mention.class, Mention.class.getName().getBytes(StandardCharsets.UTF_8));
+
+    private final Serializer<Object> delegate;
+    private final ThreadLocal<ByteArrayBuilder> buffers =
+            ThreadLocal.withInitial(() -> new ByteArrayBuilder(INITIAL_BUFFER_SIZE));
+
+    /**
+     * @param delegate сериализатор остальных значений
+     */
+    public StreamingJsonRecordSerializer(Serializer<Object> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data instanceof byte[] serialized) {
+            return serialized;
+        }
+        JsonRecordWriter<Object> writer = data != null
+                ? (JsonRecordWriter<Object>) WRITERS.get(data.getClass())
+                : null;
+        if (writer == null) {
+            return delegate.serialize(topic, headers, data);
+        }
+
+        if (headers != null) {
+            headers.remove(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME)
+                    .add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, TYPE_IDS.get(data.getClass()));
+        }
+        ByteArrayBuilder buffer = buffers.get();
+        buffer.reset();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer)) {
+            writer.write(data, generator);
+        } catch (IOException e) {
+            throw new SerializationException("Не удалось записать " + data.getClass().getSimpleName() + " в JSON", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Возвращает запись JSON по схеме для класса записи или null, если класс не является записью GDELT
+     */
+    @SuppressWarnings("unchecked")
+    static <T> JsonRecordWriter<T> writer(Class<T> recordType) {
+        return (JsonRecordWriter<T>) WRITERS.get(recordType);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,36 @@
+package com.neighbor.eventmosaic.adapter.registry;
+
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+
+/**
+ * Выключенное хранилище контрольных точек
+ */
+enum DisabledFileCheckpointStore implements FileCheckpointStore {
+
+    INSTANCE;
+
+    @Override
+    public long resumePosition(FileMetadata file, String batchId) {
+        return 0;
+    }
+
+    @Override
+    public void save(FileMetadata file, String batchId, long records) {
+        // Хранилище выключено
+    }
+
+    @Override
+    public void remove(FileMetadata file, String batchId) {
+        // Хранилище выключено
+    }
+
+    @Override
+    public int interval() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,26 @@
+package com.neighbor.eventmosaic.adapter.registry;
+
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+
+/**
+ * Выключенный реестр обработанных файлов
+ */
+enum DisabledProcessedFileRegistry implements ProcessedFileRegistry {
+
+    INSTANCE;
+
+    @Override
+    public boolean isProcessed(FileMetadata file, String batchId) {
+        return false;
+    }
+
+    @Override
+    public void markProcessed(FileMetadata file, String batchId) {
+        // Реестр выключен
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
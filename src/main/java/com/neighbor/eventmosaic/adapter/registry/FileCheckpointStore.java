@@ -0,0 +1,56 @@
+package com.neighbor.eventmosaic.adapter.registry;
+
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+
+/**
+ * Хранилище контрольных точек обработки файлов.
+ * Контрольная точка - количество первых записей файла, подтвержденных брокером. Она относится к файлу
+ * с тем же путем, версией (ETag) и идентификатором батча, поэтому перезаписанный файл обрабатывается сначала.
+ */
+public interface FileCheckpointStore {
+
+    /**
+     * Возвращает позицию, с которой продолжается обработка файла
+     *
+     * @param file    сведения о файле в источнике
+     * @param batchId идентификатор батча
+     * @return количество уже подтвержденных записей или 0, если контрольной точки нет
+     */
+    long resumePosition(FileMetadata file, String batchId);
+
+    /**
+     * Сохраняет контрольную точку после подтверждения брокером всех отправленных записей
+     *
+     * @param file    сведения о файле, полученные до его загрузки
+     * @param batchId идентификатор батча
+     * @param records количество первых записей файла, переданных на отправку
+     */
+    void save(FileMetadata file, String batchId, long records);
+
+    /**
+     * Удаляет контрольную точку после обработки файла
+     *
+     * @param file    сведения о файле
+     * @param batchId идентификатор батча
+     */
+    void remove(FileMetadata file, String batchId);
+
+    /**
+     * Количество записей между контрольными точками
+     */
+    int interval();
+
+    /**
+     * Используется ли хранилище. Если нет, сведения о файле перед обработкой не запрашиваются
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Хранилище, которое не сохраняет контрольные точки: каждый файл обрабатывается сначала
+     */
+    static FileCheckpointStore disabled() {
+        return DisabledFileCheckpointStore.INSTANCE;
+    }
+}
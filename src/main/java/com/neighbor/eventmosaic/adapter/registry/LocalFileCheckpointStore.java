@@ -0,0 +1,178 @@
+package com.neighbor.eventmosaic.adapter.registry;
+
+import com.neighbor.eventmosaic.adapter.exception.FileAccessException;
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Контрольные точки обработки файлов в локальном каталоге: по одному небольшому файлу на обрабатываемый файл.
+ * <p>
+ * Точка перезаписывается атомарно (через временный файл), поэтому при сбое остается предыдущая точка.
+ * Файл точки не синхронизируется с диском: потерянная точка приводит лишь к повторной отправке записей.
+ * Точки файлов, обработка которых не была завершена, удаляются при запуске по истечении периода хранения.
+ * <p>
+ * Перед сохранением точки вызывается {@code beforeSave} (ожидание подтверждения отправленных записей
+ * брокером), чтобы точка не опережала доставку записей.
+ */
+@Slf4j
+public class LocalFileCheckpointStore implements FileCheckpointStore, MeterBinder {
+
+    private static final char SEPARATOR = '\t';
+    private static final int FIELDS = 4;
+    private static final String SUFFIX = ".checkpoint";
+
+    private final Path directory;
+    private final int interval;
+    private final Runnable beforeSave;
+
+    private final LongAdder resumedFiles = new LongAdder();
+    private final LongAdder resumedRecords = new LongAdder();
+    private final LongAdder saved = new LongAdder();
+
+    /**
+     * @param directory  каталог контрольных точек; создается при необходимости
+     * @param retention  период хранения точек незавершенных файлов
+     * @param interval   количество записей между контрольными точками
+     * @param beforeSave действие перед сохранением точки
+     */
+    public LocalFileCheckpointStore(Path directory, Duration retention, int interval, Runnable beforeSave) {
+        this.directory = directory;
+        this.interval = interval;
+        this.beforeSave = beforeSave;
+        try {
+            Files.createDirectories(directory);
+            removeExpired(retention);
+        } catch (IOException e) {
+            throw new FileAccessException("Не удалось открыть каталог контрольных точек: " + directory, e);
+        }
+        log.info("Контрольные точки обработки файлов: {}, интервал: {} записей", directory, interval);
+    }
+
+    @Override
+    public long resumePosition(FileMetadata file, String batchId) {
+        if (file.etag() == null) {
+            return 0;
+        }
+        String key = key(file, batchId);
+        try {
+            String[] fields = Files.readString(checkpoint(key), StandardCharsets.UTF_8)
+                    .split(String.valueOf(SEPARATOR), FIELDS);
+            // Совпадение хеша имени не гарантирует совпадение ключа
+            if (fields.length != FIELDS || !key.equals(fields[1] + SEPARATOR + fields[2] + SEPARATOR + fields[3])) {
+                return 0;
+            }
+            long records = Long.parseLong(fields[0]);
+            resumedFiles.increment();
+            resumedRecords.add(records);
+            return records;
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Не удалось прочитать контрольную точку файла {}, обработка начнется сначала", file.path(), e);
+            return 0;
+        }
+    }
+
+    @Override
+    public void save(FileMetadata file, String batchId, long records) {
+        if (file.etag() == null) {
+            return;
+        }
+        beforeSave.run();
+
+        String key = key(file, batchId);
+        Path checkpoint = checkpoint(key);
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try {
+            Files.writeString(temp, records + String.valueOf(SEPARATOR) + key, StandardCharsets.UTF_8);
+            Files.move(temp, checkpoint, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            saved.increment();
+            log.debug("Контрольная точка файла {}: {} записей", file.path(), records);
+        } catch (IOException e) {
+            // При повторной обработке файл продолжится с предыдущей точки
+            log.warn("Не удалось сохранить контрольную точку файла {}", file.path(), e);
+        }
+    }
+
+    @Override
+    public void remove(FileMetadata file, String batchId) {
+        if (file.etag() == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(checkpoint(key(file, batchId)));
+        } catch (IOException e) {
+            log.warn("Не удалось удалить контрольную точку файла {}", file.path(), e);
+        }
+    }
+
+    @Override
+    public int interval() {
+        return interval;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("adapter.checkpoint.resumed.files", resumedFiles, LongAdder::sum)
+                .description("Файлы, обработка которых продолжена с контрольной точки")
+                .register(registry);
+        FunctionCounter.builder("adapter.checkpoint.resumed.records", resumedRecords, LongAdder::sum)
+                .description("Записи, которые не отправлялись повторно благодаря контрольным точкам")
+                .register(registry);
+        FunctionCounter.builder("adapter.checkpoint.saved", saved, LongAdder::sum)
+                .description("Сохраненные контрольные точки")
+                .register(registry);
+    }
+
+    /**
+     * Удаляет точки, которые не обновлялись дольше периода хранения, и недописанные временные файлы
+     */
+    private void removeExpired(Duration retention) throws IOException {
+        long threshold = System.currentTimeMillis() - retention.toMillis();
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX + "*")) {
+            for (Path file : files) {
+                if (file.getFileName().toString().endsWith(".tmp")
+                        || Files.getLastModifiedTime(file).toMillis() < threshold) {
+                    Files.deleteIfExists(file);
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            log.info("Удалено {} устаревших контрольных точек в {}", removed, directory);
+        }
+    }
+
+    private Path checkpoint(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash, 0, 16) + SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Ключ точки: батч, ETag и путь через табуляцию. Путь последний, поэтому может содержать разделитель
+     */
+    private static String key(FileMetadata file, String batchId) {
+        return batchId + SEPARATOR + file.etag() + SEPARATOR + file.path();
+    }
+}
@@ -0,0 +1,208 @@
+package com.neighbor.eventmosaic.adapter.registry;
+
+import com.neighbor.eventmosaic.adapter.exception.FileAccessException;
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Реестр обработанных файлов в локальном журнале.
+ * <p>
+ * Все записи за период хранения находятся в памяти, поэтому проверка не обращается к диску.
+ * Каждая отметка дописывается строкой в журнал, который читается при запуске; устаревшие записи
+ * удаляются при запуске и при перезаписи журнала, когда в нем накапливается много устаревших строк.
+ * Журнал не синхронизируется с диском при каждой отметке: потерянная при сбое отметка приводит
+ * лишь к повторной обработке файла.
+ * <p>
+ * Перед отметкой вызывается {@code beforeMark} (например, ожидание подтверждения отправленных
+ * записей брокером), чтобы файл не был отмечен до доставки его записей.
+ */
+@Slf4j
+public class LocalProcessedFileRegistry implements ProcessedFileRegistry, MeterBinder, Closeable {
+
+    private static final char SEPARATOR = '\t';
+    private static final int FIELDS = 4;
+    private static final int MIN_COMPACTION_LINES = 1000;
+
+    private final Path journal;
+    private final long retentionMillis;
+    private final Runnable beforeMark;
+
+    /**
+     * Время обработки по ключу файла (батч, ETag, путь)
+     */
+    private final Map<String, Long> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder skippedFiles = new LongAdder();
+    private final LongAdder skippedBytes = new LongAdder();
+
+    private BufferedWriter writer;
+    private int journalLines;
+
+    /**
+     * @param journal    файл журнала; создается при необходимости
+     * @param retention  период, в течение которого файл считается обработанным
+     * @param beforeMark действие перед отметкой файла
+     */
+    public LocalProcessedFileRegistry(Path journal, Duration retention, Runnable beforeMark) {
+        this.journal = journal;
+        this.retentionMillis = retention.toMillis();
+        this.beforeMark = beforeMark;
+        try {
+            Path parent = journal.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            load();
+            compact();
+        } catch (IOException e) {
+            throw new FileAccessException("Не удалось открыть журнал обработанных файлов: " + journal, e);
+        }
+        log.info("Реестр обработанных файлов: {}, записей: {}", journal, entries.size());
+    }
+
+    @Override
+    public boolean isProcessed(FileMetadata file, String batchId) {
+        if (file.etag() == null) {
+            return false;
+        }
+        Long processedAt = entries.get(key(file, batchId));
+        if (processedAt == null || isExpired(processedAt, System.currentTimeMillis())) {
+            return false;
+        }
+        skippedFiles.increment();
+        skippedBytes.add(file.size());
+        return true;
+    }
+
+    @Override
+    public void markProcessed(FileMetadata file, String batchId) {
+        if (file.etag() == null) {
+            log.debug("Файл {} без ETag не отмечается в реестре", file.path());
+            return;
+        }
+        beforeMark.run();
+
+        long now = System.currentTimeMillis();
+        entries.put(key(file, batchId), now);
+        synchronized (this) {
+            try {
+                writer.write(line(now, key(file, batchId)));
+                writer.newLine();
+                writer.flush();
+                journalLines++;
+                if (journalLines > Math.max(MIN_COMPACTION_LINES, entries.size() * 2)) {
+                    compact();
+                }
+            } catch (IOException e) {
+                // Файл будет обработан повторно, если сообщение о нем придет снова
+                log.warn("Не удалось записать файл {} в журнал обработанных файлов", file.path(), e);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("adapter.registry.skipped.files", skippedFiles, LongAdder::sum)
+                .description("Файлы, пропущенные как уже обработанные")
+                .register(registry);
+        FunctionCounter.builder("adapter.registry.skipped.bytes", skippedBytes, LongAdder::sum)
+                .description("Размер файлов, пропущенных как уже обработанные")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("adapter.registry.entries", entries, Map::size)
+                .description("Записи в реестре обработанных файлов")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Читает журнал, пропуская устаревшие и поврежденные строки (например, недописанную при сбое)
+     */
+    private void load() throws IOException {
+        if (!Files.exists(journal)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int skipped = 0;
+        for (String line : Files.readAllLines(journal, StandardCharsets.UTF_8)) {
+            String[] fields = line.split(String.valueOf(SEPARATOR), FIELDS);
+            try {
+                long processedAt = Long.parseLong(fields[0]);
+                if (fields.length == FIELDS && !isExpired(processedAt, now)) {
+                    entries.merge(key(fields[3], fields[2], fields[1]), processedAt, Math::max);
+                }
+            } catch (NumberFormatException e) {
+                skipped++;
+            }
+        }
+        if (skipped > 0) {
+            log.warn("Пропущено {} поврежденных строк журнала обработанных файлов {}", skipped, journal);
+        }
+    }
+
+    /**
+     * Удаляет устаревшие записи и атомарно перезаписывает журнал актуальными
+     */
+    private synchronized void compact() throws IOException {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(processedAt -> isExpired(processedAt, now));
+
+        if (writer != null) {
+            writer.close();
+        }
+        Path temp = journal.resolveSibling(journal.getFileName() + ".tmp");
+        List<String> lines = entries.entrySet().stream()
+                .map(entry -> line(entry.getValue(), entry.getKey()))
+                .toList();
+        Files.write(temp, lines, StandardCharsets.UTF_8);
+        Files.move(temp, journal, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        journalLines = lines.size();
+
+        writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private boolean isExpired(long processedAt, long now) {
+        return now - processedAt > retentionMillis;
+    }
+
+    private static String key(FileMetadata file, String batchId) {
+        return key(file.path(), file.etag(), batchId);
+    }
+
+    /**
+     * Ключ записи: батч, ETag и путь через табуляцию. Путь последний, поэтому может содержать разделитель
+     */
+    private static String key(String path, String etag, String batchId) {
+        return batchId + SEPARATOR + etag + SEPARATOR + path;
+    }
+
+    /**
+     * Строка журнала: время обработки и ключ записи
+     */
+    private static String line(long processedAt, String key) {
+        return processedAt + String.valueOf(SEPARATOR) + key;
+    }
+}
@@ -0,0 +1,42 @@
+package com.neighbor.eventmosaic.adapter.registry;
+
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+
+/**
+ * Реестр обработанных файлов.
+ * Файл считается обработанным, если обработан файл с тем же путем, версией (ETag) и идентификатором батча:
+ * повторное сообщение с тем же путем пропускается до загрузки файла, а перезаписанный файл обрабатывается заново.
+ */
+public interface ProcessedFileRegistry {
+
+    /**
+     * Проверяет, был ли файл этой версии уже обработан
+     *
+     * @param file    сведения о файле в источнике
+     * @param batchId идентификатор батча
+     * @return true, если файл можно пропустить
+     */
+    boolean isProcessed(FileMetadata file, String batchId);
+
+    /**
+     * Отмечает файл обработанным. Вызывается после отправки всех записей файла
+     *
+     * @param file    сведения о файле, полученные до его загрузки
+     * @param batchId идентификатор батча
+     */
+    void markProcessed(FileMetadata file, String batchId);
+
+    /**
+     * Используется ли реестр. Если нет, сведения о файле перед обработкой не запрашиваются
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Реестр, который не хранит файлы: каждый файл обрабатывается
+     */
+    static ProcessedFileRegistry disabled() {
+        return DisabledProcessedFileRegistry.INSTANCE;
+    }
+}
@@ -0,0 +1,57 @@
+package com.neighbor.eventmosaic.adapter.registry;
+
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Реестр обработанных файлов для транзакционной отправки.
+ * Внутри транзакции файл отмечается только после ее фиксации: если транзакция с записями файла
+ * будет отменена, файл не окажется отмеченным и будет обработан повторно.
+ * Вне транзакции файл отмечается сразу.
+ */
+public class TransactionAwareProcessedFileRegistry implements ProcessedFileRegistry, Closeable {
+
+    private final ProcessedFileRegistry delegate;
+
+    /**
+     * @param delegate реестр, в котором отмечаются файлы
+     */
+    public TransactionAwareProcessedFileRegistry(ProcessedFileRegistry delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean isProcessed(FileMetadata file, String batchId) {
+        return delegate.isProcessed(file, batchId);
+    }
+
+    @Override
+    public void markProcessed(FileMetadata file, String batchId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            delegate.markProcessed(file, batchId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                delegate.markProcessed(file, batchId);
+            }
+        });
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return delegate.isEnabled();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -1,12 +1,58 @@
 package com.neighbor.eventmosaic.adapter.service;
 
+import com.neighbor.eventmosaic.adapter.parser.ParseSummary;
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Сервис для обработки CSV-файлов
  */
 public interface CsvProcessingService {
 
+    /**
+     * Потоково обрабатывает CSV-файл, передавая каждый объект получателю по мере парсинга
+     *
+     * @param path        путь к CSV-файлу
+     * @param targetClass класс, в который будут преобразованы данные
+     * @param consumer    получатель объектов заданного типа
+     * @return итоги разбора файла: количество переданных получателю объектов и счетчики качества данных
+     */
+    <T> ParseSummary processCsvFile(String path, Class<T> targetClass, Consumer<? super T> consumer);
+
+    /**
+     * Повторно обрабатывает версию CSV-файла, сведения о которой уже получены, даже если файл этой версии
+     * уже отмечен в реестре обработанных файлов (например, при повторной обработке за прошедший период)
+     *
+     * @param file        сведения о файле
+     * @param targetClass класс, в который будут преобразованы данные
+     * @param consumer    получатель объектов заданного типа
+     * @return итоги разбора файла
+     */
+    <T> ParseSummary reprocessCsvFile(FileMetadata file, Class<T> targetClass, Consumer<? super T> consumer);
+
+    /**
+     * Потоково обрабатывает уже загруженное содержимое CSV-файла, передавая каждый объект получателю
+     *
+     * @param file        сведения о файле, полученные до загрузки; по пути определяется сжатие
+     * @param content     содержимое файла; закрывается после обработки
+     * @param targetClass класс, в который будут преобразованы данные
+     * @param consumer    получатель объектов заданного типа
+     * @return итоги разбора файла
+     */
+    <T> ParseSummary processCsvContent(FileMetadata file, InputStream content, Class<T> targetClass, Consumer<? super T> consumer);
+
+    /**
+     * Проверяет, обработан ли уже файл этой версии, чтобы не загружать его повторно
+     *
+     * @param file сведения о файле
+     * @return true, если файл можно пропустить
+     */
+    boolean isProcessed(FileMetadata file);
+
     /**
      * Обрабатывает CSV-файл и возвращает список объектов заданного типа
      *
@@ -14,5 +60,9 @@ public interface CsvProcessingService {
      * @param targetClass класс, в который будут преобразованы данные
      * @return список объектов заданного типа
      */
-    <T> List<T> processCsvFile(String path, Class<T> targetClass);
+    default <T> List<T> processCsvFile(String path, Class<T> targetClass) {
+        List<T> results = new ArrayList<>();
+        processCsvFile(path, targetClass, results::add);
+        return results;
+    }
 }
@@ -1,22 +1,32 @@
 package com.neighbor.eventmosaic.adapter.service;
 
+import com.neighbor.eventmosaic.adapter.exception.AdapterException;
 import com.neighbor.eventmosaic.adapter.exception.CsvParsingException;
 import com.neighbor.eventmosaic.adapter.exception.FileAccessException;
 import com.neighbor.eventmosaic.adapter.exception.ParserNotFoundException;
 import com.neighbor.eventmosaic.adapter.parser.CsvParser;
+import com.neighbor.eventmosaic.adapter.parser.ParseSummary;
+import com.neighbor.eventmosaic.adapter.registry.FileCheckpointStore;
+import com.neighbor.eventmosaic.adapter.registry.ProcessedFileRegistry;
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
 import com.neighbor.eventmosaic.adapter.source.FileSourceProvider;
+import com.neighbor.eventmosaic.adapter.util.CompressionUtil;
+import com.neighbor.eventmosaic.adapter.util.FileNameUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Сервис для обработки CSV файлов, получения их содержимого и
  * преобразования в объекты соответствующего типа.
+ * Файлы, уже отмеченные в реестре обработанных файлов, пропускаются до загрузки.
+ * Если для файла той же версии есть контрольная точка, записи до нее разбираются, но получателю не передаются.
  */
 @Slf4j
 @Service
@@ -27,23 +37,92 @@ public class CsvProcessingServiceImpl implements CsvProcessingService {
 
     private final FileSourceProvider fileSourceProvider;
 
+    private final ProcessedFileRegistry processedFileRegistry;
+
+    private final FileCheckpointStore checkpointStore;
+
     /**
-     * Обрабатывает CSV файл, преобразуя его содержимое в список объектов указанного типа.
+     * Потоково обрабатывает CSV файл, передавая объекты указанного типа получателю по мере парсинга.
+     * Архивы {@code .zip} и {@code .gz} распаковываются на лету.
+     * Исключения приложения (в том числе ошибки получателя) пробрасываются без изменений.
+     * Если файл этой версии уже обработан, он не загружается и возвращаются пустые итоги.
+     * Обработка продолжается с контрольной точки файла, если она есть.
      *
      * @param path        путь к CSV файлу
      * @param targetClass целевой класс для преобразования
+     * @param consumer    получатель объектов, созданных из данных CSV
      * @param <T>         тип целевых объектов
-     * @return список объектов, созданных из данных CSV
+     * @return итоги разбора файла
      * @throws ParserNotFoundException если не найден парсер для указанного типа
      * @throws FileAccessException     если не удалось получить доступ к файлу
      * @throws CsvParsingException     если возникла ошибка при парсинге CSV
      */
     @Override
+    public <T> ParseSummary processCsvFile(String path, Class<T> targetClass, Consumer<? super T> consumer) {
+        if (!processedFileRegistry.isEnabled() && !checkpointStore.isEnabled()) {
+            return process(path, () -> fileSourceProvider.getFileContent(path), targetClass, consumer);
+        }
+
+        FileMetadata file = fileSourceProvider.stat(path);
+        String batchId = FileNameUtil.extractBatchId(path);
+        if (processedFileRegistry.isProcessed(file, batchId)) {
+            log.info("Файл {} (ETag: {}) уже обработан, пропуск", path, file.etag());
+            return ParseSummary.empty();
+        }
+        return processResumable(file, batchId, () -> fileSourceProvider.getFileContent(file), targetClass, consumer);
+    }
+
+    /**
+     * Потоково обрабатывает версию CSV файла без проверки реестра обработанных файлов и отмечает файл в реестре.
+     * Обработка продолжается с контрольной точки файла, если она есть.
+     * Обработка ошибок такая же, как в {@link #processCsvFile(String, Class, Consumer)}.
+     */
+    @Override
+    public <T> ParseSummary reprocessCsvFile(FileMetadata file, Class<T> targetClass, Consumer<? super T> consumer) {
+        return processResumable(file, FileNameUtil.extractBatchId(file.path()),
+                () -> fileSourceProvider.getFileContent(file), targetClass, consumer);
+    }
+
+    /**
+     * Потоково обрабатывает загруженное заранее содержимое CSV файла и отмечает файл в реестре обработанных.
+     * Обработка ошибок такая же, как в {@link #processCsvFile(String, Class, Consumer)}.
+     */
+    @Override
+    public <T> ParseSummary processCsvContent(FileMetadata file, InputStream content, Class<T> targetClass,
+                                              Consumer<? super T> consumer) {
+        return processResumable(file, FileNameUtil.extractBatchId(file.path()), () -> content, targetClass, consumer);
+    }
+
+    @Override
+    public boolean isProcessed(FileMetadata file) {
+        return processedFileRegistry.isProcessed(file, FileNameUtil.extractBatchId(file.path()));
+    }
+
+    /**
+     * Обрабатывает файл с контрольными точками и отмечает его в реестре обработанных.
+     * Контрольная точка сохраняется каждые {@link FileCheckpointStore#interval()} записей
+     * и удаляется после обработки файла; при ошибке остается последняя сохраненная точка.
+     */
+    private <T> ParseSummary processResumable(FileMetadata file, String batchId, Supplier<InputStream> content,
+                                              Class<T> targetClass, Consumer<? super T> consumer) {
+        long resumeFrom = checkpointStore.resumePosition(file, batchId);
+        if (resumeFrom > 0) {
+            log.info("Обработка файла {} продолжается с контрольной точки: {} записей уже подтверждены брокером",
+                    file.path(), resumeFrom);
+        }
+        ParseSummary summary = process(file.path(), content, targetClass,
+                new CheckpointingConsumer<>(file, batchId, resumeFrom, consumer));
+        processedFileRegistry.markProcessed(file, batchId);
+        checkpointStore.remove(file, batchId);
+        return summary;
+    }
+
     @SuppressWarnings("unchecked")
-    public <T> List<T> processCsvFile(String path, Class<T> targetClass) {
+    private <T> ParseSummary process(String path, Supplier<InputStream> content, Class<T> targetClass,
+                                     Consumer<? super T> consumer) {
         log.info("Начало обработки CSV файла: {}, тип данных: {}", path, targetClass.getSimpleName());
 
-        CsvParser<?> parser = parsersMap.get(targetClass);
+        CsvParser<T> parser = (CsvParser<T>) parsersMap.get(targetClass);
         if (parser == null) {
             log.error("Парсер не найден для типа: {}", targetClass.getName());
             throw new ParserNotFoundException("Парсер не найден для типа: " + targetClass.getName());
@@ -51,19 +130,57 @@ public class CsvProcessingServiceImpl implements CsvProcessingService {
 
         log.debug("Найден парсер: {}", parser.getClass().getSimpleName());
 
-        try (InputStream is = fileSourceProvider.getFileContent(path)) {
+        try (InputStream is = CompressionUtil.decompress(content.get(), path)) {
             log.debug("Начало парсинга файла: {}", path);
-            List<?> results = parser.parseStream(is, StandardCharsets.UTF_8);
-            log.info("Файл {} успешно обработан, получено {} записей", path, results.size());
-            return (List<T>) results;
+            ParseSummary summary = parser.parseStream(is, StandardCharsets.UTF_8, consumer);
+            log.info("Файл {} успешно обработан, получено {} записей", path, summary.records());
+            if (summary.totalMalformedValues() > 0 || summary.skippedRecords() > 0) {
+                log.warn("Файл {} содержит некорректные данные: {}", path, summary);
+            }
+            return summary;
 
         } catch (FileAccessException e) {
             log.error("Ошибка доступа к файлу: {}", path, e);
             throw e;
 
+        } catch (AdapterException e) {
+            log.error("Ошибка при обработке записей CSV файла: {}", path, e);
+            throw e;
+
         } catch (Exception e) {
             log.error("Ошибка при обработке CSV файла: {}", path, e);
             throw new CsvParsingException("Ошибка при обработке CSV файла: " + path, e);
         }
     }
+
+    /**
+     * Получатель, пропускающий записи до контрольной точки и сохраняющий новые точки по мере обработки.
+     * Записи передаются парсером в порядке файла, поэтому номер записи одинаков при каждой обработке.
+     */
+    private final class CheckpointingConsumer<T> implements Consumer<T> {
+
+        private final FileMetadata file;
+        private final String batchId;
+        private final long resumeFrom;
+        private final Consumer<? super T> delegate;
+        private long records;
+
+        private CheckpointingConsumer(FileMetadata file, String batchId, long resumeFrom, Consumer<? super T> delegate) {
+            this.file = file;
+            this.batchId = batchId;
+            this.resumeFrom = resumeFrom;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void accept(T rec) {
+            if (records++ < resumeFrom) {
+                return;
+            }
+            delegate.accept(rec);
+            if ((records - resumeFrom) % checkpointStore.interval() == 0) {
+                checkpointStore.save(file, batchId, records);
+            }
+        }
+    }
 }
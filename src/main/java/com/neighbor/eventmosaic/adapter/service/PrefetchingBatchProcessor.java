@@ -0,0 +1,234 @@
+package com.neighbor.eventmosaic.adapter.service;
+
+import com.neighbor.eventmosaic.adapter.config.properties.PrefetchProperties;
+import com.neighbor.eventmosaic.adapter.parser.ParseSummary;
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+import com.neighbor.eventmosaic.adapter.source.FileSourceProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Конвейерная обработка пачки путей к файлам: пока текущий файл разбирается и отправляется,
+ * следующие файлы пачки уже загружаются в память.
+ * <p>
+ * Объем загруженных, но еще не обработанных файлов ограничен общим бюджетом байтов.
+ * Бюджет занимается в вызывающем потоке строго в порядке пачки: следующий файл начинает загружаться,
+ * только если для него хватает бюджета, а ожидание бюджета возможно только когда впереди нет
+ * загруженных файлов. Поэтому обработка не может заблокироваться в ожидании бюджета, занятого
+ * файлами, которые обрабатываются позже.
+ * <p>
+ * Уже обработанные файлы (см. {@link CsvProcessingService#isProcessed}) не загружаются.
+ * <p>
+ * Файлы обрабатываются в порядке пачки, после каждого файла вызывается {@code afterFile}
+ * (ожидание подтверждения брокером отправленных записей). Ошибка обработки файла или его подтверждения
+ * прерывает пачку исключением {@link BatchListenerFailedException} с индексом файла: обработчик ошибок Kafka
+ * фиксирует смещения предыдущих, уже подтвержденных сообщений и повторяет обработку, начиная с ошибочного.
+ * Если пачка обрабатывается в транзакции Kafka, ошибка откатывает транзакцию целиком и пачка повторяется
+ * с первого файла.
+ */
+@Slf4j
+public class PrefetchingBatchProcessor implements MeterBinder {
+
+    private static final int PERMIT_BYTES = 1024;
+
+    private final CsvProcessingService csvProcessingService;
+    private final FileSourceProvider fileSourceProvider;
+    private final ExecutorService downloadPool;
+    private final int maxFiles;
+    private final int budgetPermits;
+    private final Semaphore budget;
+
+    /**
+     * @param csvProcessingService сервис обработки CSV-файлов
+     * @param fileSourceProvider   источник файлов
+     * @param downloadPool         пул потоков загрузки
+     * @param properties           настройки упреждающей загрузки
+     */
+    public PrefetchingBatchProcessor(CsvProcessingService csvProcessingService,
+                                     FileSourceProvider fileSourceProvider,
+                                     ExecutorService downloadPool,
+                                     PrefetchProperties properties) {
+        this.csvProcessingService = csvProcessingService;
+        this.fileSourceProvider = fileSourceProvider;
+        this.downloadPool = downloadPool;
+        this.maxFiles = properties.getMaxFiles();
+        this.budgetPermits = Math.toIntExact(Math.max(1, properties.getMaxBytes().toBytes() / PERMIT_BYTES));
+        this.budget = new Semaphore(budgetPermits);
+    }
+
+    /**
+     * Обрабатывает пачку файлов в исходном порядке
+     *
+     * @param paths       пути к файлам в порядке сообщений пачки
+     * @param targetClass класс записей файлов
+     * @param consumers   получатель записей для каждого пути (например, отправка с идентификатором батча файла)
+     * @param afterFile   действие после обработки каждого файла, завершающее его обработку
+     *                    (например, ожидание подтверждения отправленных записей брокером)
+     * @return итоги разбора файлов в порядке пачки
+     * @throws BatchListenerFailedException если не удалось обработать один из файлов
+     */
+    public <T> List<ParseSummary> process(List<String> paths, Class<T> targetClass,
+                                          Function<String, Consumer<? super T>> consumers, Runnable afterFile) {
+        List<Download> downloads = new ArrayList<>(paths.size());
+        List<ParseSummary> summaries = new ArrayList<>(paths.size());
+        try {
+            for (int i = 0; i < paths.size(); i++) {
+                startDownloads(paths, downloads, i);
+                Download download = downloads.get(i);
+                String path = paths.get(i);
+                if (download.isSkipped()) {
+                    log.info("Файл {} (ETag: {}) уже обработан, пропуск", path, download.file().etag());
+                    summaries.add(ParseSummary.empty());
+                    continue;
+                }
+                try (InputStream content = new ByteArrayInputStream(await(download))) {
+                    summaries.add(csvProcessingService.processCsvContent(download.file(), content, targetClass,
+                            consumers.apply(path)));
+                    afterFile.run();
+                } catch (Exception e) {
+                    throw new BatchListenerFailedException("Ошибка обработки файла " + path, e, i);
+                } finally {
+                    download.release();
+                }
+            }
+            return summaries;
+        } finally {
+            downloads.forEach(Download::cancel);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("adapter.prefetch.bytes", this, processor -> (double) processor.bytesInUse())
+                .description("Объем загруженных заранее, но еще не обработанных файлов")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Запускает загрузку следующих файлов пачки, пока хватает бюджета и не превышено количество загрузок.
+     * Если текущий файл еще не загружается, бюджет для него ожидается.
+     */
+    private void startDownloads(List<String> paths, List<Download> downloads, int current) {
+        while (downloads.size() < paths.size() && downloads.size() - current < maxFiles) {
+            int index = downloads.size();
+            String path = paths.get(index);
+            FileMetadata file;
+            try {
+                file = fileSourceProvider.stat(path);
+            } catch (RuntimeException e) {
+                if (index == current) {
+                    throw new BatchListenerFailedException("Ошибка получения сведений о файле " + path, e, index);
+                }
+                // Ошибка будет обработана, когда до файла дойдет очередь
+                return;
+            }
+            if (csvProcessingService.isProcessed(file)) {
+                downloads.add(new Download(file, 0, null));
+                continue;
+            }
+
+            int permits = permits(file);
+            if (index == current) {
+                budget.acquireUninterruptibly(permits);
+            } else if (!budget.tryAcquire(permits)) {
+                return;
+            }
+            log.debug("Упреждающая загрузка файла {} ({} КБ бюджета)", path, permits);
+            downloads.add(new Download(file, permits, downloadPool.submit(() -> read(file))));
+        }
+    }
+
+    /**
+     * Размер бюджета для файла в блоках по 1 КБ. Файл больше всего бюджета занимает бюджет целиком.
+     */
+    private int permits(FileMetadata file) {
+        return (int) Math.min(budgetPermits, Math.max(1, (file.size() + PERMIT_BYTES - 1) / PERMIT_BYTES));
+    }
+
+    private byte[] read(FileMetadata file) {
+        try (InputStream stream = fileSourceProvider.getFileContent(file)) {
+            return stream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка загрузки файла " + file.path(), e);
+        }
+    }
+
+    private static byte[] await(Download download) throws Exception {
+        try {
+            return download.future().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (CancellationException e) {
+            throw new IOException("Загрузка файла отменена", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    private long bytesInUse() {
+        return (long) (budgetPermits - budget.availablePermits()) * PERMIT_BYTES;
+    }
+
+    /**
+     * Загрузка файла и занятый ею бюджет. Бюджет освобождается один раз: после обработки или отмены.
+     * Для уже обработанного файла загрузка не запускается.
+     */
+    private final class Download {
+
+        private final FileMetadata file;
+        private final int permits;
+        private final Future<byte[]> future;
+        private boolean released;
+
+        private Download(FileMetadata file, int permits, Future<byte[]> future) {
+            this.file = file;
+            this.permits = permits;
+            this.future = future;
+        }
+
+        private FileMetadata file() {
+            return file;
+        }
+
+        private Future<byte[]> future() {
+            return future;
+        }
+
+        private boolean isSkipped() {
+            return future == null;
+        }
+
+        private void release() {
+            if (!released) {
+                released = true;
+                budget.release(permits);
+            }
+        }
+
+        private void cancel() {
+            if (future != null) {
+                future.cancel(true);
+            }
+            release();
+        }
+    }
+}
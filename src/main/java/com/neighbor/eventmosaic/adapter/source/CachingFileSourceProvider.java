@@ -0,0 +1,450 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import com.neighbor.eventmosaic.adapter.exception.FileAccessException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Провайдер, сохраняющий загруженные файлы в локальный каталог.
+ * <p>
+ * Файл кеша определяется путем и версией (ETag) файла в источнике, поэтому перезаписанный файл
+ * загружается заново. При первом обращении содержимое читается из источника и одновременно записывается
+ * на диск: разбор не ждет окончания загрузки. Файл попадает в кеш при закрытии потока, если содержимое
+ * загружено полностью; повторная обработка того же файла (например, после ошибки отправки)
+ * читает его с диска через отображение в память и не обращается к источнику за содержимым.
+ * <p>
+ * Файлы удаляются по времени последнего чтения и при превышении суммарного размера кеша,
+ * начиная с давно не читавшихся.
+ */
+@Slf4j
+public class CachingFileSourceProvider implements FileSourceProvider, MeterBinder {
+
+    private static final String FILE_SUFFIX = ".bin";
+    private static final String TEMP_SUFFIX = ".part";
+    private static final int LOCK_STRIPES = 32;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final FileSourceProvider delegate;
+    private final Path directory;
+    private final long maxSize;
+    private final Duration maxAge;
+
+    /**
+     * Блокировки по файлам кеша: проверка наличия и открытие файла, помещение загруженного файла в кеш
+     * и удаление файла при очистке кеша выполняются под блокировкой, чтобы файл не был удален
+     * между проверкой его наличия и открытием
+     */
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLong size = new AtomicLong();
+
+    /**
+     * @param delegate  источник файлов
+     * @param directory каталог кеша; создается при необходимости
+     * @param maxSize   максимальный суммарный размер файлов в кеше
+     * @param maxAge    время хранения файла с момента последнего чтения
+     */
+    public CachingFileSourceProvider(FileSourceProvider delegate, Path directory, long maxSize, Duration maxAge) {
+        this.delegate = delegate;
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        try {
+            Files.createDirectories(directory);
+            deleteTemporaryFiles();
+        } catch (IOException e) {
+            throw new FileAccessException("Не удалось подготовить каталог кеша файлов: " + directory, e);
+        }
+        evict(null);
+        log.info("Локальный кеш файлов: {}, файлов на {} байт", directory, size.get());
+    }
+
+    /**
+     * Возвращает содержимое файла из кеша, а при его отсутствии - из источника с сохранением на диск.
+     * Файлы без ETag и файлы больше емкости кеша читаются из источника напрямую.
+     *
+     * @param path путь к файлу
+     * @return поток с содержимым файла
+     */
+    @Override
+    public InputStream getFileContent(String path) {
+        return getFileContent(delegate.stat(path));
+    }
+
+    /**
+     * Возвращает содержимое версии файла из кеша, а при его отсутствии - из источника с сохранением на диск.
+     * Сведения о файле не запрашиваются повторно; источник загружает именно эту версию.
+     *
+     * @param file сведения о файле
+     * @return поток с содержимым файла
+     */
+    @Override
+    public InputStream getFileContent(FileMetadata file) {
+        if (file.etag() == null || file.size() > maxSize) {
+            log.debug("Файл {} не кешируется: ETag {}, размер {}", file.path(), file.etag(), file.size());
+            return delegate.getFileContent(file);
+        }
+
+        String key = key(file);
+        Path cached = directory.resolve(key + FILE_SUFFIX);
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            if (Files.isRegularFile(cached) && Files.size(cached) == file.size()) {
+                Files.setLastModifiedTime(cached, FileTime.from(Instant.now()));
+                InputStream stream = MappedFileInputStream.open(cached);
+                hits.increment();
+                bytesSaved.add(file.size());
+                log.debug("Файл {} прочитан из локального кеша", file.path());
+                return stream;
+            }
+        } catch (IOException e) {
+            throw new FileAccessException("Ошибка локального кеша при чтении файла: " + file.path(), e);
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        return spool(file, cached, key);
+    }
+
+    @Override
+    public FileMetadata stat(String path) {
+        return delegate.stat(path);
+    }
+
+    @Override
+    public List<FileMetadata> list(String prefix) {
+        return delegate.list(prefix);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("adapter.source.cache.requests", hits, LongAdder::sum)
+                .description("Запросы к локальному кешу файлов")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("adapter.source.cache.requests", misses, LongAdder::sum)
+                .description("Запросы к локальному кешу файлов")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("adapter.source.cache.bytes.saved", bytesSaved, LongAdder::sum)
+                .description("Байты, прочитанные из локального кеша вместо источника")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("adapter.source.cache.evictions", evictions, LongAdder::sum)
+                .description("Файлы, удаленные из локального кеша")
+                .register(registry);
+        Gauge.builder("adapter.source.cache.size", size, AtomicLong::get)
+                .description("Суммарный размер файлов в локальном кеше")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Открывает источник и записывает читаемое содержимое во временный файл (см. {@link SpoolingInputStream}).
+     * Если временный файл создать не удалось, содержимое читается из источника без сохранения.
+     */
+    private InputStream spool(FileMetadata file, Path cached, String key) {
+        InputStream source = delegate.getFileContent(file);
+        Path temp = directory.resolve(cached.getFileName() + "." + UUID.randomUUID() + TEMP_SUFFIX);
+        try {
+            OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), WRITE_BUFFER_SIZE);
+            log.debug("Загрузка файла {} в локальный кеш", file.path());
+            return new SpoolingInputStream(source, out, temp, cached, key, file);
+        } catch (IOException e) {
+            log.warn("Не удалось создать файл в каталоге кеша {}, файл {} читается без сохранения",
+                    directory, file.path(), e);
+            return source;
+        }
+    }
+
+    /**
+     * Помещает полностью загруженный временный файл в кеш атомарным переименованием,
+     * чтобы прерванная загрузка не оставила в кеше неполный файл
+     */
+    private void promote(Path temp, Path cached, String key, long bytes) throws IOException {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            Files.move(temp, cached, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            size.addAndGet(bytes);
+        } finally {
+            lock.unlock();
+        }
+        evict(cached);
+    }
+
+    /**
+     * Удаляет устаревшие файлы, а затем давно не читавшиеся, пока кеш не уложится в емкость
+     *
+     * @param retained файл, который не удаляется (только что загруженный), или null
+     */
+    private synchronized void evict(Path retained) {
+        List<CachedFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (path.getFileName().toString().endsWith(FILE_SUFFIX)) {
+                    files.add(new CachedFile(path, Files.size(path), Files.getLastModifiedTime(path).toInstant()));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось прочитать каталог кеша файлов {}", directory, e);
+            return;
+        }
+
+        files.sort(Comparator.comparing(CachedFile::lastRead));
+        long total = files.stream().mapToLong(CachedFile::size).sum();
+        Instant expiredBefore = Instant.now().minus(maxAge);
+        for (CachedFile cached : files) {
+            boolean expired = cached.lastRead().isBefore(expiredBefore);
+            if ((expired || total > maxSize) && !cached.path().equals(retained) && delete(cached.path())) {
+                total -= cached.size();
+            }
+        }
+        size.set(total);
+    }
+
+    /**
+     * Удаляет файл кеша под его блокировкой. Файл, который сейчас загружается или открывается
+     * (блокировка занята), пропускается до следующей очистки
+     */
+    private boolean delete(Path path) {
+        String name = path.getFileName().toString();
+        ReentrantLock lock = lockFor(name.substring(0, name.length() - FILE_SUFFIX.length()));
+        if (!lock.tryLock()) {
+            log.debug("Файл {} используется и не удаляется из локального кеша", name);
+            return false;
+        }
+        try {
+            Files.deleteIfExists(path);
+            evictions.increment();
+            log.debug("Файл {} удален из локального кеша", path.getFileName());
+            return true;
+        } catch (IOException e) {
+            log.warn("Не удалось удалить файл кеша {}", path, e);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+
+    private void deleteTemporaryFiles() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (path.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Имя файла кеша: SHA-256 от пути и версии файла
+     */
+    private static String key(FileMetadata metadata) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((metadata.path() + '\n' + metadata.etag()).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    private record CachedFile(Path path, long size, Instant lastRead) {
+    }
+
+    /**
+     * Поток содержимого источника, записывающий прочитанные байты во временный файл.
+     * При закрытии оставшаяся часть содержимого дочитывается (разбор архива может не дойти до конца файла,
+     * а при ошибке отправки файл обрабатывается повторно), и полностью загруженный файл помещается в кеш.
+     * Ошибка записи на диск не прерывает чтение: файл просто не попадает в кеш.
+     */
+    private final class SpoolingInputStream extends FilterInputStream {
+
+        private final OutputStream out;
+        private final Path temp;
+        private final Path cached;
+        private final String key;
+        private final FileMetadata file;
+        private long written;
+        private boolean writeFailed;
+        private boolean readFailed;
+        private boolean closed;
+
+        private SpoolingInputStream(InputStream source, OutputStream out, Path temp, Path cached, String key,
+                                    FileMetadata file) {
+            super(source);
+            this.out = out;
+            this.temp = temp;
+            this.cached = cached;
+            this.key = key;
+            this.file = file;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value;
+            try {
+                value = in.read();
+            } catch (IOException | RuntimeException e) {
+                readFailed = true;
+                throw e;
+            }
+            if (value >= 0) {
+                write(new byte[]{(byte) value}, 0, 1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read;
+            try {
+                read = in.read(buffer, offset, length);
+            } catch (IOException | RuntimeException e) {
+                readFailed = true;
+                throw e;
+            }
+            if (read > 0) {
+                write(buffer, offset, read);
+            }
+            return read;
+        }
+
+        /**
+         * Пропущенные байты также записываются в файл, поэтому читаются, а не пропускаются в источнике
+         */
+        @Override
+        public long skip(long count) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(count, WRITE_BUFFER_SIZE)];
+            long skipped = 0;
+            while (skipped < count) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, count - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void mark(int readLimit) {
+            // Не поддерживается
+        }
+
+        @Override
+        public void reset() throws IOException {
+            throw new IOException("mark/reset не поддерживается");
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                drain();
+            } finally {
+                try {
+                    in.close();
+                } finally {
+                    complete();
+                }
+            }
+        }
+
+        private void write(byte[] buffer, int offset, int length) {
+            if (writeFailed) {
+                return;
+            }
+            try {
+                out.write(buffer, offset, length);
+                written += length;
+            } catch (IOException e) {
+                writeFailed = true;
+                log.warn("Ошибка записи файла {} в локальный кеш, файл не будет сохранен", file.path(), e);
+            }
+        }
+
+        private void drain() {
+            if (readFailed || writeFailed || written >= file.size()) {
+                return;
+            }
+            byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+            try {
+                while (!writeFailed && read(buffer, 0, buffer.length) >= 0) {
+                    // Дочитываем содержимое для кеша
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Файл {} не загружен полностью и не будет сохранен в локальном кеше: {}",
+                        file.path(), e.getMessage());
+            }
+        }
+
+        private void complete() {
+            try {
+                out.close();
+                if (!readFailed && !writeFailed && written == file.size()) {
+                    promote(temp, cached, key, written);
+                    log.debug("Файл {} сохранен в локальном кеше", file.path());
+                }
+            } catch (IOException e) {
+                log.warn("Не удалось сохранить файл {} в локальном кеше", file.path(), e);
+            } finally {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("Не удалось удалить временный файл кеша {}", temp, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+/**
+ * Сведения о файле в источнике
+ *
+ * @param path путь к файлу
+ * @param size размер файла в байтах
+ * @param etag версия содержимого файла (ETag); меняется при перезаписи файла
+ */
+public record FileMetadata(String path, long size, String etag) {
+}
@@ -1,6 +1,7 @@
 package com.neighbor.eventmosaic.adapter.source;
 
 import java.io.InputStream;
+import java.util.List;
 
 /**
  * Интерфейс для получения содержимого файла
@@ -14,4 +15,32 @@ public interface FileSourceProvider {
      * @return содержимое файла
      */
     InputStream getFileContent(String path);
+
+    /**
+     * Получает содержимое версии файла, сведения о которой уже получены через {@link #stat(String)}
+     * или {@link #list(String)}, без повторного запроса сведений.
+     * Провайдеры, поддерживающие версии, не возвращают содержимое другой версии файла.
+     *
+     * @param file сведения о файле
+     * @return содержимое файла
+     */
+    default InputStream getFileContent(FileMetadata file) {
+        return getFileContent(file.path());
+    }
+
+    /**
+     * Получает сведения о файле без загрузки содержимого
+     *
+     * @param path путь к файлу
+     * @return размер и версия файла
+     */
+    FileMetadata stat(String path);
+
+    /**
+     * Получает сведения о всех файлах, пути к которым начинаются с префикса, в порядке путей
+     *
+     * @param prefix префикс пути (например, URL каталога)
+     * @return сведения о файлах; пути файлов можно передавать в {@link #getFileContent(String)}
+     */
+    List<FileMetadata> list(String prefix);
 }
@@ -0,0 +1,124 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import com.neighbor.eventmosaic.adapter.exception.FileAccessException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Реализация доступа к файлам локальной файловой системы по URL {@code file://}.
+ * <p>
+ * Файл отображается в память ({@link MappedFileInputStream}): парсер читает данные из страничного
+ * кеша ОС, без сетевых запросов и системных вызовов на каждый блок. Читаются только файлы внутри
+ * корневого каталога, чтобы путь из сообщения не открывал доступ к остальной файловой системе.
+ */
+@Slf4j
+public class LocalFileSourceProvider implements FileSourceProvider {
+
+    private final Path root;
+
+    /**
+     * @param root каталог, за пределами которого файлы не читаются
+     */
+    public LocalFileSourceProvider(Path root) {
+        Path normalized = root.toAbsolutePath().normalize();
+        try {
+            this.root = normalized.toRealPath();
+        } catch (IOException e) {
+            throw new FileAccessException("Каталог локальных файлов недоступен: " + normalized, e);
+        }
+    }
+
+    /**
+     * Открывает локальный файл через отображение в память.
+     *
+     * @param fileUrl URL файла (например, "file:///data/gdelt/20250106223000.export.CSV")
+     * @return поток данных для чтения содержимого файла
+     * @throws FileAccessException если URL некорректен, файл вне корневого каталога или недоступен
+     */
+    @Override
+    public InputStream getFileContent(String fileUrl) {
+        Path file = resolve(fileUrl);
+        log.debug("Чтение локального файла: {}", file);
+        try {
+            return MappedFileInputStream.open(file);
+        } catch (NoSuchFileException e) {
+            throw new FileAccessException("Локальный файл не найден: " + fileUrl, e);
+        } catch (IOException e) {
+            throw new FileAccessException("Ошибка чтения локального файла: " + fileUrl, e);
+        }
+    }
+
+    /**
+     * Возвращает размер и версию локального файла. Версия составляется из времени изменения
+     * и размера файла, поэтому перезаписанный файл получает новую версию.
+     *
+     * @param fileUrl URL файла
+     * @return сведения о файле
+     * @throws FileAccessException если URL некорректен, файл вне корневого каталога или недоступен
+     */
+    @Override
+    public FileMetadata stat(String fileUrl) {
+        Path file = resolve(fileUrl);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            String etag = Long.toHexString(attributes.lastModifiedTime().toMillis()) + "-" + Long.toHexString(attributes.size());
+            return new FileMetadata(fileUrl, attributes.size(), etag);
+        } catch (NoSuchFileException e) {
+            throw new FileAccessException("Локальный файл не найден: " + fileUrl, e);
+        } catch (IOException e) {
+            throw new FileAccessException("Ошибка чтения сведений о локальном файле: " + fileUrl, e);
+        }
+    }
+
+    /**
+     * Возвращает сведения о файлах каталога и его подкаталогов.
+     *
+     * @param prefix URL каталога (например, "file:///data/gdelt/2025/01/")
+     * @return сведения о файлах в порядке путей
+     * @throws FileAccessException если URL некорректен, каталог вне корневого каталога или недоступен
+     */
+    @Override
+    public List<FileMetadata> list(String prefix) {
+        Path directory = resolve(prefix);
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .sorted()
+                    .map(file -> stat(file.toUri().toString()))
+                    .toList();
+        } catch (IOException | UncheckedIOException e) {
+            throw new FileAccessException("Ошибка чтения каталога: " + prefix, e);
+        }
+    }
+
+    /**
+     * Преобразует URL {@code file://} в путь и проверяет, что файл (с учетом символических ссылок)
+     * находится внутри корневого каталога
+     */
+    private Path resolve(String fileUrl) {
+        Path file;
+        try {
+            file = Path.of(URI.create(fileUrl)).toRealPath();
+        } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+            throw new FileAccessException("Некорректный URL локального файла: " + fileUrl, e);
+        } catch (NoSuchFileException e) {
+            throw new FileAccessException("Локальный файл не найден: " + fileUrl, e);
+        } catch (IOException e) {
+            throw new FileAccessException("Ошибка чтения локального файла: " + fileUrl, e);
+        }
+        if (!file.startsWith(root)) {
+            throw new FileAccessException("Локальный файл вне каталога " + root + ": " + fileUrl);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,93 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.InvalidMarkException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Поток чтения локального файла через отображение в память.
+ * Данные читаются из страничного кеша ОС без копирования в буферы ядра при каждом вызове read.
+ * Отображение освобождается сборщиком мусора, файл можно удалить сразу после открытия потока.
+ * Поток поддерживает mark/reset, поэтому не требует промежуточной буферизации.
+ */
+final class MappedFileInputStream extends InputStream {
+
+    private final MappedByteBuffer buffer;
+
+    private MappedFileInputStream(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Открывает файл для чтения. Файлы больше 2 ГБ, которые нельзя отобразить одним буфером,
+     * читаются обычным потоком.
+     *
+     * @param file путь к файлу
+     * @return поток с содержимым файла
+     */
+    static InputStream open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return Files.newInputStream(file);
+            }
+            return new MappedFileInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining()
+                ? buffer.get() & 0xFF
+                : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int count = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public long skip(long count) {
+        int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(int readLimit) {
+        buffer.mark();
+    }
+
+    @Override
+    public void reset() throws IOException {
+        try {
+            buffer.reset();
+        } catch (InvalidMarkException e) {
+            throw new IOException("Позиция для возврата не отмечена", e);
+        }
+    }
+}
@@ -1,28 +1,63 @@
 package com.neighbor.eventmosaic.adapter.source;
 
+import com.neighbor.eventmosaic.adapter.config.properties.MinioProperties;
+import com.neighbor.eventmosaic.adapter.exception.AdapterException;
 import com.neighbor.eventmosaic.adapter.exception.FileAccessException;
 import com.neighbor.eventmosaic.adapter.exception.MinioAccessException;
 import io.minio.GetObjectArgs;
+import io.minio.ListObjectsArgs;
 import io.minio.MinioClient;
-import lombok.RequiredArgsConstructor;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.messages.Item;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Реализация доступа к файлам в MinIO хранилище по URL.
  * Предоставляет возможность получить содержимое файла в виде
  * потока данных для дальнейшей обработки.
+ * <p>
+ * Если включена загрузка диапазонами, объекты не меньше порога загружаются несколькими
+ * одновременными запросами диапазонов байтов ({@link RangedInputStream}): пропускная способность
+ * не ограничена одним TCP-соединением, а задержка одного запроса не останавливает разбор.
  */
 @Slf4j
-@RequiredArgsConstructor
 public class MinioFileSourceProvider implements FileSourceProvider {
 
     private final MinioClient minioClient;
+    private final MinioProperties.Ranged ranged;
+    private final ExecutorService downloadPool;
+
+    /**
+     * Создает провайдер, читающий каждый объект одним запросом
+     */
+    public MinioFileSourceProvider(MinioClient minioClient) {
+        this(minioClient, new MinioProperties.Ranged(), null);
+    }
+
+    /**
+     * @param minioClient  клиент MinIO
+     * @param ranged       настройки загрузки диапазонами
+     * @param downloadPool пул потоков загрузки диапазонов; обязателен, если загрузка диапазонами включена
+     */
+    public MinioFileSourceProvider(MinioClient minioClient, MinioProperties.Ranged ranged, ExecutorService downloadPool) {
+        if (ranged.isEnabled() && downloadPool == null) {
+            throw new IllegalArgumentException("Для загрузки диапазонами необходим пул потоков");
+        }
+        this.minioClient = minioClient;
+        this.ranged = ranged;
+        this.downloadPool = downloadPool;
+    }
 
     /**
      * Получает содержимое объекта из MinIO хранилища по его URL.
@@ -39,6 +74,13 @@ public class MinioFileSourceProvider implements FileSourceProvider {
             String bucket = minioPathComponents[0];
             String object = minioPathComponents[1];
 
+            if (ranged.isEnabled()) {
+                StatObjectResponse stat = statObject(bucket, object);
+                if (stat.size() >= ranged.getThreshold().toBytes()) {
+                    return openRanged(bucket, object, stat.size(), stat.etag());
+                }
+            }
+
             log.debug("Запрос объекта: bucket='{}', object='{}'", bucket, object);
             InputStream stream = minioClient.getObject(
                     GetObjectArgs.builder()
@@ -49,15 +91,165 @@ public class MinioFileSourceProvider implements FileSourceProvider {
             log.debug("Объект успешно получен из MinIO по URL: {}", fileUrl);
             return stream;
 
-        } catch (URISyntaxException e) {
-            log.error("Некорректный синтаксис URL MinIO: {}", fileUrl, e);
-            throw new FileAccessException("Некорректный URL файла MinIO: " + fileUrl, e);
-        } catch (IllegalArgumentException e) {
-            throw new FileAccessException("Ошибка парсинга URL файла MinIO: " + fileUrl, e);
         } catch (Exception e) {
-            log.error("Ошибка при получении файла из MinIO по URL: {}", fileUrl, e);
-            throw new MinioAccessException("Ошибка при получении файла из MinIO: " + fileUrl, e);
+            throw accessException(fileUrl, e);
+        }
+    }
+
+    /**
+     * Получает содержимое версии объекта с известными размером и ETag без повторного запроса сведений.
+     * Запрос проверяет ETag, поэтому объект, перезаписанный после получения сведений, не загружается.
+     *
+     * @param file сведения об объекте
+     * @return поток данных для чтения содержимого объекта
+     * @throws FileAccessException если URL некорректен, объект не найден, изменен или возникла ошибка доступа
+     */
+    @Override
+    public InputStream getFileContent(FileMetadata file) {
+        if (file.etag() == null) {
+            return getFileContent(file.path());
         }
+        log.debug("Получение объекта из MinIO по URL: {}, ETag: {}", file.path(), file.etag());
+        try {
+            String[] minioPathComponents = parseMinioUrl(file.path());
+            String bucket = minioPathComponents[0];
+            String object = minioPathComponents[1];
+
+            if (ranged.isEnabled() && file.size() >= ranged.getThreshold().toBytes()) {
+                return openRanged(bucket, object, file.size(), file.etag());
+            }
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucket)
+                            .object(object)
+                            .matchETag(file.etag())
+                            .build()
+            );
+
+        } catch (Exception e) {
+            throw accessException(file.path(), e);
+        }
+    }
+
+    /**
+     * Получает размер и ETag объекта MinIO по его URL.
+     *
+     * @param fileUrl URL объекта в MinIO
+     * @return сведения об объекте
+     * @throws FileAccessException если URL некорректен, объект не найден или возникла ошибка доступа
+     */
+    @Override
+    public FileMetadata stat(String fileUrl) {
+        try {
+            String[] minioPathComponents = parseMinioUrl(fileUrl);
+            StatObjectResponse stat = statObject(minioPathComponents[0], minioPathComponents[1]);
+            return new FileMetadata(fileUrl, stat.size(), stat.etag());
+
+        } catch (Exception e) {
+            throw accessException(fileUrl, e);
+        }
+    }
+
+    /**
+     * Получает сведения обо всех объектах бакета, имена которых начинаются с префикса.
+     *
+     * @param prefixUrl URL префикса в MinIO (например, "http://minio:9000/event-mosaic/2025/01/")
+     * @return сведения об объектах с их URL в порядке имен
+     * @throws FileAccessException если URL некорректен или возникла ошибка доступа
+     */
+    @Override
+    public List<FileMetadata> list(String prefixUrl) {
+        try {
+            URI uri = new URI(prefixUrl);
+            String path = uri.getPath();
+            if (Objects.isNull(path) || path.length() <= 1) {
+                throw new IllegalArgumentException("URL MinIO не содержит имя бакета: " + prefixUrl);
+            }
+            String[] parts = path.substring(1).split("/", 2);
+            String bucket = parts[0];
+            String prefix = parts.length > 1
+                    ? parts[1]
+                    : "";
+
+            List<FileMetadata> files = new ArrayList<>();
+            Iterable<Result<Item>> items = minioClient.listObjects(
+                    ListObjectsArgs.builder()
+                            .bucket(bucket)
+                            .prefix(prefix)
+                            .recursive(true)
+                            .build());
+            for (Result<Item> result : items) {
+                Item item = result.get();
+                if (!item.isDir()) {
+                    String objectUrl = new URI(uri.getScheme(), uri.getAuthority(), "/" + bucket + "/" + item.objectName(), null, null)
+                            .toString();
+                    files.add(new FileMetadata(objectUrl, item.size(), unquote(item.etag())));
+                }
+            }
+            log.debug("Найдено {} объектов MinIO по префиксу {}", files.size(), prefixUrl);
+            return files;
+
+        } catch (Exception e) {
+            throw accessException(prefixUrl, e);
+        }
+    }
+
+    private StatObjectResponse statObject(String bucket, String object) throws Exception {
+        return minioClient.statObject(
+                StatObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(object)
+                        .build()
+        );
+    }
+
+    /**
+     * ETag в списке объектов передается в кавычках, а в сведениях об объекте - без них
+     */
+    private static String unquote(String etag) {
+        return etag != null && etag.length() >= 2 && etag.startsWith("\"") && etag.endsWith("\"")
+                ? etag.substring(1, etag.length() - 1)
+                : etag;
+    }
+
+    /**
+     * Преобразует ошибку обращения к MinIO в исключение приложения
+     */
+    private AdapterException accessException(String fileUrl, Exception e) {
+        if (e instanceof URISyntaxException) {
+            log.error("Некорректный синтаксис URL MinIO: {}", fileUrl, e);
+            return new FileAccessException("Некорректный URL файла MinIO: " + fileUrl, e);
+        }
+        if (e instanceof IllegalArgumentException) {
+            return new FileAccessException("Ошибка парсинга URL файла MinIO: " + fileUrl, e);
+        }
+        log.error("Ошибка при получении файла из MinIO по URL: {}", fileUrl, e);
+        return new MinioAccessException("Ошибка при получении файла из MinIO: " + fileUrl, e);
+    }
+
+    /**
+     * Открывает поток, загружающий объект одновременными запросами диапазонов.
+     * Каждый запрос проверяет ETag объекта, поэтому перезапись объекта во время загрузки
+     * приводит к ошибке, а не к смешиванию двух версий.
+     */
+    private InputStream openRanged(String bucket, String object, long size, String etag) {
+        int rangeSize = Math.toIntExact(ranged.getRangeSize().toBytes());
+        log.debug("Загрузка объекта диапазонами: bucket='{}', object='{}', размер: {}, диапазон: {}, одновременно: {}",
+                bucket, object, size, rangeSize, ranged.getConcurrency());
+
+        return new RangedInputStream(
+                (offset, length) -> minioClient.getObject(
+                        GetObjectArgs.builder()
+                                .bucket(bucket)
+                                .object(object)
+                                .offset(offset)
+                                .length(length)
+                                .matchETag(etag)
+                                .build()),
+                size,
+                rangeSize,
+                ranged.getConcurrency(),
+                downloadPool);
     }
 
     /**
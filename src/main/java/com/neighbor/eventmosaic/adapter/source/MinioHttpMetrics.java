@@ -0,0 +1,196 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Метрики HTTP-клиента MinIO, собираемые по событиям OkHttp каждого запроса.
+ * <p>
+ * Показывают, переиспользуются ли соединения пула и сколько стоит их получение (новое соединение
+ * включает DNS, TCP и TLS), время до первого байта ответа и скорость чтения тела ответа.
+ * Скорость чтения тела ограничена и скоростью разбора файла: тело объекта читается парсером по мере обработки.
+ */
+public class MinioHttpMetrics implements EventListener.Factory {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Методы запросов клиента MinIO, таймеры которых регистрируются заранее
+     */
+    private static final List<String> METHODS = List.of("GET", "HEAD", "PUT", "POST", "DELETE");
+
+    private final MeterRegistry registry;
+    private final Timer newConnectionAcquire;
+    private final Timer reusedConnectionAcquire;
+    private final Counter responseBytes;
+    private final DistributionSummary downloadRate;
+    private final Map<String, CallTimers> callTimers = new ConcurrentHashMap<>();
+
+    public MinioHttpMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.newConnectionAcquire = connectionAcquireTimer(registry, "new");
+        this.reusedConnectionAcquire = connectionAcquireTimer(registry, "reused");
+        this.responseBytes = Counter.builder("adapter.minio.http.response.bytes")
+                .description("Байты, полученные в телах ответов MinIO")
+                .baseUnit("bytes")
+                .register(registry);
+        this.downloadRate = DistributionSummary.builder("adapter.minio.http.download.rate")
+                .description("Скорость чтения тела ответа MinIO от получения заголовков до конца тела")
+                .baseUnit("bytes.per.second")
+                .register(registry);
+        METHODS.forEach(this::callTimers);
+    }
+
+    /**
+     * Регистрирует метрики пула соединений и очереди диспетчера клиента
+     *
+     * @param client HTTP-клиент MinIO
+     */
+    public void monitor(OkHttpClient client) {
+        Gauge.builder("adapter.minio.http.connections", client.connectionPool(), pool -> pool.connectionCount())
+                .description("Соединения в пуле HTTP-клиента MinIO")
+                .tag("state", "total")
+                .register(registry);
+        Gauge.builder("adapter.minio.http.connections", client.connectionPool(), pool -> pool.idleConnectionCount())
+                .description("Соединения в пуле HTTP-клиента MinIO")
+                .tag("state", "idle")
+                .register(registry);
+        Gauge.builder("adapter.minio.http.requests", client.dispatcher(), dispatcher -> dispatcher.runningCallsCount())
+                .description("Запросы HTTP-клиента MinIO")
+                .tag("state", "running")
+                .register(registry);
+        Gauge.builder("adapter.minio.http.requests", client.dispatcher(), dispatcher -> dispatcher.queuedCallsCount())
+                .description("Запросы HTTP-клиента MinIO")
+                .tag("state", "queued")
+                .register(registry);
+    }
+
+    @Override
+    public EventListener create(Call call) {
+        return new CallMetrics(callTimers(call.request().method()));
+    }
+
+    private CallTimers callTimers(String method) {
+        CallTimers timers = callTimers.get(method);
+        return timers != null ? timers : callTimers.computeIfAbsent(method, name -> CallTimers.register(registry, name));
+    }
+
+    private static Timer connectionAcquireTimer(MeterRegistry registry, String connection) {
+        return Timer.builder("adapter.minio.http.connection.acquire")
+                .description("Время от начала запроса до получения соединения (новое соединение включает DNS, TCP и TLS)")
+                .tag("connection", connection)
+                .register(registry);
+    }
+
+    /**
+     * Таймеры запросов одного метода
+     */
+    private record CallTimers(Timer ttfb, Timer success, Timer failure) {
+
+        private static CallTimers register(MeterRegistry registry, String method) {
+            return new CallTimers(
+                    Timer.builder("adapter.minio.http.ttfb")
+                            .description("Время от отправки запроса MinIO до начала ответа")
+                            .tag("method", method)
+                            .register(registry),
+                    callTimer(registry, method, "success"),
+                    callTimer(registry, method, "failure"));
+        }
+
+        private static Timer callTimer(MeterRegistry registry, String method, String outcome) {
+            return Timer.builder("adapter.minio.http.calls")
+                    .description("Длительность запросов MinIO, включая чтение тела ответа")
+                    .tags("method", method, "outcome", outcome)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Метрики одного запроса. События запроса приходят последовательно, но из разных потоков
+     * (вызывающий поток, поток диспетчера, поток, читающий тело ответа).
+     */
+    private final class CallMetrics extends EventListener {
+
+        private final CallTimers timers;
+        private volatile long callStart;
+        private volatile long requestEnd;
+        private volatile long headersEnd;
+        private volatile boolean connected;
+
+        private CallMetrics(CallTimers timers) {
+            this.timers = timers;
+        }
+
+        @Override
+        public void callStart(Call call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+            connected = true;
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            Timer timer = connected ? newConnectionAcquire : reusedConnectionAcquire;
+            timer.record(System.nanoTime() - callStart, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, Request request) {
+            requestEnd = System.nanoTime();
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            requestEnd = System.nanoTime();
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            timers.ttfb().record(System.nanoTime() - requestEnd, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            headersEnd = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            long elapsed = System.nanoTime() - headersEnd;
+            responseBytes.increment(byteCount);
+            if (byteCount > 0 && elapsed > 0) {
+                downloadRate.record(byteCount * NANOS_PER_SECOND / elapsed);
+            }
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            timers.success().record(System.nanoTime() - callStart, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            timers.failure().record(System.nanoTime() - callStart, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Поток, собирающий объект из диапазонов байтов, которые загружаются одновременно.
+ * <p>
+ * Впереди позиции чтения загружается не более {@code concurrency} диапазонов, каждый в отдельный буфер.
+ * Прочитанный буфер возвращается в пул потока и используется для следующего диапазона, поэтому
+ * поток занимает не более (concurrency + 1) буферов независимо от размера объекта.
+ * Читатель получает байты строго в порядке объекта.
+ * <p>
+ * Поток не потокобезопасен: читать и закрывать его должен один поток.
+ */
+@Slf4j
+public class RangedInputStream extends InputStream {
+
+    /**
+     * Открывает поток с байтами диапазона объекта
+     */
+    @FunctionalInterface
+    public interface RangeReader {
+
+        /**
+         * @param offset смещение начала диапазона
+         * @param length длина диапазона
+         * @return поток ровно с {@code length} байтами
+         */
+        InputStream open(long offset, long length) throws Exception;
+    }
+
+    private final RangeReader reader;
+    private final long size;
+    private final int rangeSize;
+    private final int concurrency;
+    private final ExecutorService executor;
+
+    private final Deque<Future<Range>> pending = new ArrayDeque<>();
+    private final Deque<byte[]> freeBuffers = new ArrayDeque<>();
+    private long nextOffset;
+    private Range current;
+    private int position;
+    private boolean closed;
+
+    /**
+     * @param reader      загрузчик диапазонов
+     * @param size        размер объекта
+     * @param rangeSize   размер диапазона
+     * @param concurrency количество одновременно загружаемых диапазонов
+     * @param executor    пул потоков загрузки
+     */
+    public RangedInputStream(RangeReader reader, long size, int rangeSize, int concurrency, ExecutorService executor) {
+        if (rangeSize <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("Размер диапазона и количество загрузок должны быть положительными");
+        }
+        this.reader = reader;
+        this.size = size;
+        this.rangeSize = rangeSize;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        submitRanges();
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return current.buffer()[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int count = Math.min(length, current.length() - position);
+        System.arraycopy(current.buffer(), position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.length() - position;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.forEach(future -> future.cancel(true));
+        pending.clear();
+        freeBuffers.clear();
+        current = null;
+    }
+
+    /**
+     * Переходит к следующему загруженному диапазону, если текущий прочитан
+     *
+     * @return false, если объект прочитан целиком
+     */
+    private boolean ensureAvailable() throws IOException {
+        if (closed) {
+            throw new IOException("Поток закрыт");
+        }
+        if (current != null && position < current.length()) {
+            return true;
+        }
+        if (current != null) {
+            freeBuffers.push(current.buffer());
+            current = null;
+        }
+        Future<Range> next = pending.poll();
+        if (next == null) {
+            return false;
+        }
+        current = await(next);
+        position = 0;
+        submitRanges();
+        return true;
+    }
+
+    /**
+     * Дополняет очередь загрузок до {@code concurrency} диапазонов
+     */
+    private void submitRanges() {
+        while (pending.size() < concurrency && nextOffset < size) {
+            long offset = nextOffset;
+            int length = (int) Math.min(rangeSize, size - offset);
+            byte[] buffer = freeBuffers.isEmpty() ? new byte[rangeSize] : freeBuffers.pop();
+            pending.add(executor.submit(() -> fetch(offset, length, buffer)));
+            nextOffset += length;
+        }
+    }
+
+    private Range fetch(long offset, int length, byte[] buffer) throws Exception {
+        log.trace("Загрузка диапазона: смещение {}, длина {}", offset, length);
+        try (InputStream stream = reader.open(offset, length)) {
+            int read = stream.readNBytes(buffer, 0, length);
+            if (read != length) {
+                throw new IOException("Диапазон со смещением " + offset + " получен не полностью: "
+                        + read + " из " + length + " байт");
+            }
+        }
+        return new Range(buffer, length);
+    }
+
+    private Range await(Future<Range> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new InterruptedIOException("Загрузка диапазона прервана");
+        } catch (CancellationException e) {
+            close();
+            throw new IOException("Загрузка диапазона отменена", e);
+        } catch (ExecutionException e) {
+            close();
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Ошибка загрузки диапазона объекта", e.getCause());
+        }
+    }
+
+    /**
+     * Загруженный диапазон: первые {@code length} байтов буфера
+     */
+    private record Range(byte[] buffer, int length) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import com.neighbor.eventmosaic.adapter.exception.FileAccessException;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Провайдер, выбирающий источник файла по схеме URL.
+ * Позволяет обрабатывать в одном приложении и объекты MinIO ({@code http://}), и локальные файлы ({@code file://}).
+ */
+public class RoutingFileSourceProvider implements FileSourceProvider {
+
+    private final Map<String, FileSourceProvider> providers;
+
+    /**
+     * @param providers провайдеры по схеме URL в нижнем регистре (например, "http", "file")
+     */
+    public RoutingFileSourceProvider(Map<String, FileSourceProvider> providers) {
+        this.providers = Map.copyOf(providers);
+    }
+
+    @Override
+    public InputStream getFileContent(String path) {
+        return provider(path).getFileContent(path);
+    }
+
+    @Override
+    public InputStream getFileContent(FileMetadata file) {
+        return provider(file.path()).getFileContent(file);
+    }
+
+    @Override
+    public FileMetadata stat(String path) {
+        return provider(path).stat(path);
+    }
+
+    @Override
+    public List<FileMetadata> list(String prefix) {
+        return provider(prefix).list(prefix);
+    }
+
+    private FileSourceProvider provider(String path) {
+        int colon = path.indexOf(':');
+        String scheme = colon > 0
+                ? path.substring(0, colon).toLowerCase(Locale.ROOT)
+                : "";
+        FileSourceProvider provider = providers.get(scheme);
+        if (provider == null) {
+            throw new FileAccessException("Неподдерживаемая схема URL файла '" + scheme + "': " + path);
+        }
+        return provider;
+    }
+}
@@ -0,0 +1,112 @@
+package com.neighbor.eventmosaic.adapter.util;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Утилитный класс для потоковой распаковки архивов GDELT ({@code .CSV.zip}, {@code .gz}).
+ * <p>
+ * Сжатие определяется по расширению файла, а если оно не указано - по сигнатуре первых байтов.
+ * Данные распаковываются на лету, архив не сохраняется целиком ни на диске, ни в памяти.
+ */
+@Slf4j
+@UtilityClass
+public class CompressionUtil {
+
+    /**
+     * Размер буфера чтения сжатых данных и буфера распаковщика
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int SIGNATURE_LENGTH = 4;
+
+    /**
+     * Формат сжатия файла
+     */
+    public enum Compression {
+        NONE, GZIP, ZIP
+    }
+
+    /**
+     * Возвращает поток с распакованным содержимым файла.
+     * Несжатый файл возвращается без распаковки. Для ZIP-архива читается первый файл архива.
+     * При ошибке исходный поток закрывается.
+     *
+     * @param stream поток с содержимым файла
+     * @param path   путь к файлу, по расширению которого определяется сжатие
+     * @return поток с распакованными данными
+     * @throws IOException если архив поврежден или не содержит файлов
+     */
+    public static InputStream decompress(InputStream stream, String path) throws IOException {
+        try {
+            // Поток в памяти (отображенный файл, загруженный файл) читается без промежуточного буфера
+            InputStream buffered = stream.markSupported()
+                    ? stream
+                    : new BufferedInputStream(stream, BUFFER_SIZE);
+            Compression compression = detect(path, buffered);
+            log.debug("Формат сжатия файла {}: {}", path, compression);
+
+            return switch (compression) {
+                case GZIP -> new GZIPInputStream(buffered, BUFFER_SIZE);
+                case ZIP -> openFirstEntry(new ZipInputStream(buffered), path);
+                case NONE -> buffered;
+            };
+        } catch (IOException | RuntimeException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Определяет формат сжатия по расширению файла, а при его отсутствии - по сигнатуре.
+     * Поток должен поддерживать mark/reset: прочитанные байты сигнатуры возвращаются в поток.
+     *
+     * @param path   путь к файлу
+     * @param stream поток с содержимым файла
+     * @return формат сжатия
+     */
+    public static Compression detect(String path, InputStream stream) throws IOException {
+        String lowerPath = path.toLowerCase(Locale.ROOT);
+        if (lowerPath.endsWith(".zip")) {
+            return Compression.ZIP;
+        }
+        if (lowerPath.endsWith(".gz") || lowerPath.endsWith(".gzip")) {
+            return Compression.GZIP;
+        }
+
+        stream.mark(SIGNATURE_LENGTH);
+        byte[] signature = stream.readNBytes(SIGNATURE_LENGTH);
+        stream.reset();
+
+        if (signature.length >= 2 && signature[0] == (byte) 0x1f && signature[1] == (byte) 0x8b) {
+            return Compression.GZIP;
+        }
+        if (signature.length == SIGNATURE_LENGTH
+                && signature[0] == 'P' && signature[1] == 'K' && signature[2] == 3 && signature[3] == 4) {
+            return Compression.ZIP;
+        }
+        return Compression.NONE;
+    }
+
+    /**
+     * Позиционирует поток архива на первый файл
+     */
+    private static InputStream openFirstEntry(ZipInputStream zip, String path) throws IOException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (!entry.isDirectory()) {
+                log.debug("Чтение файла {} из архива {}", entry.getName(), path);
+                return zip;
+            }
+        }
+        throw new IOException("Архив не содержит файлов: " + path);
+    }
+}
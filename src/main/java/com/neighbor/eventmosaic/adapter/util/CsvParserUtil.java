@@ -3,17 +3,42 @@ package com.neighbor.eventmosaic.adapter.util;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.csv.CSVRecord;
-import org.apache.commons.lang3.StringUtils;
 
-import java.util.function.Function;
+import java.nio.charset.StandardCharsets;
 
 /**
- * Утилитный класс для парсинга CSV-файлов
+ * Утилитный класс для парсинга CSV-файлов.
+ * <p>
+ * Примитивные методы {@code parseInt/parseLong/parseDouble} разбирают числа напрямую
+ * из диапазона байтов или символов, не создают объектов и не бросают исключений:
+ * отсутствие значения (пустое или некорректное поле) обозначается константами
+ * {@link #ABSENT_INT}, {@link #ABSENT_LONG} и {@link Double#NaN}.
  */
 @Slf4j
 @UtilityClass
 public class CsvParserUtil {
 
+    /**
+     * Признак отсутствия значения для int. Само значение Integer.MIN_VALUE также считается отсутствующим.
+     */
+    public static final int ABSENT_INT = Integer.MIN_VALUE;
+
+    /**
+     * Признак отсутствия значения для long. Само значение Long.MIN_VALUE также считается отсутствующим.
+     */
+    public static final long ABSENT_LONG = Long.MIN_VALUE;
+
+    /**
+     * Максимальное количество значащих цифр, при котором десятичная дробь
+     * точно представима мантиссой double и делится на степень 10 без потери точности.
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
     /**
      * Безопасно получает строковое значение из записи
      */
@@ -23,7 +48,7 @@ public class CsvParserUtil {
         }
 
         String value = csvRecord.get(index);
-        return StringUtils.isEmpty(value)
+        return value.isEmpty()
                 ? null
                 : value;
     }
@@ -32,48 +57,260 @@ public class CsvParserUtil {
      * Безопасно получает и преобразует значение в Long
      */
     public static Long getLong(CSVRecord csvRecord, int index) {
-        return getAndConvert(csvRecord, index, Long::parseLong);
+        String value = getString(csvRecord, index);
+        if (value == null) {
+            return null;
+        }
+
+        long result = parseLong(value, 0, value.length());
+        if (result == ABSENT_LONG) {
+            logInvalidValue(value);
+            return null;
+        }
+        return result;
     }
 
     /**
      * Безопасно получает и преобразует значение в Integer
      */
     public static Integer getInteger(CSVRecord csvRecord, int index) {
-        return getAndConvert(csvRecord, index, Integer::parseInt);
+        String value = getString(csvRecord, index);
+        if (value == null) {
+            return null;
+        }
+
+        int result = parseInt(value, 0, value.length());
+        if (result == ABSENT_INT) {
+            logInvalidValue(value);
+            return null;
+        }
+        return result;
     }
 
     /**
      * Безопасно получает и преобразует значение в Double
      */
     public static Double getDouble(CSVRecord csvRecord, int index) {
-        return getAndConvert(csvRecord, index, Double::parseDouble);
+        String value = getString(csvRecord, index);
+        if (value == null) {
+            return null;
+        }
+
+        double result = parseDouble(value, 0, value.length());
+        if (Double.isNaN(result)) {
+            logInvalidValue(value);
+            return null;
+        }
+        return result;
     }
 
     /**
-     * Обобщенный метод для безопасного получения и преобразования значения.
+     * Разбирает int из диапазона байтов ASCII
      *
-     * @param csvRecord CSV-запись
-     * @param index     индекс колонки
-     * @param converter функция преобразования строки в значение типа T
-     * @return значение типа T или null, если индекс выходит за пределы диапазона или строка пуста
+     * @param bytes буфер
+     * @param start начало диапазона (включительно)
+     * @param end   конец диапазона (не включительно)
+     * @return значение или {@link #ABSENT_INT}, если диапазон пуст, некорректен или вне диапазона int
      */
-    private static <T> T getAndConvert(CSVRecord csvRecord,
-                                       int index,
-                                       Function<String, T> converter) {
-        if (index >= csvRecord.size()) {
-            return null;
+    public static int parseInt(byte[] bytes, int start, int end) {
+        if (end - start > 11) {
+            return ABSENT_INT;
         }
+        long value = parseLong(bytes, start, end);
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE
+                ? ABSENT_INT
+                : (int) value;
+    }
 
-        String value = csvRecord.get(index);
-        if (StringUtils.isEmpty(value)) {
-            return null;
+    /**
+     * Разбирает int из диапазона символов
+     *
+     * @see #parseInt(byte[], int, int)
+     */
+    public static int parseInt(CharSequence chars, int start, int end) {
+        if (end - start > 11) {
+            return ABSENT_INT;
+        }
+        long value = parseLong(chars, start, end);
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE
+                ? ABSENT_INT
+                : (int) value;
+    }
+
+    /**
+     * Разбирает long из диапазона байтов ASCII: необязательный знак и десятичные цифры
+     *
+     * @param bytes буфер
+     * @param start начало диапазона (включительно)
+     * @param end   конец диапазона (не включительно)
+     * @return значение или {@link #ABSENT_LONG}, если диапазон пуст, некорректен или вызывает переполнение
+     */
+    public static long parseLong(byte[] bytes, int start, int end) {
+        if (start >= end) {
+            return ABSENT_LONG;
+        }
+        boolean negative = bytes[start] == '-';
+        int i = negative || bytes[start] == '+' ? start + 1 : start;
+        if (i == end) {
+            return ABSENT_LONG;
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return ABSENT_LONG;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Разбирает long из диапазона символов
+     *
+     * @see #parseLong(byte[], int, int)
+     */
+    public static long parseLong(CharSequence chars, int start, int end) {
+        if (start >= end) {
+            return ABSENT_LONG;
+        }
+        boolean negative = chars.charAt(start) == '-';
+        int i = negative || chars.charAt(start) == '+' ? start + 1 : start;
+        if (i == end) {
+            return ABSENT_LONG;
         }
 
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = chars.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return ABSENT_LONG;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Разбирает десятичную дробь в формате GDELT ({@code -2.63157894736842}) из диапазона байтов ASCII.
+     * Для чисел до 15 значащих цифр результат вычисляется без создания объектов и совпадает
+     * с {@link Double#parseDouble(String)}. Более длинные значения и экспоненциальная запись
+     * разбираются через {@link Double#parseDouble(String)}.
+     *
+     * @param bytes буфер
+     * @param start начало диапазона (включительно)
+     * @param end   конец диапазона (не включительно)
+     * @return значение или {@link Double#NaN}, если диапазон пуст или некорректен
+     */
+    public static double parseDouble(byte[] bytes, int start, int end) {
+        if (start >= end) {
+            return Double.NaN;
+        }
+        boolean negative = bytes[start] == '-';
+        int i = negative || bytes[start] == '+' ? start + 1 : start;
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int scale = 0;
+        boolean hasDigits = false;
+        boolean hasDot = false;
+        for (; i < end; i++) {
+            int c = bytes[i];
+            int digit = c - '0';
+            if (digit >= 0 && digit <= 9) {
+                hasDigits = true;
+                if (mantissa != 0 || digit != 0) {
+                    significantDigits++;
+                }
+                mantissa = mantissa * 10 + digit;
+                if (hasDot) {
+                    scale++;
+                }
+                if (significantDigits > MAX_EXACT_DIGITS) {
+                    return parseDoubleSlow(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+                }
+            } else if (c == '.' && !hasDot) {
+                hasDot = true;
+            } else if ((c == 'e' || c == 'E') && hasDigits) {
+                return parseDoubleSlow(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+            } else {
+                return Double.NaN;
+            }
+        }
+        return toDouble(negative, mantissa, scale, hasDigits);
+    }
+
+    /**
+     * Разбирает десятичную дробь из диапазона символов
+     *
+     * @see #parseDouble(byte[], int, int)
+     */
+    public static double parseDouble(CharSequence chars, int start, int end) {
+        if (start >= end) {
+            return Double.NaN;
+        }
+        boolean negative = chars.charAt(start) == '-';
+        int i = negative || chars.charAt(start) == '+' ? start + 1 : start;
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int scale = 0;
+        boolean hasDigits = false;
+        boolean hasDot = false;
+        for (; i < end; i++) {
+            char c = chars.charAt(i);
+            int digit = c - '0';
+            if (digit >= 0 && digit <= 9) {
+                hasDigits = true;
+                if (mantissa != 0 || digit != 0) {
+                    significantDigits++;
+                }
+                mantissa = mantissa * 10 + digit;
+                if (hasDot) {
+                    scale++;
+                }
+                if (significantDigits > MAX_EXACT_DIGITS) {
+                    return parseDoubleSlow(chars.subSequence(start, end).toString());
+                }
+            } else if (c == '.' && !hasDot) {
+                hasDot = true;
+            } else if ((c == 'e' || c == 'E') && hasDigits) {
+                return parseDoubleSlow(chars.subSequence(start, end).toString());
+            } else {
+                return Double.NaN;
+            }
+        }
+        return toDouble(negative, mantissa, scale, hasDigits);
+    }
+
+    /**
+     * Собирает double из мантиссы и количества знаков после точки.
+     * Мантисса до 15 цифр и степень 10 до 22 точно представимы в double,
+     * поэтому одно деление дает корректно округленный результат.
+     */
+    private static double toDouble(boolean negative, long mantissa, int scale, boolean hasDigits) {
+        if (!hasDigits) {
+            return Double.NaN;
+        }
+        double value = scale < POWERS_OF_TEN.length
+                ? mantissa / POWERS_OF_TEN[scale]
+                : parseDoubleSlow(mantissa + "E-" + scale);
+        return negative ? -value : value;
+    }
+
+    /**
+     * Медленный путь для редких значений: длинные дроби и экспоненциальная запись
+     */
+    private static double parseDoubleSlow(String value) {
         try {
-            return converter.apply(value);
-        } catch (Exception e) {
-            log.error("Ошибка при преобразовании значения: {}", e.getMessage());
-            return null;
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
         }
     }
+
+    private static void logInvalidValue(String value) {
+        log.debug("Некорректное числовое значение: '{}'", value);
+    }
 }
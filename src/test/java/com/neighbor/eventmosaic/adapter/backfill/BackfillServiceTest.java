@@ -0,0 +1,177 @@
+package com.neighbor.eventmosaic.adapter.backfill;
+
+import com.neighbor.eventmosaic.adapter.config.properties.BackfillProperties;
+import com.neighbor.eventmosaic.adapter.parser.CsvParser;
+import com.neighbor.eventmosaic.adapter.parser.ParseSummary;
+import com.neighbor.eventmosaic.adapter.publisher.KafkaMessagePublisher;
+import com.neighbor.eventmosaic.adapter.registry.FileCheckpointStore;
+import com.neighbor.eventmosaic.adapter.registry.LocalProcessedFileRegistry;
+import com.neighbor.eventmosaic.adapter.registry.ProcessedFileRegistry;
+import com.neighbor.eventmosaic.adapter.service.CsvProcessingService;
+import com.neighbor.eventmosaic.adapter.service.CsvProcessingServiceImpl;
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+import com.neighbor.eventmosaic.adapter.source.FileSourceProvider;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import com.neighbor.eventmosaic.library.common.dto.Mention;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для повторной обработки файлов по префиксу
+ */
+@ExtendWith(MockitoExtension.class)
+class BackfillServiceTest {
+
+    private static final String PREFIX = "http://minio:9000/event-mosaic/2025/";
+    private static final FileMetadata EVENTS =
+            new FileMetadata(PREFIX + "20250106223000.export.CSV", 100, "etag-1");
+    private static final FileMetadata MENTIONS =
+            new FileMetadata(PREFIX + "20250106223000.mentions.CSV.zip", 200, "etag-2");
+    private static final FileMetadata OTHER =
+            new FileMetadata(PREFIX + "20250106223000.gkg.csv", 300, "etag-3");
+
+    @Mock
+    private FileSourceProvider fileSourceProvider;
+
+    @Mock
+    private CsvProcessingService csvProcessingService;
+
+    @Mock
+    private KafkaMessagePublisher kafkaMessagePublisher;
+
+    @Mock
+    private ProcessedFileRegistry processedFileRegistry;
+
+    @Mock
+    private CsvParser<Event> eventCsvParser;
+
+    @TempDir
+    private Path directory;
+
+    private BackfillProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BackfillProperties();
+        properties.setDirectory(directory);
+    }
+
+    @Test
+    @DisplayName("Файлы событий и упоминаний обрабатываются по типу из имени, остальные файлы пропускаются")
+    void shouldProcessEventAndMentionFiles() throws InterruptedException {
+        // Arrange
+        when(fileSourceProvider.list(PREFIX)).thenReturn(List.of(EVENTS, MENTIONS, OTHER));
+        when(csvProcessingService.reprocessCsvFile(eq(EVENTS), eq(Event.class), any())).thenReturn(summary(10));
+        when(csvProcessingService.reprocessCsvFile(eq(MENTIONS), eq(Mention.class), any())).thenReturn(summary(20));
+        BackfillService service = new BackfillService(fileSourceProvider, csvProcessingService, kafkaMessagePublisher,
+                properties, () -> { });
+
+        // Act
+        service.start(PREFIX);
+        BackfillStatus status = awaitFinished(service);
+
+        // Assert
+        assertEquals(BackfillStatus.State.COMPLETED, status.state());
+        assertEquals(2, status.filesTotal());
+        assertEquals(2, status.filesProcessed());
+        assertEquals(300, status.bytes());
+        assertEquals(30, status.records());
+        verify(csvProcessingService, never()).reprocessCsvFile(eq(OTHER), any(), any());
+        assertTrue(Files.notExists(directory.resolve("job")), "Завершенное задание не должно продолжаться после перезапуска");
+    }
+
+    @Test
+    @DisplayName("Незавершенное задание продолжается после перезапуска без повторной обработки файлов")
+    void shouldResumeUnfinishedJobSkippingProcessedFiles() throws Exception {
+        // Arrange
+        Files.writeString(directory.resolve("job"), PREFIX);
+        try (LocalProcessedFileRegistry checkpoint =
+                     new LocalProcessedFileRegistry(directory.resolve("processed-files.log"), Duration.ofDays(1), () -> { })) {
+            checkpoint.markProcessed(EVENTS, "20250106223000");
+        }
+        when(fileSourceProvider.list(PREFIX)).thenReturn(List.of(EVENTS, MENTIONS));
+        when(csvProcessingService.reprocessCsvFile(eq(MENTIONS), eq(Mention.class), any())).thenReturn(summary(20));
+        BackfillService service = new BackfillService(fileSourceProvider, csvProcessingService, kafkaMessagePublisher,
+                properties, () -> { });
+
+        // Act
+        service.resumeUnfinished();
+        BackfillStatus status = awaitFinished(service);
+
+        // Assert
+        assertEquals(BackfillStatus.State.COMPLETED, status.state());
+        assertEquals(1, status.filesSkipped());
+        assertEquals(1, status.filesProcessed());
+        verify(csvProcessingService, never()).reprocessCsvFile(eq(EVENTS), any(), any());
+    }
+
+    @Test
+    @DisplayName("Файлы, уже отмеченные в реестре обработанных файлов сервиса, отправляются повторно")
+    void shouldReprocessFilesMarkedInServiceRegistry() throws Exception {
+        // Arrange
+        Event event = new Event();
+        event.setGlobalEventId(1L);
+        when(fileSourceProvider.list(PREFIX)).thenReturn(List.of(EVENTS));
+        when(fileSourceProvider.getFileContent(EVENTS)).thenReturn(new ByteArrayInputStream(new byte[0]));
+        lenient().when(processedFileRegistry.isEnabled()).thenReturn(true);
+        lenient().when(processedFileRegistry.isProcessed(any(), any())).thenReturn(true);
+        when(eventCsvParser.parseStream(any(), any(), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<Event>>getArgument(2).accept(event);
+            return summary(1);
+        });
+        CsvProcessingService service = new CsvProcessingServiceImpl(Map.of(Event.class, eventCsvParser),
+                fileSourceProvider, processedFileRegistry, FileCheckpointStore.disabled());
+        BackfillService backfill = new BackfillService(fileSourceProvider, service, kafkaMessagePublisher,
+                properties, () -> { });
+
+        // Act
+        backfill.start(PREFIX);
+        BackfillStatus status = awaitFinished(backfill);
+
+        // Assert
+        assertEquals(BackfillStatus.State.COMPLETED, status.state());
+        assertEquals(1, status.filesProcessed());
+        assertEquals(0, status.filesSkipped());
+        assertEquals(1, status.records());
+        verify(kafkaMessagePublisher).publishEventMessage(event, "20250106223000");
+    }
+
+    private static ParseSummary summary(long records) {
+        return new ParseSummary("test", records, records, 0, Map.of(), Map.of(), Map.of());
+    }
+
+    private static BackfillStatus awaitFinished(BackfillService service) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            BackfillStatus status = service.status();
+            if (status.state() != BackfillStatus.State.RUNNING) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Повторная обработка не завершилась");
+    }
+}
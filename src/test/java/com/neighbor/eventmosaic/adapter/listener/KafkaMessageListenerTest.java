@@ -0,0 +1,97 @@
+package com.neighbor.eventmosaic.adapter.listener;
+
+import com.neighbor.eventmosaic.adapter.config.properties.PublisherProperties;
+import com.neighbor.eventmosaic.adapter.exception.CsvParsingException;
+import com.neighbor.eventmosaic.adapter.parser.ParseSummary;
+import com.neighbor.eventmosaic.adapter.publisher.KafkaMessagePublisher;
+import com.neighbor.eventmosaic.adapter.publisher.KafkaTemplateRouter;
+import com.neighbor.eventmosaic.adapter.publisher.codec.RecordEnvelopes;
+import com.neighbor.eventmosaic.adapter.service.CsvProcessingService;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для обработки сообщений с путями к файлам
+ */
+@ExtendWith(MockitoExtension.class)
+class KafkaMessageListenerTest {
+
+    private static final String TOPIC = "gdelt-adapter-event-topic";
+    private static final String ENVELOPE_TOPIC = "gdelt-adapter-event-envelope-topic";
+    private static final String FAILED_PATH = "http://minio:9000/event-mosaic/20250106223000.export.CSV";
+    private static final String NEXT_PATH = "http://minio:9000/event-mosaic/20250106224500.export.CSV";
+
+    @Mock
+    private CsvProcessingService csvProcessingService;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Test
+    @DisplayName("Ошибки отправки и незавершенные конверты файла, обработка которого прервана, не переходят к следующему файлу")
+    void shouldNotLeakPublishStateOfFailedFile() {
+        // Arrange
+        PublisherProperties properties = new PublisherProperties();
+        properties.getEnvelope().getTopics().put("adapter-event", ENVELOPE_TOPIC);
+        KafkaMessagePublisher publisher = new KafkaMessagePublisher(new KafkaTemplateRouter(kafkaTemplate, Map.of()), properties);
+        ReflectionTestUtils.setField(publisher, "adapterEventTopic", TOPIC);
+        KafkaMessageListener listener = new KafkaMessageListener(csvProcessingService, publisher);
+        when(kafkaTemplate.partitionsFor(ENVELOPE_TOPIC)).thenReturn(List.of(new PartitionInfo(ENVELOPE_TOPIC, 0, null, null, null)));
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(
+                CompletableFuture.failedFuture(new RecordTooLargeException("Слишком большое сообщение")),
+                CompletableFuture.completedFuture(null));
+        when(csvProcessingService.processCsvFile(eq(FAILED_PATH), eq(Event.class), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<Event>>getArgument(2).accept(event(1L));
+            throw new CsvParsingException("Обрыв соединения");
+        });
+        when(csvProcessingService.processCsvFile(eq(NEXT_PATH), eq(Event.class), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<Event>>getArgument(2).accept(event(2L));
+            return ParseSummary.empty();
+        });
+
+        // Act
+        assertThrows(CsvParsingException.class, () -> listener.processEventsPath(FAILED_PATH));
+
+        // Assert
+        assertDoesNotThrow(() -> listener.processEventsPath(NEXT_PATH));
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(kafkaTemplate, atLeastOnce()).send(captor.capture());
+        List<Message<?>> envelopes = captor.getAllValues().stream()
+                .filter(message -> ENVELOPE_TOPIC.equals(message.getHeaders().get(KafkaHeaders.TOPIC)))
+                .toList();
+        assertEquals(1, envelopes.size());
+        assertEquals("1", envelopes.get(0).getHeaders().get(RecordEnvelopes.RECORD_COUNT_HEADER),
+                "Конверт следующего файла не должен содержать записи прерванного файла");
+    }
+
+    private static Event event(long globalEventId) {
+        Event event = new Event();
+        event.setGlobalEventId(globalEventId);
+        return event;
+    }
+}
@@ -1,33 +1,48 @@
 package com.neighbor.eventmosaic.adapter.parser;
 
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProjectionProperties;
 import com.neighbor.eventmosaic.library.common.dto.Event;
 import com.neighbor.eventmosaic.library.common.dto.Mention;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Тесты для парсеров CSV-файлов
  */
 @ExtendWith(SpringExtension.class)
-@ContextConfiguration(classes = {EventCsvParser.class, MentionCsvParser.class})
+@ContextConfiguration(classes = {EventCsvParser.class, MentionCsvParser.class, CsvParserTest.TestConfig.class})
 class CsvParserTest {
 
+    @EnableConfigurationProperties({ParserProperties.class, ProjectionProperties.class})
+    static class TestConfig {
+    }
+
     @Autowired
     private EventCsvParser eventCsvParser;
 
@@ -151,6 +166,163 @@ class CsvParserTest {
         assertEquals("srclc:hin;eng:GT-HIN 1.0", mention.getMentionDocTranslationInfo());
     }
 
+    @Test
+    @DisplayName("Потоковый парсинг передает упоминания получателю по одному")
+    void streamMentionCsvFile() throws IOException {
+        // Arrange
+        Resource resource = new ClassPathResource("/data/mention_sample.csv");
+        InputStream inputStream = resource.getInputStream();
+        List<Mention> received = new ArrayList<>();
+
+        // Act
+        ParseSummary summary = mentionCsvParser.parseStream(inputStream, StandardCharsets.UTF_8, received::add);
+
+        // Assert
+        assertEquals(2, summary.records(), "Количество переданных записей должно совпадать с количеством строк");
+        assertEquals(2, received.size());
+        assertEquals(1219110299L, received.get(0).getGlobalEventId());
+        assertEquals(1219110300L, received.get(1).getGlobalEventId());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ParserEngine.class)
+    @DisplayName("Движки разбора дают одинаковый результат на файле событий")
+    void parseEventCsvFileWithEachEngine(ParserEngine engine) throws IOException {
+        // Arrange
+        ParserProperties properties = new ParserProperties();
+        properties.getEvent().setEngine(engine);
+        EventCsvParser parser = new EventCsvParser(properties, new ProjectionProperties());
+        Resource resource = new ClassPathResource("/data/event_sample.csv");
+
+        // Act
+        List<Event> events = parser.parseStream(resource.getInputStream(), StandardCharsets.UTF_8);
+
+        // Assert
+        assertEquals(2, events.size());
+        Event event = events.get(1);
+        assertEquals(1219144759L, event.getGlobalEventId());
+        assertEquals(2024.0192, event.getFractionDate());
+        assertNull(event.getActor1Code());
+        assertEquals("GOVERNMENT", event.getActor2Name());
+        assertEquals(2, event.getNumMentions());
+        assertEquals(1.78571428571429, event.getAvgTone());
+        assertEquals("Indonesia", event.getActor2GeoFullName());
+        assertEquals(-5.0, event.getActionGeoLat());
+        assertEquals(20250106214500L, event.getDateAdded());
+        assertEquals("https://gate.el-balad.com/64610", event.getSourceUrl());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ParserEngine.class)
+    @DisplayName("Проекция колонок оставляет только указанные поля и ключ")
+    void parseEventCsvFileWithProjection(ParserEngine engine) throws IOException {
+        // Arrange
+        ParserProperties parserProperties = new ParserProperties();
+        parserProperties.getEvent().setEngine(engine);
+        ProjectionProperties projectionProperties = new ProjectionProperties();
+        projectionProperties.setAdapterEvent(List.of("eventCode", "avgTone", "actionGeoCountryCode"));
+        EventCsvParser parser = new EventCsvParser(parserProperties, projectionProperties);
+        Resource resource = new ClassPathResource("/data/event_sample.csv");
+
+        // Act
+        List<Event> events = parser.parseStream(resource.getInputStream(), StandardCharsets.UTF_8);
+
+        // Assert
+        assertEquals(2, events.size());
+        Event event = events.getFirst();
+        assertEquals(1219144758L, event.getGlobalEventId(), "Ключ сообщения должен оставаться всегда");
+        assertEquals("46", event.getEventCode());
+        assertEquals(1.78571428571429, event.getAvgTone());
+        assertEquals("ID", event.getActionGeoCountryCode());
+        assertNull(event.getDay());
+        assertNull(event.getActor2Code());
+        assertNull(event.getActionGeoFullName());
+        assertNull(event.getSourceUrl());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ParserEngine.class)
+    @DisplayName("Раскладка GDELT 1.0 выбирается по количеству колонок первой строки")
+    void parseGdeltV1EventCsvFile(ParserEngine engine) throws IOException {
+        // Arrange
+        ParserProperties properties = new ParserProperties();
+        properties.getEvent().setEngine(engine);
+        EventCsvParser parser = new EventCsvParser(properties, new ProjectionProperties());
+        String row = String.join("\t",
+                "281431577", "20130101", "201301", "2013", "2013.0027",
+                "USA", "UNITED STATES", "USA", "", "", "", "", "", "", "",
+                "CHN", "CHINA", "CHN", "", "", "", "", "", "", "",
+                "1", "036", "036", "03", "1", "4.0", "10", "2", "10", "-2.63",
+                "1", "United States", "US", "US", "38.0", "-97.0", "US",
+                "1", "China", "CH", "CH", "35.0", "105.0", "CH",
+                "1", "China", "CH", "CH", "35.0", "105.0", "CH",
+                "20130101");
+        InputStream inputStream = new ByteArrayInputStream((row + "\n").getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        List<Event> events = parser.parseStream(inputStream, StandardCharsets.UTF_8);
+
+        // Assert
+        assertEquals(1, events.size());
+        Event event = events.getFirst();
+        assertEquals(281431577L, event.getGlobalEventId());
+        assertEquals("036", event.getEventCode());
+        assertEquals("US", event.getActor1GeoAdm1Code());
+        assertNull(event.getActor1GeoAdm2Code(), "В GDELT 1.0 нет колонки ADM2Code");
+        assertEquals(38.0, event.getActor1GeoLat());
+        assertEquals(105.0, event.getActionGeoLong());
+        assertEquals("CH", event.getActionGeoFeatureId());
+        assertEquals(20130101L, event.getDateAdded());
+        assertNull(event.getSourceUrl());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ParserEngine.class)
+    @DisplayName("Итоги разбора и метрики учитывают некорректные, пустые и отсутствующие значения")
+    void collectParseSummary(ParserEngine engine) throws IOException {
+        // Arrange
+        ParserProperties properties = new ParserProperties();
+        properties.getMention().setEngine(engine);
+        MentionCsvParser parser = new MentionCsvParser(properties, new ProjectionProperties());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        parser.bindTo(registry);
+        String rows = String.join("\n",
+                "1\t20250101\t20250101\tX\tbbc.com\turl\t1\t1\t1\t1\t1\t100\t10\t1.5\t",
+                "\t20250101\t20250101\t1\tbbc.com\turl\t1\t1\t1\t1\t1\t100\t10\t1.5\t",
+                "3\t20250101\t20250101\t1\tbbc.com\turl\t1\t1\t1\t1\t1\t100\t10") + "\n";
+        InputStream inputStream = new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        ParseSummary summary = parser.parseStream(inputStream, StandardCharsets.UTF_8, mention -> {
+        });
+
+        // Assert
+        assertEquals("GDELT 2.0", summary.layout());
+        assertEquals(3, summary.rows());
+        assertEquals(2, summary.records());
+        assertEquals(1, summary.skippedRecords());
+        assertEquals(Map.of("mentionType", 1L), summary.malformedValues());
+        assertEquals(Map.of("mentionDocTone", 1L, "mentionDocTranslationInfo", 1L), summary.missingValues());
+        assertEquals(1L, summary.emptyValues().get("globalEventId"));
+        assertEquals(1, registry.get("adapter.parser.values")
+                .tags("parser", "Mention", "field", "mentionType", "result", "malformed").counter().count());
+        assertEquals(1, registry.get("adapter.parser.records")
+                .tags("parser", "Mention", "result", "skipped").counter().count());
+    }
+
+    @Test
+    @DisplayName("Неизвестное поле в проекции приводит к ошибке конфигурации")
+    void rejectUnknownProjectionField() {
+        // Arrange
+        ProjectionProperties projectionProperties = new ProjectionProperties();
+        projectionProperties.setAdapterMention(List.of("mentionSourceName", "unknownField"));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                new MentionCsvParser(new ParserProperties(), projectionProperties));
+        assertTrue(exception.getMessage().contains("unknownField"));
+    }
+
     @Test
     @DisplayName("Фильтрация записей с пустым GlobalEventId в файле событий")
     void filterRecordsWithEmptyGlobalEventId() throws IOException {
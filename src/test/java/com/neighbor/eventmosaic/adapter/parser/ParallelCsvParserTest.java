@@ -0,0 +1,89 @@
+package com.neighbor.eventmosaic.adapter.parser;
+
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProjectionProperties;
+import com.neighbor.eventmosaic.library.common.dto.Mention;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты для параллельного разбора файла по блокам
+ */
+class ParallelCsvParserTest {
+
+    private static final int RECORD_COUNT = 2_000;
+
+    private final ExecutorService pool = new ForkJoinPool(4);
+    private final MentionCsvParser delegate = new MentionCsvParser(new ParserProperties(), new ProjectionProperties());
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Упорядоченный параллельный разбор совпадает с последовательным")
+    void shouldPreserveFileOrder() throws IOException {
+        // Arrange
+        ParallelCsvParser<Mention> parser = new ParallelCsvParser<>(delegate, pool, 1024, 8, true);
+        List<Long> received = new ArrayList<>();
+
+        // Act
+        ParseSummary summary = parser.parseStream(mentions(), StandardCharsets.UTF_8, m -> received.add(m.getGlobalEventId()));
+
+        // Assert
+        assertEquals(RECORD_COUNT, summary.records());
+        assertEquals(LongStream.rangeClosed(1, RECORD_COUNT).boxed().toList(), received);
+    }
+
+    @Test
+    @DisplayName("Неупорядоченный разбор передает все записи, в том числе строки длиннее блока")
+    void shouldDeliverAllRecordsWithoutOrdering() throws IOException {
+        // Arrange
+        ParallelCsvParser<Mention> parser = new ParallelCsvParser<>(delegate, pool, 16, 3, false);
+        List<Long> received = new ArrayList<>();
+
+        // Act
+        ParseSummary summary = parser.parseStream(mentions(), StandardCharsets.UTF_8, m -> received.add(m.getGlobalEventId()));
+
+        // Assert
+        assertEquals(RECORD_COUNT, summary.records());
+        assertEquals(LongStream.rangeClosed(1, RECORD_COUNT).boxed().toList(), received.stream().sorted().toList());
+    }
+
+    @Test
+    @DisplayName("Ошибка получателя прерывает разбор и пробрасывается")
+    void shouldPropagateConsumerException() {
+        // Arrange
+        ParallelCsvParser<Mention> parser = new ParallelCsvParser<>(delegate, pool, 1024, 8, true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () ->
+                parser.parseStream(mentions(), StandardCharsets.UTF_8, m -> {
+                    throw new IllegalStateException("Ошибка отправки");
+                }));
+    }
+
+    private static InputStream mentions() {
+        StringBuilder csv = new StringBuilder();
+        for (int id = 1; id <= RECORD_COUNT; id++) {
+            csv.append(id).append("\t20250315120000\t20250315121500\t1\tsource.com\thttp://source.com/")
+                    .append(id).append("\t1\t-1\t10\t20\t1\t100\t1500\t-2.5\t\n");
+        }
+        return new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
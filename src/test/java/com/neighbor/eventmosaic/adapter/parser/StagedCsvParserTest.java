@@ -0,0 +1,146 @@
+package com.neighbor.eventmosaic.adapter.parser;
+
+import com.neighbor.eventmosaic.adapter.config.properties.ParserProperties;
+import com.neighbor.eventmosaic.adapter.config.properties.ProjectionProperties;
+import com.neighbor.eventmosaic.library.common.dto.Mention;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты для конвейерной обработки файла
+ */
+class StagedCsvParserTest {
+
+    private static final int RECORD_COUNT = 2_000;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final MentionCsvParser delegate = new MentionCsvParser(new ParserProperties(), new ProjectionProperties());
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Записи передаются в исходном порядке файла при маленьких блоках и очередях, стадии учитываются в метриках")
+    void shouldPreserveFileOrder() throws IOException {
+        // Arrange
+        StagedCsvParser<Mention> parser = new StagedCsvParser<>(delegate, executor, 64, 2, 7, 2);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        parser.bindTo(meterRegistry);
+        List<Long> received = new ArrayList<>();
+
+        // Act
+        ParseSummary summary = parser.parseStream(mentions(), StandardCharsets.UTF_8, m -> received.add(m.getGlobalEventId()));
+
+        // Assert
+        assertEquals(RECORD_COUNT, summary.records());
+        assertEquals(LongStream.rangeClosed(1, RECORD_COUNT).boxed().toList(), received);
+        assertEquals((RECORD_COUNT + 6) / 7,
+                meterRegistry.get("adapter.pipeline.stage").tag("stage", "publish").timer().count());
+        assertEquals(0, meterRegistry.get("adapter.pipeline.queue.depth").tag("stage", "read").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Ошибка получателя прерывает чтение и разбор и пробрасывается")
+    void shouldStopStagesOnConsumerException() throws InterruptedException {
+        // Arrange
+        StagedCsvParser<Mention> parser = new StagedCsvParser<>(delegate, executor, 64, 2, 7, 2);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () ->
+                parser.parseStream(mentions(), StandardCharsets.UTF_8, m -> {
+                    throw new IllegalStateException("Ошибка отправки");
+                }));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS), "Потоки стадий должны завершиться");
+    }
+
+    @Test
+    @DisplayName("После ошибки получателя источник не читается, пока вызывающий код его закрывает")
+    void shouldNotReadSourceAfterReturn() throws InterruptedException {
+        // Arrange
+        StagedCsvParser<Mention> parser = new StagedCsvParser<>(delegate, executor, 64, 2, 7, 2);
+        AtomicBoolean returned = new AtomicBoolean();
+        AtomicBoolean readAfterReturn = new AtomicBoolean();
+        InputStream slow = new FilterInputStream(mentions()) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                // Чтение из сети не реагирует на прерывание потока
+                long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20);
+                for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+                    LockSupport.parkNanos(end - now);
+                }
+                int read = super.read(buffer, offset, length);
+                if (returned.get()) {
+                    readAfterReturn.set(true);
+                }
+                return read;
+            }
+        };
+
+        // Act
+        assertThrows(IllegalStateException.class, () ->
+                parser.parseStream(slow, StandardCharsets.UTF_8, m -> {
+                    throw new IllegalStateException("Ошибка отправки");
+                }));
+        returned.set(true);
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        // Assert
+        assertFalse(readAfterReturn.get(), "Источник не должен читаться после возврата из parseStream");
+    }
+
+    @Test
+    @DisplayName("Ошибка чтения содержимого пробрасывается после передачи прочитанных записей")
+    void shouldPropagateReadFailure() {
+        // Arrange
+        StagedCsvParser<Mention> parser = new StagedCsvParser<>(delegate, executor, 1024, 2, 7, 2);
+        InputStream failing = new SequenceInputStream(mentions(), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Соединение разорвано");
+            }
+        });
+        List<Long> received = new ArrayList<>();
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () ->
+                parser.parseStream(failing, StandardCharsets.UTF_8, m -> received.add(m.getGlobalEventId())));
+
+        // Assert
+        assertEquals("Соединение разорвано", exception.getMessage());
+        assertTrue(received.size() < RECORD_COUNT);
+    }
+
+    private static InputStream mentions() {
+        StringBuilder csv = new StringBuilder();
+        for (int id = 1; id <= RECORD_COUNT; id++) {
+            csv.append(id).append("\t20250315120000\t20250315121500\t1\tsource.com\thttp://source.com/")
+                    .append(id).append("\t1\t-1\t10\t20\t1\t100\t1500\t-2.5\t\n");
+        }
+        return new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package com.neighbor.eventmosaic.adapter.parser.row;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты для кеша строк парсера
+ */
+class StringCacheTest {
+
+    @Test
+    @DisplayName("Одинаковые значения, прочитанные через кеш, возвращаются одним экземпляром строки")
+    void shouldReturnSameInstanceForCachedColumn() throws IOException {
+        // Arrange
+        StringCache cache = new StringCache(16);
+        byte[] data = "1\tUSA\tUSA\n2\tUSA\tUSA\n".getBytes(StandardCharsets.UTF_8);
+        TsvRowReader reader = new TsvRowReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8);
+
+        // Act
+        CsvRow row = reader.nextRow();
+        String firstCached = row.getString(1, cache);
+        String firstPlain = row.getString(2);
+        row = reader.nextRow();
+        String secondCached = row.getString(1, cache);
+        String secondPlain = row.getString(2);
+
+        // Assert
+        assertEquals("USA", secondCached);
+        assertSame(firstCached, secondCached, "Значение отмеченной колонки должно браться из кеша");
+        assertNotSame(firstPlain, secondPlain, "Чтение без кеша должно создавать новую строку");
+        assertEquals(0.5, cache.hitRatio());
+    }
+
+    @Test
+    @DisplayName("Размер кеша не превышает емкости на большом количестве различных значений")
+    void shouldStayBoundedOnManyDistinctValues() {
+        // Arrange
+        StringCache cache = new StringCache(64);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry, Tags.of("parser", "test"));
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            byte[] value = ("V" + i).getBytes(StandardCharsets.UTF_8);
+            assertEquals("V" + i, cache.get(value, 0, value.length, StandardCharsets.UTF_8));
+        }
+
+        // Assert
+        double size = registry.get("adapter.parser.string.cache.size").gauge().value();
+        double evictions = registry.get("adapter.parser.string.cache.evictions").functionCounter().count();
+        double misses = registry.get("adapter.parser.string.cache.requests").tag("result", "miss")
+                .functionCounter().count();
+        assertTrue(size <= 64, "Размер кеша должен быть ограничен емкостью");
+        assertEquals(10_000, misses);
+        assertEquals(10_000 - size, evictions);
+    }
+
+    @Test
+    @DisplayName("Нулевая емкость отключает кеширование")
+    void shouldDisableCachingWithZeroCapacity() {
+        // Arrange
+        StringCache cache = new StringCache(0);
+        byte[] value = "USA".getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        String first = cache.get(value, 0, value.length, StandardCharsets.UTF_8);
+        String second = cache.get(value, 0, value.length, StandardCharsets.UTF_8);
+
+        // Assert
+        assertFalse(cache.isEnabled());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+    }
+}
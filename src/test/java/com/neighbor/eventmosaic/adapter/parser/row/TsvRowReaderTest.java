@@ -0,0 +1,134 @@
+package com.neighbor.eventmosaic.adapter.parser.row;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Тесты для байтового токенизатора TsvRowReader
+ */
+class TsvRowReaderTest {
+
+    @Test
+    @DisplayName("Разбиение строки на поля по табуляции с удалением пробелов")
+    void shouldSplitFieldsAndTrim() throws IOException {
+        // Arrange
+        TsvRowReader reader = reader("1\t value \t\t2.5\n");
+
+        // Act
+        CsvRow row = reader.nextRow();
+
+        // Assert
+        assertNotNull(row);
+        assertEquals(4, row.size());
+        assertEquals(1L, row.getLong(0));
+        assertEquals("value", row.getString(1));
+        assertNull(row.getString(2), "Пустое поле должно быть null");
+        assertEquals(2.5, row.getDouble(3));
+        assertNull(row.getString(4), "Поле за пределами строки должно быть null");
+        assertNull(reader.nextRow());
+    }
+
+    @Test
+    @DisplayName("Пропуск пустых строк, поддержка CRLF и последней строки без перевода строки")
+    void shouldHandleLineEndings() throws IOException {
+        // Arrange
+        TsvRowReader reader = reader("1\ta\r\n\n\r\n2\tb");
+
+        // Act & Assert
+        CsvRow first = reader.nextRow();
+        assertEquals(1, first.getInteger(0));
+        assertEquals("a", first.getString(1));
+
+        CsvRow second = reader.nextRow();
+        assertEquals(2, second.getInteger(0));
+        assertEquals("b", second.getString(1));
+
+        assertNull(reader.nextRow());
+    }
+
+    @Test
+    @DisplayName("Строки длиннее буфера и многобайтовые символы UTF-8")
+    void shouldReadLinesLongerThanBuffer() throws IOException {
+        // Arrange
+        String data = "42\tЖитомир, Украина\thttps://example.com/very/long/path\n43\tKraków\t\n";
+        TsvRowReader reader = new TsvRowReader(
+                new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, 4);
+
+        // Act & Assert
+        CsvRow first = reader.nextRow();
+        assertEquals(42L, first.getLong(0));
+        assertEquals("Житомир, Украина", first.getString(1));
+        assertEquals("https://example.com/very/long/path", first.getString(2));
+
+        CsvRow second = reader.nextRow();
+        assertEquals(43L, second.getLong(0));
+        assertEquals("Kraków", second.getString(1));
+        assertNull(second.getString(2));
+
+        assertNull(reader.nextRow());
+    }
+
+    @Test
+    @DisplayName("Некорректные числовые значения преобразуются в null")
+    void shouldReturnNullForInvalidNumbers() throws IOException {
+        // Arrange
+        TsvRowReader reader = reader("abc\t999999999999999999999\t-\tN/A\t-17\n");
+
+        // Act
+        CsvRow row = reader.nextRow();
+
+        // Assert
+        assertNull(row.getLong(0));
+        assertNull(row.getInteger(1));
+        assertNull(row.getInteger(2));
+        assertNull(row.getDouble(3));
+        assertEquals(-17, row.getInteger(4));
+    }
+
+    @Test
+    @DisplayName("Колонки за пределами лимита не токенизируются, но учитываются в размере строки")
+    void shouldSkipColumnsBeyondLimit() throws IOException {
+        // Arrange
+        TsvRowReader reader = reader("1\ta\tb\t\tc\n2\n");
+        reader.setColumnLimit(2);
+
+        // Act
+        CsvRow first = reader.nextRow();
+
+        // Assert
+        assertEquals(5, first.size());
+        assertEquals(1, first.getInteger(0));
+        assertEquals("a", first.getString(1));
+        assertNull(first.getString(2));
+        assertNull(first.getString(4));
+
+        CsvRow second = reader.nextRow();
+        assertEquals(1, second.size());
+        assertEquals(2, second.getInteger(0));
+    }
+
+    @Test
+    @DisplayName("Исходный текст строки доступен для диагностики")
+    void shouldRenderRowText() throws IOException {
+        // Arrange
+        TsvRowReader reader = reader("\t20240107\tGOV\n");
+
+        // Act
+        CsvRow row = reader.nextRow();
+
+        // Assert
+        assertEquals("\t20240107\tGOV", row.toString());
+    }
+
+    private static TsvRowReader reader(String data) {
+        return new TsvRowReader(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,80 @@
+package com.neighbor.eventmosaic.adapter.parser.schema;
+
+import com.neighbor.eventmosaic.adapter.parser.row.TsvRowReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тесты для компиляции схемы записи в преобразователи строк
+ */
+class RecordSchemaTest {
+
+    @Test
+    @DisplayName("Сеттеры, возвращающие long, double и ссылку, поддерживаются сгенерированным кодом")
+    void shouldSupportSettersWithReturnValues() throws IOException {
+        // Arrange
+        RecordSchema<FluentRecord> schema = RecordSchema.builder(FluentRecord.class)
+                .longField("id", FluentRecord::getId)
+                .doubleField("tone", FluentRecord::getTone)
+                .stringField("name", FluentRecord::getName)
+                .layout("fluent", 3, "id", "tone", "name")
+                .build();
+        TsvRowReader reader = new TsvRowReader(
+                new ByteArrayInputStream("42\t-2.5\tUSA\n".getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+
+        // Act
+        RecordLayout<FluentRecord> layout = schema.compile(List.of(), null).layoutFor(3);
+        FluentRecord rec = layout.read(reader.nextRow());
+
+        // Assert
+        assertEquals(42L, rec.getId());
+        assertEquals(-2.5, rec.getTone());
+        assertEquals("USA", rec.getName());
+    }
+
+    /**
+     * Запись, сеттеры которой возвращают предыдущее значение или саму запись
+     */
+    public static class FluentRecord {
+
+        private Long id;
+        private Double tone;
+        private String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public long setId(Long id) {
+            long previous = this.id == null ? 0 : this.id;
+            this.id = id;
+            return previous;
+        }
+
+        public Double getTone() {
+            return tone;
+        }
+
+        public double setTone(Double tone) {
+            double previous = this.tone == null ? 0 : this.tone;
+            this.tone = tone;
+            return previous;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public FluentRecord setName(String name) {
+            this.name = name;
+            return this;
+        }
+    }
+}
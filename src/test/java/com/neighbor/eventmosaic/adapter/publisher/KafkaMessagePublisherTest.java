@@ -0,0 +1,192 @@
+package com.neighbor.eventmosaic.adapter.publisher;
+
+import com.neighbor.eventmosaic.adapter.config.properties.PublisherProperties;
+import com.neighbor.eventmosaic.adapter.exception.PublishingException;
+import com.neighbor.eventmosaic.adapter.publisher.codec.RecordEnvelopes;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.messaging.Message;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для асинхронной отправки сообщений с ожиданием подтверждений
+ */
+@ExtendWith(MockitoExtension.class)
+class KafkaMessagePublisherTest {
+
+    private static final String TOPIC = "gdelt-adapter-event-topic";
+    private static final String ENVELOPE_TOPIC = "gdelt-adapter-event-envelope-topic";
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private KafkaTemplate<String, Object> bulkTemplate;
+
+    private KafkaMessagePublisher publisher;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new KafkaMessagePublisher(new KafkaTemplateRouter(kafkaTemplate, Map.of()), new PublisherProperties());
+        ReflectionTestUtils.setField(publisher, "adapterEventTopic", TOPIC);
+        registry = new SimpleMeterRegistry();
+        publisher.bindTo(registry);
+    }
+
+    @Test
+    @DisplayName("После временной ошибки повторно отправляется только неподтвержденное сообщение")
+    void shouldResendOnlyFailedMessageAfterRetriableError() {
+        // Arrange
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.failedFuture(new TimeoutException("Истекло время доставки")),
+                CompletableFuture.completedFuture(null));
+
+        // Act
+        publisher.publishEventMessage(event(1L), "20250106223000");
+        publisher.publishEventMessage(event(2L), "20250106223000");
+        publisher.awaitPublished();
+
+        // Assert
+        verify(kafkaTemplate, times(3)).send(any(Message.class));
+        assertEquals(1, registry.get("adapter.publisher.retries").tag("topic", TOPIC).counter().count());
+        assertEquals(2, registry.get("adapter.publisher.send").tags("topic", TOPIC, "outcome", "success").timer().count());
+        assertEquals(0, registry.get("adapter.publisher.in.flight").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Неустранимая ошибка отправки сообщается при ожидании подтверждений")
+    void shouldFailAwaitOnPermanentError() {
+        // Arrange
+        CompletableFuture<SendResult<String, Object>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(pending);
+        publisher.publishEventMessage(event(1L), "20250106223000");
+        new Thread(() -> pending.completeExceptionally(new RecordTooLargeException("Слишком большое сообщение"))).start();
+
+        // Act & Assert
+        PublishingException exception = assertThrows(PublishingException.class, publisher::awaitPublished);
+        assertEquals(RecordTooLargeException.class, exception.getCause().getClass());
+        assertEquals(1, registry.get("adapter.publisher.failures").tag("topic", TOPIC).counter().count());
+        verify(kafkaTemplate, times(1)).send(any(Message.class));
+    }
+
+    @Test
+    @DisplayName("Топик с профилем продюсера отправляется через шаблон профиля")
+    void shouldSendThroughProfileTemplateOfTopic() {
+        // Arrange
+        publisher = new KafkaMessagePublisher(new KafkaTemplateRouter(kafkaTemplate, Map.of(TOPIC, bulkTemplate)),
+                new PublisherProperties());
+        ReflectionTestUtils.setField(publisher, "adapterEventTopic", TOPIC);
+        when(bulkTemplate.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        publisher.publishEventMessage(event(1L), "20250106223000");
+        publisher.awaitPublished();
+
+        // Assert
+        verify(bulkTemplate, times(1)).send(any(Message.class));
+        verify(kafkaTemplate, never()).send(any(Message.class));
+    }
+
+    @Test
+    @DisplayName("В режиме конвертов записи одного раздела отправляются одним сообщением при ожидании подтверждений")
+    void shouldGroupRecordsOfPartitionIntoEnvelope() {
+        // Arrange
+        PublisherProperties properties = new PublisherProperties();
+        properties.getEnvelope().getTopics().put("adapter-event", ENVELOPE_TOPIC);
+        properties.getEnvelope().setPerRecord(false);
+        publisher = new KafkaMessagePublisher(new KafkaTemplateRouter(kafkaTemplate, Map.of()), properties);
+        ReflectionTestUtils.setField(publisher, "adapterEventTopic", TOPIC);
+        when(kafkaTemplate.partitionsFor(ENVELOPE_TOPIC)).thenReturn(List.of(
+                new PartitionInfo(ENVELOPE_TOPIC, 0, null, null, null),
+                new PartitionInfo(ENVELOPE_TOPIC, 1, null, null, null)));
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        for (long id = 1; id <= 10; id++) {
+            publisher.publishEventMessage(event(id), "20250106223000");
+        }
+        publisher.awaitPublished();
+
+        // Assert
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(kafkaTemplate, times(2)).send(captor.capture());
+        int records = 0;
+        for (Message<?> message : captor.getAllValues()) {
+            assertEquals(ENVELOPE_TOPIC, message.getHeaders().get(KafkaHeaders.TOPIC));
+            assertEquals("20250106223000", message.getHeaders().get("X-Batch-ID"));
+            records += Integer.parseInt((String) message.getHeaders().get(RecordEnvelopes.RECORD_COUNT_HEADER));
+        }
+        assertEquals(10, records);
+    }
+
+    @Test
+    @DisplayName("Сброс незавершенных конвертов регистрируется один раз на транзакцию, а не для каждого конверта")
+    void shouldRegisterRollbackHookOncePerTransaction() {
+        // Arrange
+        PublisherProperties properties = new PublisherProperties();
+        properties.getEnvelope().getTopics().put("adapter-event", ENVELOPE_TOPIC);
+        properties.getEnvelope().setPerRecord(false);
+        properties.getEnvelope().setMaxRecords(1);
+        publisher = new KafkaMessagePublisher(new KafkaTemplateRouter(kafkaTemplate, Map.of()), properties);
+        ReflectionTestUtils.setField(publisher, "adapterEventTopic", TOPIC);
+        publisher.bindTo(registry);
+        when(kafkaTemplate.partitionsFor(ENVELOPE_TOPIC)).thenReturn(List.of(new PartitionInfo(ENVELOPE_TOPIC, 0, null, null, null)));
+        when(kafkaTemplate.send(any(Message.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (long id = 1; id <= 5; id++) {
+                publisher.publishEventMessage(event(id), "20250106223000");
+            }
+            List<TransactionSynchronization> first = TransactionSynchronizationManager.getSynchronizations();
+            first.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.initSynchronization();
+            publisher.publishEventMessage(event(6L), "20250106223000");
+
+            // Assert
+            assertEquals(1, first.size());
+            assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size(),
+                    "Следующая транзакция должна зарегистрировать сброс заново");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(6, registry.get("adapter.publisher.envelope.records").tag("topic", ENVELOPE_TOPIC).summary().count());
+    }
+
+    private static Event event(Long globalEventId) {
+        Event event = new Event();
+        event.setGlobalEventId(globalEventId);
+        return event;
+    }
+}
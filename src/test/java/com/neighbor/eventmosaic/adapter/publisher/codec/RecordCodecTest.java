@@ -0,0 +1,110 @@
+package com.neighbor.eventmosaic.adapter.publisher.codec;
+
+import com.neighbor.eventmosaic.adapter.parser.EventCsvParser;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import com.neighbor.eventmosaic.library.common.dto.Mention;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты для двоичного формата событий и упоминаний
+ */
+class RecordCodecTest {
+
+    @Test
+    @DisplayName("Событие восстанавливается из двоичного формата, пустые поля остаются null")
+    void shouldRoundTripEventWithNulls() {
+        // Arrange
+        RecordCodec<Event> codec = new RecordCodec<>(EventCsvParser.SCHEMA);
+        Event event = new Event();
+        event.setGlobalEventId(1_219_100_001L);
+        event.setDay(20250106);
+        event.setGoldsteinScale(-10.0);
+        event.setAvgTone(-3.5);
+        event.setActor1Name("МОСКВА");
+        event.setSourceUrl("https://example.com/новости?id=1");
+        event.setNumMentions(Integer.MIN_VALUE);
+
+        // Act
+        byte[] data = codec.encode(event);
+        Event decoded = codec.decode(data);
+
+        // Assert
+        assertEquals(RecordCodec.VERSION, data[0]);
+        assertEquals(event.getGlobalEventId(), decoded.getGlobalEventId());
+        assertEquals(event.getDay(), decoded.getDay());
+        assertEquals(event.getGoldsteinScale(), decoded.getGoldsteinScale());
+        assertEquals(event.getAvgTone(), decoded.getAvgTone());
+        assertEquals(event.getActor1Name(), decoded.getActor1Name());
+        assertEquals(event.getSourceUrl(), decoded.getSourceUrl());
+        assertEquals(event.getNumMentions(), decoded.getNumMentions());
+        assertNull(decoded.getActor2Name());
+        assertNull(decoded.getActionGeoLat());
+    }
+
+    @Test
+    @DisplayName("Поврежденные данные и неизвестная версия формата приводят к SerializationException")
+    void shouldRejectCorruptedData() {
+        // Arrange
+        RecordCodec<Event> codec = new RecordCodec<>(EventCsvParser.SCHEMA);
+        Event event = new Event();
+        event.setGlobalEventId(1L);
+        event.setActor1Name("USA");
+        byte[] data = codec.encode(event);
+        byte[] truncated = Arrays.copyOf(data, data.length - 2);
+        byte[] unknownVersion = data.clone();
+        unknownVersion[0] = 99;
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> codec.decode(truncated));
+        assertThrows(SerializationException.class, () -> codec.decode(unknownVersion));
+    }
+
+    @Test
+    @DisplayName("Десериализатор выбирает формат по заголовку contentType, JSON читается как прежде")
+    void shouldSelectFormatByContentTypeHeader() {
+        // Arrange
+        JsonSerializer<Object> json = new JsonSerializer<>();
+        BinaryRecordSerializer serializer = new BinaryRecordSerializer(json);
+        JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+        jsonDeserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "*"), false);
+        BinaryRecordDeserializer deserializer = new BinaryRecordDeserializer(jsonDeserializer);
+
+        Mention mention = new Mention();
+        mention.setGlobalEventId(42L);
+        mention.setMentionSourceName("bbc.co.uk");
+        mention.setMentionDocTone(1.25);
+
+        RecordHeaders binaryHeaders = new RecordHeaders();
+        RecordHeaders jsonHeaders = new RecordHeaders();
+
+        // Act
+        byte[] binary = serializer.serialize("topic", binaryHeaders, mention);
+        byte[] jsonData = json.serialize("topic", jsonHeaders, mention);
+        Object fromBinary = deserializer.deserialize("topic", binaryHeaders, binary);
+        Object fromJson = deserializer.deserialize("topic", jsonHeaders, jsonData);
+
+        // Assert
+        assertArrayEquals(RecordCodecs.MENTION_CONTENT_TYPE.getBytes(),
+                binaryHeaders.lastHeader(RecordCodecs.CONTENT_TYPE_HEADER).value());
+        assertTrue(binary.length < jsonData.length, "Двоичный формат должен быть компактнее JSON");
+        Mention decoded = assertInstanceOf(Mention.class, fromBinary);
+        assertEquals("bbc.co.uk", decoded.getMentionSourceName());
+        assertEquals(1.25, decoded.getMentionDocTone());
+        assertEquals(42L, assertInstanceOf(Mention.class, fromJson).getGlobalEventId());
+    }
+}
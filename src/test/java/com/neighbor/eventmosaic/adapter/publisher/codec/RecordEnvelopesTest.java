@@ -0,0 +1,82 @@
+package com.neighbor.eventmosaic.adapter.publisher.codec;
+
+import com.neighbor.eventmosaic.library.common.dto.Mention;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты для конвертов с несколькими записями
+ */
+class RecordEnvelopesTest {
+
+    @ParameterizedTest(name = "двоичный формат: {0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Записи конверта разбираются в порядке добавления")
+    void shouldUnpackRecordsInOrder(boolean binary) {
+        // Arrange
+        RecordEnvelopeWriter<Mention> writer = RecordEnvelopeWriter.create(Mention.class, binary);
+        for (long id = 1; id <= 3; id++) {
+            writer.add(mention(id));
+        }
+        byte[] data = writer.finish();
+        Headers headers = headers(writer);
+
+        // Act
+        List<Object> records = new RecordEnvelopeDeserializer().deserialize("topic", headers, data);
+
+        // Assert
+        assertEquals(3, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            Mention mention = (Mention) records.get(i);
+            assertEquals(i + 1L, mention.getGlobalEventId());
+            assertEquals("https://example.com/" + (i + 1), mention.getMentionIdentifier());
+        }
+    }
+
+    @Test
+    @DisplayName("Поврежденный конверт и неверное количество записей приводят к SerializationException")
+    void shouldRejectCorruptedEnvelope() {
+        // Arrange
+        RecordEnvelopeWriter<Mention> writer = RecordEnvelopeWriter.create(Mention.class, true);
+        writer.add(mention(1L));
+        writer.add(mention(2L));
+        byte[] data = writer.finish();
+        Headers headers = headers(writer);
+        Headers wrongCount = headers(writer)
+                .remove(RecordEnvelopes.RECORD_COUNT_HEADER)
+                .add(RecordEnvelopes.RECORD_COUNT_HEADER, "3".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThrows(SerializationException.class,
+                () -> RecordEnvelopes.unpack(Arrays.copyOf(data, data.length - 3), headers));
+        assertThrows(SerializationException.class, () -> RecordEnvelopes.unpack(data, wrongCount));
+    }
+
+    private static Headers headers(RecordEnvelopeWriter<?> writer) {
+        return new RecordHeaders()
+                .add(RecordEnvelopes.RECORD_COUNT_HEADER, Integer.toString(writer.count()).getBytes(StandardCharsets.UTF_8))
+                .add(RecordCodecs.CONTENT_TYPE_HEADER, writer.contentType().getBytes(StandardCharsets.UTF_8))
+                .add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+                        writer.recordType().getName().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Mention mention(long globalEventId) {
+        Mention mention = new Mention();
+        mention.setGlobalEventId(globalEventId);
+        mention.setMentionIdentifier("https://example.com/" + globalEventId);
+        return mention;
+    }
+}
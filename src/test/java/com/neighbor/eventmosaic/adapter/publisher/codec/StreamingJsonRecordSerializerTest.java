@@ -0,0 +1,71 @@
+package com.neighbor.eventmosaic.adapter.publisher.codec;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neighbor.eventmosaic.adapter.parser.EventCsvParser;
+import com.neighbor.eventmosaic.adapter.parser.schema.RecordField;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тесты для потоковой записи событий и упоминаний в JSON
+ */
+class StreamingJsonRecordSerializerTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JacksonUtils.enhancedObjectMapper()
+            .setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL);
+
+    @Test
+    @DisplayName("JSON и заголовок __TypeId__ совпадают с результатом JsonSerializer, null-поля не записываются")
+    void shouldMatchJsonSerializerOutput() throws Exception {
+        // Arrange
+        JsonSerializer<Object> jsonSerializer = new JsonSerializer<>(OBJECT_MAPPER);
+        StreamingJsonRecordSerializer serializer = new StreamingJsonRecordSerializer(jsonSerializer);
+        Event full = fullEvent();
+        Event sparse = new Event();
+        sparse.setGlobalEventId(1L);
+        sparse.setActor1Name("Кавычка \" и \\ обратная черта\t");
+        sparse.setAvgTone(1.0E-7);
+
+        for (Event event : new Event[]{full, sparse}) {
+            RecordHeaders expectedHeaders = new RecordHeaders();
+            RecordHeaders actualHeaders = new RecordHeaders();
+
+            // Act
+            byte[] expected = jsonSerializer.serialize("topic", expectedHeaders, event);
+            byte[] actual = serializer.serialize("topic", actualHeaders, event);
+
+            // Assert
+            assertEquals(OBJECT_MAPPER.readTree(expected), OBJECT_MAPPER.readTree(actual));
+            assertArrayEquals(expectedHeaders.lastHeader("__TypeId__").value(),
+                    actualHeaders.lastHeader("__TypeId__").value());
+        }
+    }
+
+    /**
+     * Событие, в котором заполнены все поля схемы
+     */
+    private static Event fullEvent() throws ReflectiveOperationException {
+        Event event = new Event();
+        int index = 0;
+        for (RecordField<Event> field : EventCsvParser.SCHEMA.getFields()) {
+            index++;
+            Object value = switch (field.type()) {
+                case STRING -> "value-" + index;
+                case LONG -> 1_000_000_000_000L + index;
+                case INTEGER -> -index;
+                case DOUBLE -> index / 3.0;
+            };
+            field.setter().invoke(event, value);
+        }
+        return event;
+    }
+}
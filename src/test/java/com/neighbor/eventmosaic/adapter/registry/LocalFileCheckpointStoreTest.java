@@ -0,0 +1,47 @@
+package com.neighbor.eventmosaic.adapter.registry;
+
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тесты для контрольных точек обработки файлов в локальном каталоге
+ */
+class LocalFileCheckpointStoreTest {
+
+    private static final String PATH = "http://minio:9000/event-mosaic/20250106223000.mentions.CSV";
+    private static final String BATCH_ID = "20250106223000";
+    private static final FileMetadata FILE = new FileMetadata(PATH, 1024, "etag-1");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Контрольная точка сохраняется между перезапусками только для той же версии файла и удаляется после обработки")
+    void shouldResumeSameFileVersionAcrossRestarts() {
+        // Arrange
+        AtomicInteger flushes = new AtomicInteger();
+        new LocalFileCheckpointStore(directory, Duration.ofDays(1), 1000, flushes::incrementAndGet)
+                .save(FILE, BATCH_ID, 180_000);
+
+        // Act
+        LocalFileCheckpointStore restarted = new LocalFileCheckpointStore(directory, Duration.ofDays(1), 1000, () -> {
+        });
+        long resumed = restarted.resumePosition(FILE, BATCH_ID);
+        long otherVersion = restarted.resumePosition(new FileMetadata(PATH, 1024, "etag-2"), BATCH_ID);
+        restarted.remove(FILE, BATCH_ID);
+
+        // Assert
+        assertEquals(1, flushes.get(), "Перед сохранением точки должны подтверждаться отправленные записи");
+        assertEquals(180_000, resumed);
+        assertEquals(0, otherVersion);
+        assertEquals(0, restarted.resumePosition(FILE, BATCH_ID));
+    }
+}
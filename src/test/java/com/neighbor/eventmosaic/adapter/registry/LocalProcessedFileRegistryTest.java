@@ -0,0 +1,80 @@
+package com.neighbor.eventmosaic.adapter.registry;
+
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты для реестра обработанных файлов в локальном журнале
+ */
+class LocalProcessedFileRegistryTest {
+
+    private static final String PATH = "http://minio:9000/event-mosaic/20250106223000.export.CSV";
+    private static final String BATCH_ID = "20250106223000";
+    private static final FileMetadata FILE = new FileMetadata(PATH, 1024, "etag-1");
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Отмеченный файл пропускается и после перезапуска, а другая версия файла - нет")
+    void shouldRememberProcessedFileAcrossRestarts() throws IOException {
+        // Arrange
+        Path journal = directory.resolve("processed-files.log");
+        AtomicInteger flushes = new AtomicInteger();
+        try (LocalProcessedFileRegistry registry = new LocalProcessedFileRegistry(journal, Duration.ofDays(1), flushes::incrementAndGet)) {
+            registry.markProcessed(FILE, BATCH_ID);
+        }
+
+        // Act
+        try (LocalProcessedFileRegistry restarted = new LocalProcessedFileRegistry(journal, Duration.ofDays(1), () -> {
+        })) {
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            restarted.bindTo(meterRegistry);
+
+            // Assert
+            assertEquals(1, flushes.get(), "Перед отметкой должны отправляться буферизованные сообщения");
+            assertTrue(restarted.isProcessed(FILE, BATCH_ID));
+            assertFalse(restarted.isProcessed(new FileMetadata(PATH, 1024, "etag-2"), BATCH_ID));
+            assertFalse(restarted.isProcessed(new FileMetadata(PATH, 1024, null), BATCH_ID));
+            assertEquals(1, meterRegistry.get("adapter.registry.skipped.files").functionCounter().count());
+            assertEquals(1024, meterRegistry.get("adapter.registry.skipped.bytes").functionCounter().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Устаревшие и поврежденные записи журнала удаляются при запуске")
+    void shouldDropExpiredAndCorruptedEntries() throws IOException {
+        // Arrange
+        Path journal = directory.resolve("processed-files.log");
+        long expired = Instant.now().minus(Duration.ofDays(2)).toEpochMilli();
+        long recent = Instant.now().toEpochMilli();
+        Files.writeString(journal, expired + "\t" + BATCH_ID + "\tetag-1\t" + PATH + "\n"
+                + recent + "\t20250106224500\tetag-2\thttp://minio:9000/event-mosaic/20250106224500.export.CSV\n"
+                + "17361\t2025");
+
+        // Act
+        try (LocalProcessedFileRegistry registry = new LocalProcessedFileRegistry(journal, Duration.ofDays(1), () -> {
+        })) {
+
+            // Assert
+            assertFalse(registry.isProcessed(FILE, BATCH_ID));
+            assertTrue(registry.isProcessed(new FileMetadata(
+                    "http://minio:9000/event-mosaic/20250106224500.export.CSV", 10, "etag-2"), "20250106224500"));
+            assertEquals(1, Files.readAllLines(journal).size(), "В журнале должна остаться только актуальная запись");
+        }
+    }
+}
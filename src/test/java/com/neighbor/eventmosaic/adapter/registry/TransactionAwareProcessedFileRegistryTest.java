@@ -0,0 +1,53 @@
+package com.neighbor.eventmosaic.adapter.registry;
+
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Тесты для отметки файлов после фиксации транзакции
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionAwareProcessedFileRegistryTest {
+
+    private static final String BATCH_ID = "20250106223000";
+    private static final FileMetadata FILE =
+            new FileMetadata("http://minio:9000/event-mosaic/20250106223000.export.CSV", 1024, "etag-1");
+
+    @Mock
+    private ProcessedFileRegistry delegate;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Внутри транзакции файл отмечается только после ее фиксации")
+    void shouldMarkFileOnlyAfterCommit() {
+        // Arrange
+        TransactionAwareProcessedFileRegistry registry = new TransactionAwareProcessedFileRegistry(delegate);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        registry.markProcessed(FILE, BATCH_ID);
+        verify(delegate, never()).markProcessed(FILE, BATCH_ID);
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        // Assert
+        verify(delegate).markProcessed(FILE, BATCH_ID);
+    }
+}
@@ -3,9 +3,14 @@ package com.neighbor.eventmosaic.adapter.service;
 import com.neighbor.eventmosaic.adapter.exception.CsvParsingException;
 import com.neighbor.eventmosaic.adapter.exception.FileAccessException;
 import com.neighbor.eventmosaic.adapter.exception.ParserNotFoundException;
+import com.neighbor.eventmosaic.adapter.exception.PublishingException;
 import com.neighbor.eventmosaic.adapter.parser.CsvParser;
+import com.neighbor.eventmosaic.adapter.parser.ParseSummary;
 import com.neighbor.eventmosaic.adapter.parser.EventCsvParser;
 import com.neighbor.eventmosaic.adapter.parser.MentionCsvParser;
+import com.neighbor.eventmosaic.adapter.registry.FileCheckpointStore;
+import com.neighbor.eventmosaic.adapter.registry.ProcessedFileRegistry;
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
 import com.neighbor.eventmosaic.adapter.source.FileSourceProvider;
 import com.neighbor.eventmosaic.library.common.dto.Event;
 import com.neighbor.eventmosaic.library.common.dto.Mention;
@@ -21,15 +26,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -48,6 +56,12 @@ class CsvProcessingServiceTest {
     @Mock
     private MentionCsvParser mentionCsvParser;
 
+    @Mock
+    private ProcessedFileRegistry processedFileRegistry;
+
+    @Mock
+    private FileCheckpointStore checkpointStore;
+
     private CsvProcessingService csvProcessingService;
 
     @BeforeEach
@@ -57,7 +71,8 @@ class CsvProcessingServiceTest {
             put(Mention.class, mentionCsvParser);
         }};
 
-        csvProcessingService = new CsvProcessingServiceImpl(parsersMap, fileSourceProvider);
+        csvProcessingService = new CsvProcessingServiceImpl(parsersMap, fileSourceProvider, ProcessedFileRegistry.disabled(),
+                FileCheckpointStore.disabled());
     }
 
     @Test
@@ -69,7 +84,7 @@ class CsvProcessingServiceTest {
         event.setGlobalEventId(123456789L);
 
         mockFileContent(path);
-        when(eventCsvParser.parseStream(any(InputStream.class), any())).thenReturn(List.of(event));
+        mockParsedRecords(eventCsvParser, event);
 
         // Act
         List<Event> result = csvProcessingService.processCsvFile(path, Event.class);
@@ -80,7 +95,7 @@ class CsvProcessingServiceTest {
         assertEquals(123456789L, result.getFirst().getGlobalEventId());
 
         verify(fileSourceProvider).getFileContent(path);
-        verify(eventCsvParser).parseStream(any(InputStream.class), eq(StandardCharsets.UTF_8));
+        verify(eventCsvParser).parseStream(any(InputStream.class), eq(StandardCharsets.UTF_8), any());
     }
 
     @Test
@@ -92,7 +107,7 @@ class CsvProcessingServiceTest {
         mention.setGlobalEventId(123456789L);
 
         mockFileContent(path);
-        when(mentionCsvParser.parseStream(any(InputStream.class), any())).thenReturn(List.of(mention));
+        mockParsedRecords(mentionCsvParser, mention);
 
         // Act
         List<Mention> result = csvProcessingService.processCsvFile(path, Mention.class);
@@ -103,7 +118,7 @@ class CsvProcessingServiceTest {
         assertEquals(123456789L, result.getFirst().getGlobalEventId());
 
         verify(fileSourceProvider).getFileContent(path);
-        verify(mentionCsvParser).parseStream(any(InputStream.class), eq(StandardCharsets.UTF_8));
+        verify(mentionCsvParser).parseStream(any(InputStream.class), eq(StandardCharsets.UTF_8), any());
     }
 
     @Test
@@ -137,7 +152,7 @@ class CsvProcessingServiceTest {
         String path = Path.of("C:/path/to/file.csv").toString();
 
         mockFileContent(path);
-        when(eventCsvParser.parseStream(any(InputStream.class), any())).thenThrow(new IOException("Ошибка парсинга"));
+        when(eventCsvParser.parseStream(any(InputStream.class), any(), any())).thenThrow(new IOException("Ошибка парсинга"));
 
         // Act & Assert
         assertThrows(CsvParsingException.class, () ->
@@ -146,6 +161,138 @@ class CsvProcessingServiceTest {
         );
     }
 
+    @Test
+    @DisplayName("Потоковая обработка передает записи получателю по мере парсинга")
+    void shouldStreamRecordsToConsumer() throws IOException {
+        // Arrange
+        String path = Path.of("C:/path/to/event.csv").toString();
+        Event first = new Event();
+        first.setGlobalEventId(1L);
+        Event second = new Event();
+        second.setGlobalEventId(2L);
+
+        mockFileContent(path);
+        mockParsedRecords(eventCsvParser, first, second);
+        List<Event> received = new ArrayList<>();
+
+        // Act
+        ParseSummary summary = csvProcessingService.processCsvFile(path, Event.class, received::add);
+
+        // Assert
+        assertEquals(2, summary.records());
+        assertEquals(List.of(first, second), received);
+    }
+
+    @Test
+    @DisplayName("Ошибка получателя записей пробрасывается без обертки в CsvParsingException")
+    void shouldPropagateConsumerException() throws IOException {
+        // Arrange
+        String path = Path.of("C:/path/to/event.csv").toString();
+        Event event = new Event();
+        event.setGlobalEventId(1L);
+
+        mockFileContent(path);
+        mockParsedRecords(eventCsvParser, event);
+
+        // Act & Assert
+        assertThrows(PublishingException.class, () ->
+                        csvProcessingService.processCsvFile(path, Event.class, e -> {
+                            throw new PublishingException("Ошибка отправки");
+                        }),
+                "Ошибка получателя должна пробрасываться без изменений"
+        );
+    }
+
+    /**
+     * Мокирует потоковый парсинг: парсер передает получателю указанные записи
+     *
+     * @param parser  мок парсера
+     * @param records записи, которые парсер передаст получателю
+     */
+    @SafeVarargs
+    private <T> void mockParsedRecords(CsvParser<T> parser, T... records) throws IOException {
+        when(parser.parseStream(any(InputStream.class), any(), any())).thenAnswer(invocation -> {
+            Consumer<T> consumer = invocation.getArgument(2);
+            for (T rec : records) {
+                consumer.accept(rec);
+            }
+            return new ParseSummary(null, records.length, records.length, 0, Map.of(), Map.of(), Map.of());
+        });
+    }
+
+    @Test
+    @DisplayName("Уже обработанный файл той же версии пропускается без загрузки, новый - отмечается в реестре")
+    void shouldSkipAlreadyProcessedFile() throws IOException {
+        // Arrange
+        String processedPath = "http://minio:9000/event-mosaic/20250106223000.export.CSV";
+        String newPath = "http://minio:9000/event-mosaic/20250106224500.export.CSV";
+        FileMetadata processedFile = new FileMetadata(processedPath, 100, "etag-1");
+        FileMetadata newFile = new FileMetadata(newPath, 100, "etag-2");
+        when(fileSourceProvider.stat(processedPath)).thenReturn(processedFile);
+        when(fileSourceProvider.stat(newPath)).thenReturn(newFile);
+        when(processedFileRegistry.isEnabled()).thenReturn(true);
+        when(processedFileRegistry.isProcessed(processedFile, "20250106223000")).thenReturn(true);
+        mockFileContent(newFile);
+        mockParsedRecords(eventCsvParser, new Event());
+        CsvProcessingService service = new CsvProcessingServiceImpl(
+                Map.of(Event.class, eventCsvParser), fileSourceProvider, processedFileRegistry, FileCheckpointStore.disabled());
+
+        // Act
+        ParseSummary skipped = service.processCsvFile(processedPath, Event.class, event -> {
+        });
+        ParseSummary processed = service.processCsvFile(newPath, Event.class, event -> {
+        });
+
+        // Assert
+        assertEquals(0, skipped.records());
+        assertEquals(1, processed.records());
+        verify(fileSourceProvider, never()).getFileContent(processedFile);
+        verify(fileSourceProvider, never()).getFileContent(processedPath);
+        verify(processedFileRegistry).markProcessed(newFile, "20250106224500");
+        verify(processedFileRegistry, never()).markProcessed(eq(processedFile), any());
+    }
+
+    @Test
+    @DisplayName("Обработка продолжается с контрольной точки, новые точки сохраняются, а после обработки точка удаляется")
+    void shouldResumeFromCheckpoint() throws IOException {
+        // Arrange
+        String path = "http://minio:9000/event-mosaic/20250106223000.mentions.CSV";
+        FileMetadata file = new FileMetadata(path, 100, "etag-1");
+        Mention[] mentions = new Mention[5];
+        for (int i = 0; i < mentions.length; i++) {
+            mentions[i] = new Mention();
+            mentions[i].setGlobalEventId(i + 1L);
+        }
+        when(fileSourceProvider.stat(path)).thenReturn(file);
+        when(checkpointStore.isEnabled()).thenReturn(true);
+        when(checkpointStore.resumePosition(file, "20250106223000")).thenReturn(2L);
+        when(checkpointStore.interval()).thenReturn(2);
+        mockFileContent(file);
+        mockParsedRecords(mentionCsvParser, mentions);
+        CsvProcessingService service = new CsvProcessingServiceImpl(
+                Map.of(Mention.class, mentionCsvParser), fileSourceProvider, ProcessedFileRegistry.disabled(), checkpointStore);
+        List<Long> published = new ArrayList<>();
+
+        // Act
+        service.processCsvFile(path, Mention.class, mention -> published.add(mention.getGlobalEventId()));
+
+        // Assert
+        assertEquals(List.of(3L, 4L, 5L), published);
+        verify(checkpointStore).save(file, "20250106223000", 4L);
+        verify(checkpointStore, never()).save(file, "20250106223000", 5L);
+        verify(checkpointStore).remove(file, "20250106223000");
+    }
+
+    /**
+     * Мокирует содержимое версии файла, сведения о которой уже получены
+     *
+     * @param file сведения о файле
+     */
+    private void mockFileContent(FileMetadata file) {
+        InputStream is = new ByteArrayInputStream("test data".getBytes(StandardCharsets.UTF_8));
+        when(fileSourceProvider.getFileContent(file)).thenReturn(is);
+    }
+
     /**
      * Мокирует содержимое файла
      *
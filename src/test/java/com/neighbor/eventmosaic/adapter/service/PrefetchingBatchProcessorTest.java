@@ -0,0 +1,213 @@
+package com.neighbor.eventmosaic.adapter.service;
+
+import com.neighbor.eventmosaic.adapter.config.properties.PrefetchProperties;
+import com.neighbor.eventmosaic.adapter.exception.CsvParsingException;
+import com.neighbor.eventmosaic.adapter.exception.PublishingException;
+import com.neighbor.eventmosaic.adapter.parser.ParseSummary;
+import com.neighbor.eventmosaic.adapter.source.FileMetadata;
+import com.neighbor.eventmosaic.adapter.source.FileSourceProvider;
+import com.neighbor.eventmosaic.library.common.dto.Event;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для конвейерной обработки пачки файлов
+ */
+@ExtendWith(MockitoExtension.class)
+class PrefetchingBatchProcessorTest {
+
+    private static final List<String> PATHS = List.of(
+            "http://minio:9000/event-mosaic/20250106223000.export.CSV",
+            "http://minio:9000/event-mosaic/20250106224500.export.CSV",
+            "http://minio:9000/event-mosaic/20250106230000.export.CSV");
+
+    @Mock
+    private CsvProcessingService csvProcessingService;
+
+    @Mock
+    private FileSourceProvider fileSourceProvider;
+
+    private ExecutorService downloadPool;
+
+    @BeforeEach
+    void setUp() {
+        downloadPool = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        downloadPool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Следующий файл загружается во время обработки текущего, файлы обрабатываются по порядку")
+    void shouldDownloadNextFileWhileProcessingCurrent() {
+        // Arrange
+        CountDownLatch nextDownloadStarted = new CountDownLatch(1);
+        mockFiles(1024);
+        when(fileSourceProvider.getFileContent(any(FileMetadata.class))).thenAnswer(invocation -> {
+            if (PATHS.get(1).equals(invocation.<FileMetadata>getArgument(0).path())) {
+                nextDownloadStarted.countDown();
+            }
+            return content(invocation.<FileMetadata>getArgument(0).path());
+        });
+        List<String> processed = new ArrayList<>();
+        List<Boolean> prefetched = new ArrayList<>();
+        when(csvProcessingService.processCsvContent(any(FileMetadata.class), any(InputStream.class), eq(Event.class), any()))
+                .thenAnswer(invocation -> {
+                    String path = invocation.<FileMetadata>getArgument(0).path();
+                    processed.add(path);
+                    if (path.equals(PATHS.get(0))) {
+                        prefetched.add(nextDownloadStarted.await(5, TimeUnit.SECONDS));
+                    }
+                    assertEquals(path, new String(invocation.<InputStream>getArgument(1).readAllBytes(), StandardCharsets.UTF_8));
+                    return ParseSummary.empty();
+                });
+        PrefetchingBatchProcessor processor = processor(DataSize.ofMegabytes(1));
+
+        // Act
+        List<ParseSummary> summaries = processor.process(PATHS, Event.class, path -> event -> {
+        }, () -> {
+        });
+
+        // Assert
+        assertEquals(PATHS, processed);
+        assertEquals(PATHS.size(), summaries.size());
+        assertEquals(List.of(true), prefetched, "Следующий файл должен загружаться во время обработки текущего");
+    }
+
+    @Test
+    @DisplayName("Файл, не помещающийся в бюджет, загружается только после обработки предыдущего")
+    void shouldWaitForBudgetBeforeDownloadingNextFile() {
+        // Arrange
+        mockFiles(1024);
+        when(fileSourceProvider.getFileContent(any(FileMetadata.class))).thenAnswer(invocation -> content(invocation.<FileMetadata>getArgument(0).path()));
+        List<Long> downloadsDuringProcessing = new ArrayList<>();
+        when(csvProcessingService.processCsvContent(any(FileMetadata.class), any(InputStream.class), eq(Event.class), any()))
+                .thenAnswer(invocation -> {
+                    downloadsDuringProcessing.add(downloads());
+                    return ParseSummary.empty();
+                });
+        PrefetchingBatchProcessor processor = processor(DataSize.ofKilobytes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        processor.bindTo(registry);
+
+        // Act
+        processor.process(PATHS, Event.class, path -> event -> {
+        }, () -> {
+        });
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), downloadsDuringProcessing);
+        assertEquals(0, registry.get("adapter.prefetch.bytes").gauge().value(), "Бюджет должен освобождаться");
+    }
+
+    @Test
+    @DisplayName("Ошибка обработки файла сообщает индекс файла в пачке и освобождает бюджет")
+    void shouldReportFailedFileIndex() {
+        // Arrange
+        mockFiles(1024);
+        when(fileSourceProvider.getFileContent(any(FileMetadata.class))).thenAnswer(invocation -> content(invocation.<FileMetadata>getArgument(0).path()));
+        when(csvProcessingService.processCsvContent(any(FileMetadata.class), any(InputStream.class), eq(Event.class), any()))
+                .thenAnswer(invocation -> {
+                    if (PATHS.get(1).equals(invocation.<FileMetadata>getArgument(0).path())) {
+                        throw new CsvParsingException("Ошибка разбора");
+                    }
+                    return ParseSummary.empty();
+                });
+        PrefetchingBatchProcessor processor = processor(DataSize.ofMegabytes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        processor.bindTo(registry);
+
+        // Act
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> processor.process(PATHS, Event.class, path -> event -> {
+                }, () -> {
+                }));
+
+        // Assert
+        assertEquals(1, exception.getIndex());
+        assertTrue(exception.getCause() instanceof CsvParsingException);
+        assertEquals(0, registry.get("adapter.prefetch.bytes").gauge().value(), "Бюджет должен освобождаться");
+    }
+
+    @Test
+    @DisplayName("Файл считается обработанным только после подтверждения: при ошибке подтверждения сообщается его индекс")
+    void shouldCompleteEachFileBeforeNextOne() {
+        // Arrange
+        mockFiles(1024);
+        when(fileSourceProvider.getFileContent(any(FileMetadata.class))).thenAnswer(invocation -> content(invocation.<FileMetadata>getArgument(0).path()));
+        List<String> steps = new ArrayList<>();
+        when(csvProcessingService.processCsvContent(any(FileMetadata.class), any(InputStream.class), eq(Event.class), any()))
+                .thenAnswer(invocation -> {
+                    steps.add("process " + invocation.<FileMetadata>getArgument(0).path());
+                    return ParseSummary.empty();
+                });
+        PrefetchingBatchProcessor processor = processor(DataSize.ofMegabytes(1));
+        int[] confirmed = {0};
+
+        // Act
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+                () -> processor.process(PATHS, Event.class, path -> event -> {
+                }, () -> {
+                    if (++confirmed[0] == 2) {
+                        throw new PublishingException("Брокер не подтвердил сообщения");
+                    }
+                    steps.add("confirmed");
+                }));
+
+        // Assert
+        assertEquals(List.of("process " + PATHS.get(0), "confirmed", "process " + PATHS.get(1)), steps);
+        assertEquals(1, exception.getIndex(), "Смещение неподтвержденного файла не должно фиксироваться");
+        assertTrue(exception.getCause() instanceof PublishingException);
+    }
+
+    private PrefetchingBatchProcessor processor(DataSize maxBytes) {
+        PrefetchProperties properties = new PrefetchProperties();
+        properties.setMaxBytes(maxBytes);
+        properties.setMaxFiles(2);
+        return new PrefetchingBatchProcessor(csvProcessingService, fileSourceProvider, downloadPool, properties);
+    }
+
+    private void mockFiles(long size) {
+        for (String path : PATHS) {
+            when(fileSourceProvider.stat(path)).thenReturn(new FileMetadata(path, size, "etag"));
+        }
+    }
+
+    private long downloads() {
+        return mockingDetails(fileSourceProvider).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("getFileContent"))
+                .count();
+    }
+
+    private static InputStream content(String path) {
+        return new ByteArrayInputStream(path.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,200 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тесты для локального дискового кеша файлов
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingFileSourceProviderTest {
+
+    private static final String PATH = "http://minio:9000/event-mosaic/20250106223000.export.CSV";
+    private static final byte[] CONTENT = "1\tUSA\n2\tCHN\n".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private FileSourceProvider delegate;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Повторное чтение файла той же версии берется с диска без загрузки из источника")
+    void shouldServeRepeatedReadFromDisk() throws IOException {
+        // Arrange
+        when(delegate.stat(PATH)).thenReturn(new FileMetadata(PATH, CONTENT.length, "etag-1"));
+        when(delegate.getFileContent(any(FileMetadata.class))).thenAnswer(invocation -> new ByteArrayInputStream(CONTENT));
+        CachingFileSourceProvider provider = new CachingFileSourceProvider(delegate, directory, 1024, Duration.ofHours(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        provider.bindTo(registry);
+
+        // Act
+        byte[] first = read(provider);
+        byte[] second = read(provider);
+
+        // Assert
+        assertEquals(new String(CONTENT, StandardCharsets.UTF_8), new String(first, StandardCharsets.UTF_8));
+        assertEquals(new String(CONTENT, StandardCharsets.UTF_8), new String(second, StandardCharsets.UTF_8));
+        verify(delegate, times(1)).getFileContent(any(FileMetadata.class));
+        assertEquals(1, registry.get("adapter.source.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(CONTENT.length, registry.get("adapter.source.cache.bytes.saved").functionCounter().count());
+        assertEquals(CONTENT.length, registry.get("adapter.source.cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Содержимое читается во время загрузки той версии, сведения о которой получены, и сохраняется при закрытии потока")
+    void shouldStreamWhileSpoolingKnownVersion() throws IOException {
+        // Arrange
+        FileMetadata file = new FileMetadata(PATH, CONTENT.length, "etag-1");
+        when(delegate.getFileContent(file)).thenAnswer(invocation -> new ByteArrayInputStream(CONTENT));
+        CachingFileSourceProvider provider = new CachingFileSourceProvider(delegate, directory, 1024, Duration.ofHours(1));
+
+        // Act
+        byte[] head;
+        long cachedWhileReading;
+        try (InputStream stream = provider.getFileContent(file)) {
+            head = stream.readNBytes(2);
+            cachedWhileReading = cachedFiles();
+        }
+        byte[] second;
+        try (InputStream stream = provider.getFileContent(file)) {
+            second = stream.readAllBytes();
+        }
+
+        // Assert
+        assertEquals("1\t", new String(head, StandardCharsets.UTF_8));
+        assertEquals(0, cachedWhileReading, "Файл не должен попадать в кеш до окончания загрузки");
+        assertEquals(new String(CONTENT, StandardCharsets.UTF_8), new String(second, StandardCharsets.UTF_8));
+        verify(delegate, times(1)).getFileContent(file);
+        verify(delegate, never()).stat(PATH);
+    }
+
+    @Test
+    @DisplayName("Файл, загрузка которого прервана ошибкой источника, не сохраняется в кеше")
+    void shouldNotCacheFailedDownload() throws IOException {
+        // Arrange
+        FileMetadata file = new FileMetadata(PATH, CONTENT.length, "etag-1");
+        when(delegate.getFileContent(file)).thenAnswer(invocation -> new SequenceInputStream(
+                new ByteArrayInputStream(CONTENT, 0, 4), new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("Соединение разорвано");
+                    }
+                }));
+        CachingFileSourceProvider provider = new CachingFileSourceProvider(delegate, directory, 1024, Duration.ofHours(1));
+
+        // Act
+        try (InputStream stream = provider.getFileContent(file)) {
+            assertThrows(IOException.class, stream::readAllBytes);
+        }
+
+        // Assert
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count(), "Ни неполный, ни временный файл не должны оставаться в каталоге");
+        }
+    }
+
+    @Test
+    @DisplayName("Новая версия файла (другой ETag) загружается из источника заново")
+    void shouldDownloadAgainWhenEtagChanges() throws IOException {
+        // Arrange
+        when(delegate.stat(PATH)).thenReturn(
+                new FileMetadata(PATH, CONTENT.length, "etag-1"),
+                new FileMetadata(PATH, CONTENT.length, "etag-2"));
+        when(delegate.getFileContent(any(FileMetadata.class))).thenAnswer(invocation -> new ByteArrayInputStream(CONTENT));
+        CachingFileSourceProvider provider = new CachingFileSourceProvider(delegate, directory, 1024, Duration.ofHours(1));
+
+        // Act
+        read(provider);
+        read(provider);
+
+        // Assert
+        verify(delegate, times(2)).getFileContent(any(FileMetadata.class));
+    }
+
+    @Test
+    @DisplayName("При превышении емкости удаляются давно не читавшиеся файлы, а устаревшие - при запуске")
+    void shouldEvictBySizeAndAge() throws IOException {
+        // Arrange
+        Path expired = Files.write(directory.resolve("expired.bin"), new byte[10]);
+        Files.setLastModifiedTime(expired, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+        Path leftover = Files.write(directory.resolve("file.bin.123.part"), new byte[10]);
+
+        when(delegate.stat(PATH)).thenReturn(
+                new FileMetadata(PATH, CONTENT.length, "etag-1"),
+                new FileMetadata(PATH, CONTENT.length, "etag-2"));
+        when(delegate.getFileContent(any(FileMetadata.class))).thenAnswer(invocation -> new ByteArrayInputStream(CONTENT));
+        CachingFileSourceProvider provider =
+                new CachingFileSourceProvider(delegate, directory, CONTENT.length + 1L, Duration.ofHours(1));
+
+        // Act
+        read(provider);
+        read(provider);
+
+        // Assert
+        assertTrue(Files.notExists(expired), "Устаревший файл должен удаляться");
+        assertTrue(Files.notExists(leftover), "Незавершенная загрузка должна удаляться");
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> cached = files.toList();
+            assertEquals(1, cached.size(), "В кеше должна остаться только последняя версия файла");
+        }
+    }
+
+    @Test
+    @DisplayName("Файл без ETag читается из источника напрямую")
+    void shouldBypassCacheWithoutEtag() throws IOException {
+        // Arrange
+        when(delegate.stat(PATH)).thenReturn(new FileMetadata(PATH, CONTENT.length, null));
+        when(delegate.getFileContent(any(FileMetadata.class))).thenAnswer(invocation -> new ByteArrayInputStream(CONTENT));
+        CachingFileSourceProvider provider = new CachingFileSourceProvider(delegate, directory, 1024, Duration.ofHours(1));
+
+        // Act
+        read(provider);
+        read(provider);
+
+        // Assert
+        verify(delegate, times(2)).getFileContent(any(FileMetadata.class));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private long cachedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".bin")).count();
+        }
+    }
+
+    private static byte[] read(FileSourceProvider provider) throws IOException {
+        try (InputStream stream = provider.getFileContent(PATH)) {
+            return stream.readAllBytes();
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.neighbor.eventmosaic.adapter.source;
 
+import com.neighbor.eventmosaic.adapter.config.properties.MinioProperties;
 import com.neighbor.eventmosaic.adapter.exception.FileAccessException;
 import com.neighbor.eventmosaic.adapter.exception.MinioAccessException;
 import io.minio.GetObjectArgs;
 import io.minio.GetObjectResponse;
 import io.minio.MinioClient;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import okhttp3.Headers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,14 +16,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -29,6 +38,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -158,4 +169,88 @@ class FileSourceProviderTest {
         assertNotNull(exception.getCause());
         assertInstanceOf(IOException.class, exception.getCause());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Большой объект загружается параллельными диапазонами и собирается в исходном порядке")
+    void getFileContent_rangedDownload_returnsOrderedContent() throws Exception {
+        // Arrange
+        String fileUrl = "http://minio.example.com:9000/my-bucket/large.csv";
+        byte[] content = new byte[10_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        MinioProperties.Ranged ranged = new MinioProperties.Ranged();
+        ranged.setEnabled(true);
+        ranged.setThreshold(DataSize.ofBytes(1024));
+        ranged.setRangeSize(DataSize.ofBytes(1000));
+        ranged.setConcurrency(3);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        MinioFileSourceProvider rangedProvider = new MinioFileSourceProvider(minioClient, ranged, pool);
+
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.size()).thenReturn((long) content.length);
+        when(stat.etag()).thenReturn("etag-1");
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stat);
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenAnswer(invocation -> {
+            GetObjectArgs args = invocation.getArgument(0);
+            int offset = Math.toIntExact(args.offset());
+            int length = Math.toIntExact(args.length());
+            return new GetObjectResponse(Headers.of(), args.bucket(), "", args.object(),
+                    new ByteArrayInputStream(content, offset, length));
+        });
+
+        // Act
+        byte[] actual;
+        try (InputStream stream = rangedProvider.getFileContent(fileUrl)) {
+            actual = stream.readAllBytes();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Assert
+        assertArrayEquals(content, actual, "Содержимое объекта должно совпадать с исходным");
+        ArgumentCaptor<GetObjectArgs> argsCaptor = ArgumentCaptor.forClass(GetObjectArgs.class);
+        verify(minioClient, times(10)).getObject(argsCaptor.capture());
+        List<GetObjectArgs> requests = argsCaptor.getAllValues();
+        assertTrue(requests.stream().allMatch(args -> "etag-1".equals(args.matchETag())),
+                "Каждый диапазон должен запрашиваться с ETag объекта");
+    }
+
+    @Test
+    @DisplayName("Получение размера и ETag объекта по MinIO URL")
+    void stat_validMinioUrl_returnsMetadata() throws Exception {
+        // Arrange
+        String fileUrl = "http://minio.example.com:9000/my-bucket/data/my-object.csv";
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.size()).thenReturn(42L);
+        when(stat.etag()).thenReturn("etag-1");
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stat);
+
+        // Act
+        FileMetadata metadata = provider.stat(fileUrl);
+
+        // Assert
+        assertEquals(new FileMetadata(fileUrl, 42L, "etag-1"), metadata);
+        ArgumentCaptor<StatObjectArgs> argsCaptor = ArgumentCaptor.forClass(StatObjectArgs.class);
+        verify(minioClient).statObject(argsCaptor.capture());
+        assertEquals("my-bucket", argsCaptor.getValue().bucket());
+        assertEquals("data/my-object.csv", argsCaptor.getValue().object());
+    }
+
+    @Test
+    @DisplayName("Содержимое известной версии объекта запрашивается с ETag без повторного запроса сведений")
+    void getFileContent_knownVersion_matchesEtagWithoutStat() throws Exception {
+        // Arrange
+        String fileUrl = "http://minio.example.com:9000/my-bucket/my-object.csv";
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(mock(GetObjectResponse.class));
+
+        // Act
+        provider.getFileContent(new FileMetadata(fileUrl, 42L, "etag-1")).close();
+
+        // Assert
+        ArgumentCaptor<GetObjectArgs> argsCaptor = ArgumentCaptor.forClass(GetObjectArgs.class);
+        verify(minioClient).getObject(argsCaptor.capture());
+        assertEquals("etag-1", argsCaptor.getValue().matchETag());
+        verify(minioClient, never()).statObject(any(StatObjectArgs.class));
+    }
+}
@@ -0,0 +1,84 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import com.neighbor.eventmosaic.adapter.exception.FileAccessException;
+import com.neighbor.eventmosaic.adapter.util.CompressionUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты для чтения локальных файлов по URL file://
+ */
+class LocalFileSourceProviderTest {
+
+    private static final String CONTENT = "1\tUSA\n2\tCHN\n";
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Локальный файл читается через отображение в память без промежуточного буфера")
+    void shouldReadMappedFile() throws IOException {
+        // Arrange
+        Path file = Files.writeString(directory.resolve("20250106223000.export.CSV"), CONTENT);
+        LocalFileSourceProvider provider = new LocalFileSourceProvider(directory);
+
+        // Act
+        try (InputStream stream = provider.getFileContent(file.toUri().toString());
+             InputStream decompressed = CompressionUtil.decompress(stream, file.toString())) {
+
+            // Assert
+            assertSame(stream, decompressed, "Отображенный файл не должен оборачиваться в буфер");
+            assertEquals(CONTENT, new String(decompressed.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Версия файла меняется при его перезаписи")
+    void shouldChangeEtagWhenFileIsRewritten() throws IOException {
+        // Arrange
+        Path file = Files.writeString(directory.resolve("20250106223000.export.CSV"), CONTENT);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse("2025-01-06T22:30:00Z")));
+        LocalFileSourceProvider provider = new LocalFileSourceProvider(directory);
+        String url = file.toUri().toString();
+
+        // Act
+        FileMetadata before = provider.stat(url);
+        Files.writeString(file, CONTENT + "3\tRUS\n");
+        FileMetadata after = provider.stat(url);
+
+        // Assert
+        assertEquals(CONTENT.length(), before.size());
+        assertNotEquals(before.etag(), after.etag());
+    }
+
+    @Test
+    @DisplayName("Файлы вне корневого каталога и несуществующие файлы не читаются")
+    void shouldRejectFilesOutsideRoot() throws IOException {
+        // Arrange
+        Path root = Files.createDirectory(directory.resolve("gdelt"));
+        Path outside = Files.writeString(directory.resolve("secret.txt"), CONTENT);
+        LocalFileSourceProvider provider = new LocalFileSourceProvider(root);
+
+        // Act & Assert
+        assertThrows(FileAccessException.class,
+                () -> provider.getFileContent(root.toUri() + "../secret.txt"));
+        assertThrows(FileAccessException.class,
+                () -> provider.stat(outside.toUri().toString()));
+        assertThrows(FileAccessException.class,
+                () -> provider.getFileContent(root.resolve("missing.CSV").toUri().toString()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тесты для метрик HTTP-клиента MinIO
+ */
+class MinioHttpMetricsTest {
+
+    private static final byte[] CONTENT = "1\tUSA\n2\tCHN\n".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, CONTENT.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(CONTENT);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Повторный запрос использует соединение из пула, метрики учитывают оба запроса")
+    void shouldRecordConnectionReuseAndResponseMetrics() throws IOException {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MinioHttpMetrics metrics = new MinioHttpMetrics(registry);
+        OkHttpClient client = new OkHttpClient.Builder()
+                .eventListenerFactory(metrics)
+                .build();
+        metrics.monitor(client);
+        String url = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort()
+                + "/event-mosaic/20250106223000.export.CSV";
+
+        // Act
+        for (int i = 0; i < 2; i++) {
+            try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+                response.body().bytes();
+            }
+        }
+
+        // Assert
+        assertEquals(1, registry.get("adapter.minio.http.connection.acquire").tag("connection", "new").timer().count());
+        assertEquals(1, registry.get("adapter.minio.http.connection.acquire").tag("connection", "reused").timer().count());
+        assertEquals(2, registry.get("adapter.minio.http.ttfb").tag("method", "GET").timer().count());
+        assertEquals(2, registry.get("adapter.minio.http.calls").tags("method", "GET", "outcome", "success").timer().count());
+        assertEquals(2.0 * CONTENT.length, registry.get("adapter.minio.http.response.bytes").counter().count());
+        assertEquals(2, registry.get("adapter.minio.http.download.rate").summary().count());
+        assertEquals(1, registry.get("adapter.minio.http.connections").tag("state", "idle").gauge().value());
+    }
+}
@@ -0,0 +1,89 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тесты для потока, собирающего объект из параллельно загружаемых диапазонов
+ */
+class RangedInputStreamTest {
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Диапазоны, загруженные в произвольном порядке, читаются в порядке объекта")
+    void shouldPreserveOrderWhenRangesCompleteOutOfOrder() throws IOException {
+        // Arrange
+        byte[] content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        RangedInputStream.RangeReader reader = (offset, length) -> {
+            // Первые диапазоны загружаются дольше последующих
+            TimeUnit.MILLISECONDS.sleep(Math.max(0, 20 - offset / 10));
+            return new ByteArrayInputStream(content, (int) offset, (int) length);
+        };
+
+        // Act
+        byte[] actual;
+        try (InputStream stream = new RangedInputStream(reader, content.length, 64, 4, pool)) {
+            actual = stream.readAllBytes();
+        }
+
+        // Assert
+        assertArrayEquals(content, actual);
+    }
+
+    @Test
+    @DisplayName("Ошибка загрузки диапазона пробрасывается читателю как IOException")
+    void shouldPropagateRangeFailure() {
+        // Arrange
+        RangedInputStream.RangeReader reader = (offset, length) -> {
+            if (offset >= 200) {
+                throw new IllegalStateException("Смоделированная ошибка хранилища");
+            }
+            return new ByteArrayInputStream(new byte[(int) length]);
+        };
+        RangedInputStream stream = new RangedInputStream(reader, 1000, 100, 2, pool);
+
+        // Act & Assert
+        IOException exception = assertThrows(IOException.class, stream::readAllBytes);
+        assertEquals(IllegalStateException.class, exception.getCause().getClass());
+    }
+
+    @Test
+    @DisplayName("Неполный ответ на запрос диапазона считается ошибкой")
+    void shouldFailOnShortRange() {
+        // Arrange
+        RangedInputStream.RangeReader reader = (offset, length) -> new ByteArrayInputStream(new byte[(int) length - 1]);
+        RangedInputStream stream = new RangedInputStream(reader, 300, 100, 2, pool);
+
+        // Act & Assert
+        IOException exception = assertThrows(IOException.class, stream::readAllBytes);
+        assertTrue(exception.getMessage().contains("получен не полностью"));
+    }
+}
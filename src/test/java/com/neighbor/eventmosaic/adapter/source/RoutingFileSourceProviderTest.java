@@ -0,0 +1,56 @@
+package com.neighbor.eventmosaic.adapter.source;
+
+import com.neighbor.eventmosaic.adapter.exception.FileAccessException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Тесты для выбора источника файла по схеме URL
+ */
+@ExtendWith(MockitoExtension.class)
+class RoutingFileSourceProviderTest {
+
+    @Mock
+    private FileSourceProvider minioProvider;
+
+    @Mock
+    private FileSourceProvider localProvider;
+
+    @Test
+    @DisplayName("Файл читается провайдером, соответствующим схеме URL")
+    void shouldRouteByScheme() {
+        // Arrange
+        RoutingFileSourceProvider provider = new RoutingFileSourceProvider(Map.of(
+                "http", minioProvider,
+                "file", localProvider));
+
+        // Act
+        provider.getFileContent("HTTP://minio:9000/event-mosaic/20250106223000.export.CSV");
+        provider.stat("file:///data/gdelt/20250106223000.export.CSV");
+
+        // Assert
+        verify(minioProvider).getFileContent("HTTP://minio:9000/event-mosaic/20250106223000.export.CSV");
+        verify(localProvider).stat("file:///data/gdelt/20250106223000.export.CSV");
+    }
+
+    @Test
+    @DisplayName("URL с неподдерживаемой схемой или без схемы отклоняется")
+    void shouldRejectUnknownScheme() {
+        // Arrange
+        RoutingFileSourceProvider provider = new RoutingFileSourceProvider(Map.of("http", minioProvider));
+
+        // Act & Assert
+        assertThrows(FileAccessException.class, () -> provider.getFileContent("s3://event-mosaic/file.CSV"));
+        assertThrows(FileAccessException.class, () -> provider.getFileContent("/data/gdelt/file.CSV"));
+        verifyNoInteractions(minioProvider);
+    }
+}
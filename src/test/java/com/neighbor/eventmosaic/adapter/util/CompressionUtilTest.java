@@ -0,0 +1,101 @@
+package com.neighbor.eventmosaic.adapter.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Тесты для утилитного класса CompressionUtil
+ */
+class CompressionUtilTest {
+
+    private static final String CONTENT = "1\t20250315\n2\t20250316\n";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"20250315120000.export.CSV.gz", "20250315120000.export.CSV"})
+    @DisplayName("Распаковка GZIP по расширению и по сигнатуре")
+    void shouldDecompressGzip(String path) throws IOException {
+        // Arrange
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Act
+        String result = read(CompressionUtil.decompress(new ByteArrayInputStream(compressed.toByteArray()), path));
+
+        // Assert
+        assertEquals(CONTENT, result);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"20250315120000.mentions.CSV.zip", "20250315120000.mentions.CSV"})
+    @DisplayName("Распаковка первого файла ZIP-архива по расширению и по сигнатуре")
+    void shouldDecompressZip(String path) throws IOException {
+        // Arrange
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(compressed)) {
+            zip.putNextEntry(new ZipEntry("20250315120000.mentions.CSV"));
+            zip.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        // Act
+        String result = read(CompressionUtil.decompress(new ByteArrayInputStream(compressed.toByteArray()), path));
+
+        // Assert
+        assertEquals(CONTENT, result);
+    }
+
+    @Test
+    @DisplayName("Несжатый файл читается без изменений")
+    void shouldPassThroughPlainFile() throws IOException {
+        // Arrange
+        InputStream plain = new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        String result = read(CompressionUtil.decompress(plain, "20250315120000.export.CSV"));
+
+        // Assert
+        assertEquals(CONTENT, result);
+    }
+
+    @Test
+    @DisplayName("Пустой ZIP-архив приводит к ошибке")
+    void shouldRejectEmptyZip() throws IOException {
+        // Arrange
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        new ZipOutputStream(compressed).close();
+
+        // Act & Assert
+        assertThrows(IOException.class, () ->
+                CompressionUtil.decompress(new ByteArrayInputStream(compressed.toByteArray()), "empty.zip"));
+    }
+
+    @Test
+    @DisplayName("Идентификатор батча извлекается из имени сжатого файла")
+    void shouldExtractBatchIdFromCompressedName() {
+        // Act & Assert
+        assertEquals("20250315120000", FileNameUtil.extractBatchId("/gdelt/20250315120000.export.CSV.zip"));
+        assertEquals("20250315120000", FileNameUtil.extractBatchId("/gdelt/20250315120000.mentions.CSV.gz"));
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        try (stream) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -8,10 +8,13 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Тесты для CsvParserUtil
@@ -125,6 +128,67 @@ class CsvParserUtilTest {
         assertEquals(678.90, CsvParserUtil.getDouble(csvRecord, 2));
     }
 
+    @Test
+    @DisplayName("Разбор целых чисел из диапазона байтов без создания объектов")
+    void shouldParseIntegersFromBytes() {
+        // Arrange
+        byte[] bytes = "x20240107|-42|+7|2147483648|12a|-|20250106214500".getBytes(StandardCharsets.US_ASCII);
+
+        // Act & Assert
+        assertEquals(20240107, CsvParserUtil.parseInt(bytes, 1, 9));
+        assertEquals(-42, CsvParserUtil.parseInt(bytes, 10, 13));
+        assertEquals(7, CsvParserUtil.parseInt(bytes, 14, 16));
+        assertEquals(CsvParserUtil.ABSENT_INT, CsvParserUtil.parseInt(bytes, 17, 27), "Переполнение int");
+        assertEquals(CsvParserUtil.ABSENT_INT, CsvParserUtil.parseInt(bytes, 28, 31), "Недопустимый символ");
+        assertEquals(CsvParserUtil.ABSENT_INT, CsvParserUtil.parseInt(bytes, 32, 33), "Только знак");
+        assertEquals(CsvParserUtil.ABSENT_INT, CsvParserUtil.parseInt(bytes, 5, 5), "Пустой диапазон");
+        assertEquals(20250106214500L, CsvParserUtil.parseLong(bytes, 34, 48));
+        assertEquals(CsvParserUtil.ABSENT_LONG, CsvParserUtil.parseLong("99999999999999999999", 0, 20), "Переполнение long");
+    }
+
+    @Test
+    @DisplayName("Разбор десятичных дробей GDELT совпадает с Double.parseDouble")
+    void shouldParseDecimalsExactly() {
+        // Arrange
+        String[] values = {"1.78571428571429", "-2.63157894736842", "2024.0192", "-10.0", "120.0", "0.05",
+                "39.828175", "-98.5795", ".5", "7.", "-0.0", "0.00000000000000000000000123",
+                "1.23456789012345678", "1e5", "-1.5E-3"};
+
+        // Act & Assert
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(Double.parseDouble(value), CsvParserUtil.parseDouble(bytes, 0, bytes.length), value);
+            assertEquals(Double.parseDouble(value), CsvParserUtil.parseDouble(value, 0, value.length()), value);
+        }
+    }
+
+    @Test
+    @DisplayName("Случайные дроби до 15 значащих цифр разбираются без потери точности")
+    void shouldParseRandomDecimalsExactly() {
+        // Arrange
+        Random random = new Random(42);
+
+        // Act & Assert
+        for (int i = 0; i < 100_000; i++) {
+            long mantissa = random.nextLong(1_000_000_000_000_000L);
+            String digits = Long.toString(mantissa);
+            int dot = random.nextInt(digits.length() + 1);
+            String value = (random.nextBoolean() ? "-" : "") + digits.substring(0, dot) + "." + digits.substring(dot);
+            if (value.endsWith(".") && dot == 0) {
+                continue;
+            }
+            assertEquals(Double.parseDouble(value), CsvParserUtil.parseDouble(value, 0, value.length()), value);
+        }
+    }
+
+    @Test
+    @DisplayName("Некорректные дроби возвращают NaN вместо исключения")
+    void shouldReturnNaNForInvalidDecimals() {
+        for (String value : new String[]{"", "N/A", "abc", "1.2.3", "-", ".", "NaN", "Infinity", "1e", "невалидное_число"}) {
+            assertTrue(Double.isNaN(CsvParserUtil.parseDouble(value, 0, value.length())), value);
+        }
+    }
+
     /**
      * Создает CSVRecord из строки с разделителем запятая.
      */